@@ -0,0 +1,127 @@
+package com.capstone.backend.loadtest;
+
+import com.capstone.backend.protocol.FrameHeader;
+import com.capstone.backend.protocol.GpuFrame;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /ws-client 에 v2 프로토콜로 접속하는 가짜 고객(앱)입니다.
+ * <ul>
+ *     <li>ready를 받으면 frameMs마다 녹음 시각을 담은 오디오 프레임을 보냄 (실시간 속도)</li>
+ *     <li>되돌아온 GPU 오디오의 녹음 시각으로 왕복 지연을 기록 (같은 JVM이라 시계가 같음)</li>
+ * </ul>
+ * 프레임 전송은 고정 주기 작업 하나가 맡으므로 한 세션에 동시에 보내는 일은 없습니다.
+ */
+class FakeClient extends AbstractWebSocketHandler {
+
+    private final LoadTestConfig config;
+    private final LoadStats stats;
+    private final ScheduledExecutorService timer;
+    private final ByteBuffer audio; // 모든 고객이 같은 내용을 보냄
+    private final CountDownLatch matched;
+    private final FrameHeader header = new FrameHeader(); // 수신 스레드 전용
+
+    private volatile WebSocketSession session;
+    private volatile ScheduledFuture<?> pacing;
+    private long connectedAt;
+    private long sequence; // 전송 작업 전용
+    private ByteBuffer frame;
+
+    FakeClient(LoadTestConfig config, LoadStats stats, ScheduledExecutorService timer, ByteBuffer audio,
+               CountDownLatch matched) {
+        this.config = config;
+        this.stats = stats;
+        this.timer = timer;
+        this.audio = audio.duplicate(); // writeFrame이 잠시 position을 옮기므로 고객마다 따로
+        this.matched = matched;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        this.connectedAt = System.nanoTime();
+        this.session = session;
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        // {"type":"system","event":"ready"}
+        if (pacing == null && message.getPayload().contains("ready")) {
+            stats.matchLatency.recordNanos(System.nanoTime() - connectedAt);
+            stats.callsMatched.incrementAndGet();
+            matched.countDown();
+            pacing = timer.scheduleAtFixedRate(this::sendFrame, 0, config.frameMs(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) {
+        if (!header.wrap(message.getPayload()) || header.type() != GpuFrame.AUDIO) {
+            stats.errors.incrementAndGet();
+            return;
+        }
+        stats.clientFramesReceived.incrementAndGet();
+        long captureMicros = header.captureMicros();
+        if (captureMicros > 0) {
+            stats.roundTripLatency.recordMicros(nowMicros() - captureMicros);
+        }
+    }
+
+    private void sendFrame() {
+        WebSocketSession current = session;
+        if (current == null || !current.isOpen()) {
+            return;
+        }
+        frame = FrameHeader.writeFrame(frame, GpuFrame.AUDIO, 0, sequence, nowMicros(), audio);
+        sequence = (sequence + 1) & 0xFFFFFFFFL;
+        try {
+            current.sendMessage(new BinaryMessage(frame));
+            stats.clientFramesSent.incrementAndGet();
+        } catch (IOException | IllegalStateException e) {
+            stats.errors.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        stats.errors.incrementAndGet();
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        stopPacing();
+        this.session = null;
+    }
+
+    // 전화를 끊음 - 서버가 통화를 정리하고 GPU 슬롯을 풀로 돌려줌
+    void hangUp() throws IOException {
+        stopPacing();
+        WebSocketSession current = session;
+        if (current != null && current.isOpen()) {
+            current.close(CloseStatus.NORMAL);
+        }
+    }
+
+    private void stopPacing() {
+        ScheduledFuture<?> current = pacing;
+        if (current != null) {
+            current.cancel(false);
+        }
+    }
+
+    private static long nowMicros() {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+    }
+}
@@ -0,0 +1,120 @@
+package com.capstone.backend.loadtest;
+
+import com.capstone.backend.protocol.FrameHeader;
+import com.capstone.backend.protocol.GpuFrame;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /ws-gpu 에 v2 프로토콜로 접속하는 가짜 GPU 워커입니다.
+ * <ul>
+ *     <li>start(JSON)를 받으면 readyDelayMs 뒤 그 채널로 0x04 "ready"</li>
+ *     <li>받은 오디오(0x01)는 gpuDelayMs 뒤 같은 sequence와 녹음 시각으로 되돌려 보냄 (모델 추론 흉내)</li>
+ *     <li>transcriptEvery 프레임마다 받아쓴 텍스트(0x02)와 응답 텍스트(0x03)를 보냄 (대화 저장 경로 부하)</li>
+ * </ul>
+ * 여러 채널의 전송이 타이머 스레드에서 동시에 일어나므로 세션은 ConcurrentWebSocketSessionDecorator로 감쌉니다.
+ */
+class FakeGpuWorker extends AbstractWebSocketHandler {
+
+    private static final byte[] READY = "ready".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] USER_TEXT = "여보세요, 잘 들리세요?".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] AI_TEXT = "네, 잘 들려요. 오늘은 어떻게 지내셨어요?".getBytes(StandardCharsets.UTF_8);
+
+    private final LoadTestConfig config;
+    private final LoadStats stats;
+    private final ScheduledExecutorService timer;
+    private final ObjectMapper objectMapper;
+    private final FrameHeader header = new FrameHeader(); // 수신 스레드 전용
+
+    private volatile WebSocketSession session;
+    private long receivedFrames; // 수신 스레드 전용
+
+    FakeGpuWorker(LoadTestConfig config, LoadStats stats, ScheduledExecutorService timer, ObjectMapper objectMapper) {
+        this.config = config;
+        this.stats = stats;
+        this.timer = timer;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        this.session = new ConcurrentWebSocketSessionDecorator(session, 5_000, 4 * 1024 * 1024);
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        JsonNode signal = objectMapper.readTree(message.getPayload());
+        if ("start".equals(signal.path("type").asText())) {
+            int channel = signal.path("channel").asInt(0); // 단일 슬롯이면 null -> 0
+            timer.schedule(() -> send(GpuFrame.CONTROL, channel, 0, 0, ByteBuffer.wrap(READY)),
+                    config.readyDelayMs(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) {
+        ByteBuffer frame = message.getPayload();
+        if (!header.wrap(frame) || header.type() != GpuFrame.AUDIO) {
+            stats.errors.incrementAndGet();
+            return;
+        }
+        stats.gpuFramesReceived.incrementAndGet();
+        int channel = header.channel();
+        long sequence = header.sequence();
+        long captureMicros = header.captureMicros();
+        // 수신 버퍼는 컨테이너가 재사용하므로 나중에 보낼 오디오는 복사
+        ByteBuffer audio = ByteBuffer.allocate(frame.remaining()).put(frame).flip();
+
+        timer.schedule(() -> {
+            send(GpuFrame.AUDIO, channel, sequence, captureMicros, audio);
+            stats.gpuFramesEchoed.incrementAndGet();
+        }, config.gpuDelayMs(), TimeUnit.MILLISECONDS);
+
+        receivedFrames++;
+        if (config.transcriptEvery() > 0 && receivedFrames % config.transcriptEvery() == 0) {
+            send(GpuFrame.USER_TEXT, channel, 0, 0, ByteBuffer.wrap(USER_TEXT));
+            send(GpuFrame.AI_TEXT, channel, 0, 0, ByteBuffer.wrap(AI_TEXT));
+        }
+    }
+
+    private void send(byte type, int channel, long sequence, long captureMicros, ByteBuffer payload) {
+        WebSocketSession current = session;
+        if (current == null || !current.isOpen()) {
+            return;
+        }
+        try {
+            current.sendMessage(new BinaryMessage(FrameHeader.writeFrame(null, type, channel, sequence, captureMicros, payload)));
+        } catch (IOException | IllegalStateException e) {
+            stats.errors.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        stats.errors.incrementAndGet();
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        this.session = null;
+    }
+
+    void close() throws IOException {
+        WebSocketSession current = session;
+        if (current != null) {
+            current.close();
+        }
+    }
+}
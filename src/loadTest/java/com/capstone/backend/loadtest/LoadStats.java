@@ -0,0 +1,80 @@
+package com.capstone.backend.loadtest;
+
+import com.capstone.backend.metrics.LatencyHistogram;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 부하 테스트 중 가짜 고객과 GPU 워커가 함께 기록하는 지표입니다. (여러 스레드에서 동시에 기록)
+ * CPU와 힙은 앱과 가짜 고객/워커가 같은 JVM에서 도는 전체 프로세스 기준입니다.
+ */
+class LoadStats {
+
+    final AtomicLong callsStarted = new AtomicLong();
+    final AtomicLong callsMatched = new AtomicLong();  // 고객이 ready를 받은 통화
+    final AtomicLong clientFramesSent = new AtomicLong();
+    final AtomicLong gpuFramesReceived = new AtomicLong();
+    final AtomicLong gpuFramesEchoed = new AtomicLong();
+    final AtomicLong clientFramesReceived = new AtomicLong();
+    final AtomicLong errors = new AtomicLong();
+
+    final LatencyHistogram matchLatency = new LatencyHistogram();     // 고객 접속 -> ready
+    final LatencyHistogram roundTripLatency = new LatencyHistogram(); // 녹음 시각 -> 고객이 GPU 오디오를 받은 시각
+
+    private final com.sun.management.OperatingSystemMXBean os =
+            (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    private double cpuSum;
+    private double cpuMax;
+    private long heapMax;
+    private long heapSum;
+    private int samples;
+
+    // 측정 구간 동안 1초마다 호출
+    synchronized void sampleResources() {
+        double cpu = Math.max(os.getProcessCpuLoad(), 0);
+        long heap = memory.getHeapMemoryUsage().getUsed();
+        cpuSum += cpu;
+        cpuMax = Math.max(cpuMax, cpu);
+        heapSum += heap;
+        heapMax = Math.max(heapMax, heap);
+        samples++;
+    }
+
+    Snapshot snapshot() {
+        return new Snapshot(System.nanoTime(), callsMatched.get(), clientFramesSent.get(), gpuFramesReceived.get(),
+                gpuFramesEchoed.get(), clientFramesReceived.get());
+    }
+
+    synchronized void print(LoadTestConfig config, long rampNanos, Snapshot from, Snapshot to) {
+        double windowSec = (to.nanos() - from.nanos()) / 1e9;
+        double rampSec = Math.max(rampNanos / 1e9, 1e-9);
+        int cores = Runtime.getRuntime().availableProcessors();
+        int n = Math.max(samples, 1);
+
+        System.out.printf("[load-test] clients=%d, workers=%d x %d slots, frame=%dms, gpu delay=%dms, cores=%d%n",
+                config.clients(), config.workers(), config.slots(), config.frameMs(), config.gpuDelayMs(), cores);
+        System.out.printf("[load-test] matches: %d/%d in %.2fs = %.1f matches/s, connect->ready p50=%.1fms p95=%.1fms p99=%.1fms%n",
+                callsMatched.get(), callsStarted.get(), rampNanos / 1e9, callsMatched.get() / rampSec,
+                ms(matchLatency, 0.50), ms(matchLatency, 0.95), ms(matchLatency, 0.99));
+        System.out.printf("[load-test] relay (%.1fs window): client->gpu %.0f frames/s (sent %.0f/s), gpu->client %.0f frames/s (echoed %.0f/s)%n",
+                windowSec,
+                (to.gpuReceived() - from.gpuReceived()) / windowSec, (to.clientSent() - from.clientSent()) / windowSec,
+                (to.clientReceived() - from.clientReceived()) / windowSec, (to.gpuEchoed() - from.gpuEchoed()) / windowSec);
+        System.out.printf("[load-test] round trip (capture -> client): p50=%.1fms p95=%.1fms p99=%.1fms p99.9=%.1fms (%d frames)%n",
+                ms(roundTripLatency, 0.50), ms(roundTripLatency, 0.95), ms(roundTripLatency, 0.99),
+                ms(roundTripLatency, 0.999), roundTripLatency.getCount());
+        System.out.printf("[load-test] process cpu avg=%.0f%% max=%.0f%% (of %d cores), heap avg=%dMB max=%dMB, errors=%d%n",
+                cpuSum / n * 100, cpuMax * 100, cores, heapSum / n >> 20, heapMax >> 20, errors.get());
+    }
+
+    private static double ms(LatencyHistogram histogram, double quantile) {
+        return histogram.percentileMicros(quantile) / 1000.0;
+    }
+
+    record Snapshot(long nanos, long matched, long clientSent, long gpuReceived, long gpuEchoed, long clientReceived) {
+    }
+}
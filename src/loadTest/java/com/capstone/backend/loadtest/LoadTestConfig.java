@@ -0,0 +1,43 @@
+package com.capstone.backend.loadtest;
+
+/**
+ * 부하 테스트 설정입니다. ./gradlew loadTest -Dloadtest.clients=200 -Dloadtest.workers=8 처럼 시스템 속성으로 바꿉니다.
+ *
+ * @param clients       동시 통화(가짜 고객) 수
+ * @param workers       가짜 GPU 워커 수
+ * @param slots         워커 하나의 동시 통화 수 (?slots=)
+ * @param profiles      통화가 나눠 쓰는 목소리 프로필 수 (AFFINITY 배정 확인용)
+ * @param durationSec   모든 통화가 연결된 뒤 측정하는 시간
+ * @param frameMs       고객이 오디오 프레임을 보내는 간격 (실시간 속도)
+ * @param gpuDelayMs    GPU가 받은 오디오를 되돌려 보내기까지의 지연 (모델 추론 시간 흉내)
+ * @param readyDelayMs  start를 받은 GPU가 ready를 보내기까지의 지연 (모델 로딩 흉내)
+ * @param transcriptEvery GPU가 이 프레임 수마다 받아쓴 텍스트(0x02)와 응답 텍스트(0x03)를 보냄, 0이면 보내지 않음
+ * @param rampPerSecond 초당 새로 시작하는 통화 수, 0이면 한꺼번에
+ */
+record LoadTestConfig(int clients, int workers, int slots, int profiles, int durationSec, int frameMs,
+                      int gpuDelayMs, int readyDelayMs, int transcriptEvery, int rampPerSecond) {
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                intProperty("loadtest.clients", 50),
+                intProperty("loadtest.workers", 4),
+                intProperty("loadtest.slots", 16),
+                intProperty("loadtest.profiles", 8),
+                intProperty("loadtest.duration-sec", 20),
+                intProperty("loadtest.frame-ms", 20),
+                intProperty("loadtest.gpu-delay-ms", 100),
+                intProperty("loadtest.ready-delay-ms", 200),
+                intProperty("loadtest.transcript-every", 50),
+                intProperty("loadtest.ramp-per-second", 0));
+    }
+
+    // 16kHz PCM16 mono 기준 프레임 하나의 바이트 수
+    int frameBytes() {
+        return 16000 * 2 * frameMs / 1000;
+    }
+
+    private static int intProperty(String key, int defaultValue) {
+        String value = System.getProperty(key);
+        return value != null ? Integer.parseInt(value.trim()) : defaultValue;
+    }
+}
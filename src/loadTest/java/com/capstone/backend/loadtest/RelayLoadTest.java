@@ -0,0 +1,152 @@
+package com.capstone.backend.loadtest;
+
+import com.capstone.backend.entity.User;
+import com.capstone.backend.repository.UserRepository;
+import com.capstone.backend.service.VoiceProfileService;
+import com.capstone.backend.util.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 앱을 임의 포트(H2)로 띄우고, 가짜 GPU 워커 M개와 가짜 고객 N명으로 매칭과 오디오 중계를 실제 소켓으로 측정합니다.
+ * <ol>
+ *     <li>워커 M개가 /ws-gpu 에 접속 (?slots=, v2)</li>
+ *     <li>고객마다 POST /api/calls/start 로 통화를 만들고 /ws-client 에 접속 (v2) -> ready를 받으면 실시간 속도로 오디오 전송</li>
+ *     <li>모든 통화가 ready를 받은 뒤 durationSec 동안 중계 처리량, 왕복 지연, CPU/힙을 측정</li>
+ *     <li>고객이 전화를 끊고 워커 연결을 닫음</li>
+ * </ol>
+ * ./gradlew loadTest 로 실행합니다. 설정은 {@link LoadTestConfig}, 서버 설정은 -Drelay.shards.enabled=true 처럼 넘깁니다.
+ * CallService를 바꿀 때마다 같은 설정으로 돌려 이전 결과와 비교합니다.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class RelayLoadTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private VoiceProfileService voiceProfileService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("가짜 고객 N명 / GPU 워커 M개: matches/s, 중계 frames/s, 왕복 지연 백분위, CPU/힙")
+    void relayUnderLoad() throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        LoadStats stats = new LoadStats();
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        ScheduledExecutorService timer = Executors.newScheduledThreadPool(threads);
+        StandardWebSocketClient webSocketClient = new StandardWebSocketClient();
+        HttpClient http = HttpClient.newHttpClient();
+
+        User user = userRepository.save(new User("010" + System.nanoTime() % 100_000_000L, "load-test", "부하테스트"));
+        String token = jwtUtil.generateToken(user.getPhoneNumber());
+        List<Long> profileIds = new ArrayList<>();
+        for (int i = 0; i < config.profiles(); i++) {
+            profileIds.add(voiceProfileService.createVoiceProfile(user.getPhoneNumber(), "load-" + i,
+                    new ByteArrayInputStream(new byte[16])));
+        }
+
+        List<FakeGpuWorker> workers = new ArrayList<>();
+        List<FakeClient> clients = new ArrayList<>();
+        try {
+            for (int i = 0; i < config.workers(); i++) {
+                FakeGpuWorker worker = new FakeGpuWorker(config, stats, timer, objectMapper);
+                webSocketClient.execute(worker, "ws://localhost:" + port + "/ws-gpu?workerId=load-gpu-" + i
+                        + "&slots=" + config.slots() + "&protocol=2").get(10, TimeUnit.SECONDS);
+                workers.add(worker);
+            }
+
+            ByteBuffer audio = speechFrame(config.frameBytes());
+            int expected = Math.min(config.clients(), config.workers() * config.slots()); // 남는 고객은 대기열에 남음
+            CountDownLatch matched = new CountDownLatch(expected);
+            long rampStart = System.nanoTime();
+            for (int i = 0; i < config.clients(); i++) {
+                long callSessionId = startCall(http, token, profileIds.get(i % profileIds.size()));
+                FakeClient client = new FakeClient(config, stats, timer, audio, matched);
+                WebSocketSession session = webSocketClient.execute(client,
+                        "ws://localhost:" + port + "/ws-client?sessionId=" + callSessionId + "&protocol=2")
+                        .get(10, TimeUnit.SECONDS);
+                assertTrue(session.isOpen());
+                clients.add(client);
+                stats.callsStarted.incrementAndGet();
+                if (config.rampPerSecond() > 0) {
+                    Thread.sleep(1000L / config.rampPerSecond());
+                }
+            }
+            boolean allMatched = matched.await(60, TimeUnit.SECONDS);
+            long rampNanos = System.nanoTime() - rampStart;
+
+            // 측정 구간: 모든 통화가 오디오를 주고받는 상태
+            LoadStats.Snapshot from = stats.snapshot();
+            for (int second = 0; second < config.durationSec(); second++) {
+                Thread.sleep(1000);
+                stats.sampleResources();
+            }
+            LoadStats.Snapshot to = stats.snapshot();
+            stats.print(config, rampNanos, from, to);
+
+            assertTrue(allMatched, "GPU 슬롯 수 안의 통화는 모두 ready를 받아야 합니다.");
+            assertEquals(expected, stats.callsMatched.get());
+            assertTrue(to.clientReceived() > from.clientReceived(), "GPU 오디오가 고객에게 돌아와야 합니다.");
+        } finally {
+            for (FakeClient client : clients) {
+                client.hangUp();
+            }
+            for (FakeGpuWorker worker : workers) {
+                worker.close();
+            }
+            timer.shutdownNow();
+        }
+    }
+
+    private long startCall(HttpClient http, String token, Long voiceProfileId) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/calls/start"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"voiceProfileId\":" + voiceProfileId + "}"))
+                .build();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), response.body());
+        return objectMapper.readTree(response.body()).path("callSessionId").asLong();
+    }
+
+    // 묵음 판단(relay.vad.enabled=true)에 걸리지 않도록 말소리 크기의 220Hz 사인파
+    private static ByteBuffer speechFrame(int bytes) {
+        ByteBuffer pcm = ByteBuffer.allocate(bytes);
+        for (int i = 0; i < bytes / 2; i++) {
+            int sample = (int) (Math.sin(2 * Math.PI * 220 * i / 16000) * 6000);
+            pcm.put((byte) sample).put((byte) (sample >> 8));
+        }
+        return pcm.flip().asReadOnlyBuffer();
+    }
+}
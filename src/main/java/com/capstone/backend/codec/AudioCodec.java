@@ -0,0 +1,22 @@
+package com.capstone.backend.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * PCM16(little-endian, mono)과 전송용 인코딩 사이의 변환입니다.
+ * <p>
+ * 입력 버퍼는 position부터 limit까지 제자리에서 읽고 position을 바꾸지 않으며, 출력은 out의 현재 위치부터 씁니다.
+ * 프레임 사이에 상태를 이어 가는 코덱이 있으므로 스트림(통화의 한 방향)마다 인스턴스 하나를 씁니다. (스레드 안전하지 않음)
+ */
+public interface AudioCodec {
+
+    void encode(ByteBuffer pcm, ByteBuffer out);
+
+    void decode(ByteBuffer encoded, ByteBuffer pcmOut);
+
+    // PCM 바이트 수에 대한 인코딩 결과의 최대 크기
+    int maxEncodedBytes(int pcmBytes);
+
+    // 인코딩된 바이트 수에 대한 PCM 결과의 최대 크기
+    int maxDecodedBytes(int encodedBytes);
+}
@@ -0,0 +1,90 @@
+package com.capstone.backend.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 한 구간의 오디오 형식과 서버 내부 형식({@link AudioFormat#INTERNAL}) 사이를 변환합니다. (통화의 한 구간마다 하나)
+ * <p>
+ * {@link #decode}(구간 -> 내부)와 {@link #encode}(내부 -> 구간)는 상태와 버퍼를 따로 가지므로
+ * 서로 다른 스레드에서 불러도 되지만, 같은 방향은 한 스레드에서만 불러야 합니다.
+ * 결과 버퍼는 재사용하므로 다음 호출 전까지만 유효합니다.
+ */
+public class AudioConverter {
+
+    private final AudioFormat format;
+
+    // 구간 -> 내부
+    private final AudioCodec decoder;
+    private final Resampler inbound;
+    private ByteBuffer decoded;
+    private ByteBuffer inboundPcm;
+
+    // 내부 -> 구간
+    private final AudioCodec encoder;
+    private final Resampler outbound;
+    private ByteBuffer outboundPcm;
+    private ByteBuffer encoded;
+
+    public AudioConverter(AudioFormat format) {
+        this.format = format;
+        this.decoder = format.encoding().newCodec();
+        this.encoder = format.encoding().newCodec();
+        int rate = format.sampleRate();
+        int internalRate = AudioFormat.INTERNAL.sampleRate();
+        this.inbound = rate != internalRate ? new Resampler(rate, internalRate) : null;
+        this.outbound = rate != internalRate ? new Resampler(internalRate, rate) : null;
+    }
+
+    public AudioFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * 구간에서 받은 오디오를 내부 형식으로 바꿉니다. 이미 내부 형식이면 audio를 그대로 반환합니다.
+     */
+    public ByteBuffer decode(ByteBuffer audio) {
+        if (format.isInternal()) {
+            return audio;
+        }
+        ByteBuffer pcm = audio;
+        if (format.encoding() != AudioEncoding.PCM16) {
+            decoded = prepare(decoded, decoder.maxDecodedBytes(audio.remaining()));
+            decoder.decode(audio, decoded);
+            pcm = decoded.flip();
+        }
+        if (inbound != null) {
+            inboundPcm = prepare(inboundPcm, inbound.maxOutputBytes(pcm.remaining()));
+            inbound.resample(pcm, inboundPcm);
+            pcm = inboundPcm.flip();
+        }
+        return pcm;
+    }
+
+    /**
+     * 내부 형식 오디오를 구간 형식으로 바꿉니다. 구간이 내부 형식이면 pcm을 그대로 반환합니다.
+     */
+    public ByteBuffer encode(ByteBuffer pcm) {
+        if (format.isInternal()) {
+            return pcm;
+        }
+        if (outbound != null) {
+            outboundPcm = prepare(outboundPcm, outbound.maxOutputBytes(pcm.remaining()));
+            outbound.resample(pcm, outboundPcm);
+            pcm = outboundPcm.flip();
+        }
+        if (format.encoding() == AudioEncoding.PCM16) {
+            return pcm;
+        }
+        encoded = prepare(encoded, encoder.maxEncodedBytes(pcm.remaining()));
+        encoder.encode(pcm, encoded);
+        return encoded.flip();
+    }
+
+    // 재사용 버퍼를 비우고, 모자라면 더 크게 새로 만듦
+    private static ByteBuffer prepare(ByteBuffer buffer, int size) {
+        if (buffer == null || buffer.capacity() < size) {
+            return ByteBuffer.allocate(Math.max(size, 4096));
+        }
+        return buffer.clear();
+    }
+}
@@ -0,0 +1,52 @@
+package com.capstone.backend.codec;
+
+import java.util.function.Supplier;
+
+/**
+ * 접속 시 ?codec= 으로 고르는 오디오 인코딩입니다.
+ */
+public enum AudioEncoding {
+
+    PCM16("pcm16", Pcm16Codec::new, 2),        // 16비트 (기본값, 기존 클라이언트/워커)
+    MULAW("ulaw", MuLawCodec::new, 1),         // 8비트 - PCM16의 1/2
+    IMA_ADPCM("ima-adpcm", ImaAdpcmCodec::new, 0); // 4비트 - PCM16의 약 1/4 (프레임마다 예측값 헤더가 있어 자를 수 없음)
+
+    private final String param;
+    private final Supplier<AudioCodec> factory;
+    private final int bytesPerSample; // 0이면 샘플 단위로 자를 수 없는 형식
+
+    AudioEncoding(String param, Supplier<AudioCodec> factory, int bytesPerSample) {
+        this.param = param;
+        this.factory = factory;
+        this.bytesPerSample = bytesPerSample;
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    // 프레임을 샘플 경계 어디서 잘라도 조각마다 따로 디코딩할 수 있는지 (조각 단위 중계 가능 여부)
+    public boolean isSplittable() {
+        return bytesPerSample > 0;
+    }
+
+    public int getBytesPerSample() {
+        return bytesPerSample;
+    }
+
+    public AudioCodec newCodec() {
+        return factory.get();
+    }
+
+    // 접속 파라미터를 인코딩으로 변환, 없거나 모르는 값이면 PCM16
+    public static AudioEncoding from(String value) {
+        if (value != null) {
+            for (AudioEncoding encoding : values()) {
+                if (encoding.param.equalsIgnoreCase(value.trim())) {
+                    return encoding;
+                }
+            }
+        }
+        return PCM16;
+    }
+}
@@ -0,0 +1,46 @@
+package com.capstone.backend.codec;
+
+/**
+ * 한 구간(고객 또는 GPU 워커)이 주고받는 오디오 형식입니다. (mono 고정)
+ * <p>
+ * 서버 안에서는 {@link #INTERNAL}(PCM16 16kHz)로 다루고, 구간마다 접속 시 ?codec=&rate= 로 밝힌 형식으로 바꿔 보냅니다.
+ * 아무것도 밝히지 않으면 내부 형식과 같으므로 변환하지 않습니다.
+ */
+public record AudioFormat(AudioEncoding encoding, int sampleRate) {
+
+    public static final AudioFormat INTERNAL = new AudioFormat(AudioEncoding.PCM16, 16000);
+
+    // 세션 attributes 키 - 접속 시 합의한 오디오 형식 (AudioFormat)
+    public static final String ATTR = "audioFormat";
+
+    private static final int MIN_RATE = 8000;
+    private static final int MAX_RATE = 48000;
+
+    /**
+     * 접속 파라미터를 형식으로 변환합니다. 모르는 코덱이면 PCM16, 없거나 범위를 벗어난 샘플레이트면 16kHz.
+     */
+    public static AudioFormat negotiate(String codec, String rate) {
+        return new AudioFormat(AudioEncoding.from(codec), parseRate(rate));
+    }
+
+    public boolean isInternal() {
+        return equals(INTERNAL);
+    }
+
+    @Override
+    public String toString() {
+        return encoding.getParam() + "/" + sampleRate;
+    }
+
+    private static int parseRate(String rate) {
+        if (rate == null) {
+            return INTERNAL.sampleRate();
+        }
+        try {
+            int value = Integer.parseInt(rate.trim());
+            return value >= MIN_RATE && value <= MAX_RATE ? value : INTERNAL.sampleRate();
+        } catch (NumberFormatException e) {
+            return INTERNAL.sampleRate();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.capstone.backend.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * IMA ADPCM - 샘플당 4비트 (PCM16의 1/4).
+ * <p>
+ * 프레임마다 [predictor:2 LE][step index:1][padding:1] 헤더를 붙여 그 프레임만으로 복원할 수 있게 합니다.
+ * (중계 서버가 늦거나 조용한 프레임을 버려도 받는 쪽 디코더 상태가 어긋나지 않음)
+ * 샘플은 한 바이트에 두 개씩 낮은 니블부터 담고, 샘플 수가 홀수면 padding = 1 (마지막 니블은 버림).
+ * 인코더는 프레임 사이에도 예측 상태를 이어 가므로 프레임 경계에서 음질이 떨어지지 않습니다.
+ */
+public class ImaAdpcmCodec implements AudioCodec {
+
+    static final int HEADER_SIZE = 4;
+
+    private static final int[] INDEX_TABLE = {
+            -1, -1, -1, -1, 2, 4, 6, 8,
+            -1, -1, -1, -1, 2, 4, 6, 8
+    };
+
+    private static final int[] STEP_TABLE = {
+            7, 8, 9, 10, 11, 12, 13, 14, 16, 17,
+            19, 21, 23, 25, 28, 31, 34, 37, 41, 45,
+            50, 55, 60, 66, 73, 80, 88, 97, 107, 118,
+            130, 143, 157, 173, 190, 209, 230, 253, 279, 307,
+            337, 371, 408, 449, 494, 544, 598, 658, 724, 796,
+            876, 963, 1060, 1166, 1282, 1411, 1552, 1707, 1878, 2066,
+            2272, 2499, 2749, 3024, 3327, 3660, 4026, 4428, 4871, 5358,
+            5894, 6484, 7132, 7845, 8630, 9493, 10442, 11487, 12635, 13899,
+            15289, 16818, 18500, 20350, 22385, 24623, 27086, 29794, 32767
+    };
+
+    // 인코더 상태 (프레임 사이에 이어짐)
+    private int predictor;
+    private int index;
+
+    @Override
+    public void encode(ByteBuffer pcm, ByteBuffer out) {
+        int start = pcm.position();
+        int samples = pcm.remaining() / 2;
+        out.put((byte) predictor).put((byte) (predictor >> 8)).put((byte) index).put((byte) (samples & 1));
+
+        int packed = 0;
+        for (int i = 0; i < samples; i++) {
+            int offset = start + i * 2;
+            int nibble = encodeNibble((short) ((pcm.get(offset) & 0xFF) | (pcm.get(offset + 1) << 8)));
+            if ((i & 1) == 0) {
+                packed = nibble;
+            } else {
+                out.put((byte) (packed | (nibble << 4)));
+            }
+        }
+        if ((samples & 1) != 0) {
+            out.put((byte) packed);
+        }
+    }
+
+    @Override
+    public void decode(ByteBuffer encoded, ByteBuffer pcmOut) {
+        int start = encoded.position();
+        if (encoded.remaining() < HEADER_SIZE) {
+            return;
+        }
+        int value = (short) ((encoded.get(start) & 0xFF) | (encoded.get(start + 1) << 8));
+        int stepIndex = clampIndex(encoded.get(start + 2));
+        int samples = (encoded.remaining() - HEADER_SIZE) * 2 - (encoded.get(start + 3) & 1);
+
+        for (int i = 0; i < samples; i++) {
+            int b = encoded.get(start + HEADER_SIZE + (i >> 1));
+            int nibble = (i & 1) == 0 ? b & 0x0F : (b >> 4) & 0x0F;
+            value = clampSample(value + delta(nibble, STEP_TABLE[stepIndex]));
+            stepIndex = clampIndex(stepIndex + INDEX_TABLE[nibble]);
+            pcmOut.put((byte) value).put((byte) (value >> 8));
+        }
+    }
+
+    @Override
+    public int maxEncodedBytes(int pcmBytes) {
+        return HEADER_SIZE + (pcmBytes / 2 + 1) / 2;
+    }
+
+    @Override
+    public int maxDecodedBytes(int encodedBytes) {
+        return Math.max(encodedBytes - HEADER_SIZE, 0) * 4;
+    }
+
+    private int encodeNibble(int sample) {
+        int step = STEP_TABLE[index];
+        int diff = sample - predictor;
+        int nibble = 0;
+        if (diff < 0) {
+            nibble = 8;
+            diff = -diff;
+        }
+        if (diff >= step) {
+            nibble |= 4;
+            diff -= step;
+        }
+        if (diff >= step >> 1) {
+            nibble |= 2;
+            diff -= step >> 1;
+        }
+        if (diff >= step >> 2) {
+            nibble |= 1;
+        }
+        // 디코더와 똑같이 계산해야 상태가 어긋나지 않음
+        predictor = clampSample(predictor + delta(nibble, step));
+        index = clampIndex(index + INDEX_TABLE[nibble]);
+        return nibble;
+    }
+
+    private static int delta(int nibble, int step) {
+        int delta = step >> 3;
+        if ((nibble & 4) != 0) {
+            delta += step;
+        }
+        if ((nibble & 2) != 0) {
+            delta += step >> 1;
+        }
+        if ((nibble & 1) != 0) {
+            delta += step >> 2;
+        }
+        return (nibble & 8) != 0 ? -delta : delta;
+    }
+
+    private static int clampSample(int value) {
+        return Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, value));
+    }
+
+    private static int clampIndex(int value) {
+        return Math.max(0, Math.min(STEP_TABLE.length - 1, value));
+    }
+}
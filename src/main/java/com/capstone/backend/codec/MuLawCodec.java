@@ -0,0 +1,71 @@
+package com.capstone.backend.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * G.711 μ-law - 샘플당 1바이트 (PCM16의 절반). 프레임 사이에 상태가 없어 유실에 강합니다.
+ */
+public class MuLawCodec implements AudioCodec {
+
+    private static final int BIAS = 0x84;
+    private static final int CLIP = 32635;
+
+    // 256개뿐이므로 복원 값은 미리 계산해 둠
+    private static final short[] DECODE_TABLE = new short[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            DECODE_TABLE[i] = decodeSample((byte) i);
+        }
+    }
+
+    @Override
+    public void encode(ByteBuffer pcm, ByteBuffer out) {
+        int end = pcm.limit() - 1;
+        for (int i = pcm.position(); i < end; i += 2) {
+            out.put(encodeSample((short) ((pcm.get(i) & 0xFF) | (pcm.get(i + 1) << 8))));
+        }
+    }
+
+    @Override
+    public void decode(ByteBuffer encoded, ByteBuffer pcmOut) {
+        for (int i = encoded.position(); i < encoded.limit(); i++) {
+            short sample = DECODE_TABLE[encoded.get(i) & 0xFF];
+            pcmOut.put((byte) sample).put((byte) (sample >> 8));
+        }
+    }
+
+    @Override
+    public int maxEncodedBytes(int pcmBytes) {
+        return pcmBytes / 2;
+    }
+
+    @Override
+    public int maxDecodedBytes(int encodedBytes) {
+        return encodedBytes * 2;
+    }
+
+    static byte encodeSample(int sample) {
+        int sign = (sample >> 8) & 0x80;
+        if (sign != 0) {
+            sample = -sample;
+        }
+        if (sample > CLIP) {
+            sample = CLIP;
+        }
+        sample += BIAS;
+        int exponent = 7;
+        for (int mask = 0x4000; (sample & mask) == 0 && exponent > 0; mask >>= 1) {
+            exponent--;
+        }
+        int mantissa = (sample >> (exponent + 3)) & 0x0F;
+        return (byte) ~(sign | (exponent << 4) | mantissa);
+    }
+
+    static short decodeSample(byte encoded) {
+        int value = ~encoded & 0xFF;
+        int exponent = (value >> 4) & 0x07;
+        int sample = ((((value & 0x0F) << 3) + BIAS) << exponent) - BIAS;
+        return (short) ((value & 0x80) != 0 ? -sample : sample);
+    }
+}
@@ -0,0 +1,35 @@
+package com.capstone.backend.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 변환 없는 PCM16 (샘플레이트만 바꿀 때 사용)
+ */
+public class Pcm16Codec implements AudioCodec {
+
+    @Override
+    public void encode(ByteBuffer pcm, ByteBuffer out) {
+        copy(pcm, out);
+    }
+
+    @Override
+    public void decode(ByteBuffer encoded, ByteBuffer pcmOut) {
+        copy(encoded, pcmOut);
+    }
+
+    @Override
+    public int maxEncodedBytes(int pcmBytes) {
+        return pcmBytes;
+    }
+
+    @Override
+    public int maxDecodedBytes(int encodedBytes) {
+        return encodedBytes;
+    }
+
+    private static void copy(ByteBuffer src, ByteBuffer out) {
+        int position = src.position();
+        out.put(src);
+        src.position(position);
+    }
+}
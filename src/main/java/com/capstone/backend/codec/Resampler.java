@@ -0,0 +1,64 @@
+package com.capstone.backend.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * PCM16(little-endian, mono) 샘플레이트 변환 - 선형 보간. (스트림마다 하나, 스레드 안전하지 않음)
+ * <p>
+ * 프레임 경계에서 끊기지 않도록 앞 프레임의 마지막 샘플과 보간 위치를 이어 갑니다.
+ * 낮추는 경우에는 인접 두 샘플의 평균으로 먼저 고역을 줄여 접힘(aliasing)을 완화합니다.
+ * (음성 대역만 쓰는 통화 품질 기준 - 음악용 필터는 아님)
+ */
+public class Resampler {
+
+    private final double step;         // 출력 샘플 하나당 입력 샘플 수
+    private final boolean downsampling;
+
+    private double position;  // 다음 출력 샘플의 입력 위치 (현재 프레임 기준, -1이면 앞 프레임의 마지막 샘플)
+    private int previous;     // 앞 프레임의 마지막 샘플 (필터 적용 후)
+    private int previousRaw;  // 앞 프레임의 마지막 샘플 (필터 적용 전)
+
+    public Resampler(int inputRate, int outputRate) {
+        this.step = (double) inputRate / outputRate;
+        this.downsampling = inputRate > outputRate;
+    }
+
+    public void resample(ByteBuffer pcm, ByteBuffer out) {
+        int start = pcm.position();
+        int samples = pcm.remaining() / 2;
+        if (samples == 0) {
+            return;
+        }
+        while (position < samples - 1) {
+            int i = (int) Math.floor(position);
+            double fraction = position - i;
+            int s0 = i < 0 ? previous : sample(pcm, start, i);
+            int s1 = sample(pcm, start, i + 1);
+            int value = (int) Math.round(s0 + (s1 - s0) * fraction);
+            out.put((byte) value).put((byte) (value >> 8));
+            position += step;
+        }
+        position -= samples;
+        previous = sample(pcm, start, samples - 1);
+        previousRaw = raw(pcm, start, samples - 1);
+    }
+
+    // 입력 샘플 수에 대한 출력의 최대 바이트 수
+    public int maxOutputBytes(int pcmBytes) {
+        return ((int) Math.ceil(pcmBytes / 2 / step) + 2) * 2;
+    }
+
+    private int sample(ByteBuffer pcm, int start, int i) {
+        int value = raw(pcm, start, i);
+        if (!downsampling) {
+            return value;
+        }
+        int before = i == 0 ? previousRaw : raw(pcm, start, i - 1);
+        return (value + before) >> 1;
+    }
+
+    private static int raw(ByteBuffer pcm, int start, int i) {
+        int offset = start + i * 2;
+        return (short) ((pcm.get(offset) & 0xFF) | (pcm.get(offset + 1) << 8));
+    }
+}
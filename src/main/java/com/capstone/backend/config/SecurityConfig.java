@@ -2,6 +2,7 @@ package com.capstone.backend.config;
 
 import com.capstone.backend.security.JwtAuthenticationFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -32,7 +33,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http,
+                                           @Value("${management.server.port:-1}") int managementPort) throws Exception {
         http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(csrf -> csrf.disable()) // CSRF 보호 비활성화 (Stateless JWT 인증 사용)
@@ -40,6 +42,9 @@ public class SecurityConfig {
                 .authorizeHttpRequests(authz -> authz
                         .requestMatchers("/api/auth/**", "/ws-client/**","/ws-gpu/**").permitAll() // '/api/auth/' 하위 경로는 인증 없이 접근 허용
                         .requestMatchers("/customer_test.html", "/gpu_test.html").permitAll()
+                        // 지표 수집(/actuator/prometheus)은 외부에 열지 않은 관리 포트로만 (서비스 포트에는 헬스 체크만)
+                        .requestMatchers(request -> request.getLocalPort() == managementPort).permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
                         .requestMatchers("/api/voice-profiles/me").authenticated()
                         .requestMatchers(HttpMethod.GET, "/api/voice-profiles/**").permitAll()
                         .anyRequest().authenticated() // 그 외 모든 요청은 인증 필요
@@ -0,0 +1,143 @@
+package com.capstone.backend.config;
+
+import com.capstone.backend.storage.BlobStore;
+import com.capstone.backend.storage.StoredBlob;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * DB에 남아 있는 목소리 오디오를 {@link BlobStore}로 옮깁니다.
+ * <ul>
+ *     <li>voice_profile_data 테이블 (오디오를 별도 테이블로 나눴던 때)</li>
+ *     <li>voice_profile.voice_data 컬럼 (처음 스키마)</li>
+ * </ul>
+ * 어느 쪽이든 저장소로 바로 옮기며(중간 테이블을 거치지 않음), 아직 해시가 없는 프로필만 읽으므로 이미 옮긴 뒤의 재시작에서는 조회 한 번으로 끝납니다.
+ * <p>
+ * DB의 원본은 기본적으로 지우지 않습니다. ddl-auto=update는 엔티티에서 빠진 voice_data 컬럼을 NOT NULL로 남겨
+ * 새 프로필 저장이 실패하므로 그 컬럼만 NULL 허용으로 바꿉니다.
+ * 저장소로 옮긴 결과를 확인한 뒤 storage.migration.drop-legacy-data=true로 한 번 시작하면 테이블과 컬럼을 지웁니다.
+ */
+@Slf4j
+@Component
+public class VoiceProfileDataMigration implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlobStore blobStore;
+    private final boolean dropLegacyData; // 옮긴 뒤 DB의 원본을 지울지 (되돌릴 수 없으므로 명시적으로 켤 때만)
+
+    public VoiceProfileDataMigration(JdbcTemplate jdbcTemplate,
+                                     BlobStore blobStore,
+                                     @Value("${storage.migration.drop-legacy-data:false}") boolean dropLegacyData) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.blobStore = blobStore;
+        this.dropLegacyData = dropLegacyData;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (exists("voice_profile_data", null)) {
+            int moved = moveToBlobStore("SELECT voice_data FROM voice_profile_data WHERE voice_profile_id = ?");
+            log.info("Moved {} voice profile blob(s) from voice_profile_data to the blob store", moved);
+            if (dropLegacyData) {
+                jdbcTemplate.execute("DROP TABLE voice_profile_data");
+                log.warn("Dropped legacy table voice_profile_data (storage.migration.drop-legacy-data=true)");
+            } else {
+                log.info("Legacy table voice_profile_data kept; set storage.migration.drop-legacy-data=true to drop it");
+            }
+        }
+        if (exists("voice_profile", "voice_data")) {
+            int moved = moveToBlobStore("SELECT voice_data FROM voice_profile WHERE voice_profile_id = ?");
+            log.info("Moved {} voice profile blob(s) from voice_profile.voice_data to the blob store", moved);
+            if (dropLegacyData) {
+                jdbcTemplate.execute("ALTER TABLE voice_profile DROP COLUMN voice_data");
+                log.warn("Dropped legacy column voice_profile.voice_data (storage.migration.drop-legacy-data=true)");
+            } else {
+                allowNullVoiceData();
+                log.info("Legacy column voice_profile.voice_data kept; set storage.migration.drop-legacy-data=true to drop it");
+            }
+        }
+    }
+
+    // 엔티티가 더 이상 채우지 않는 voice_data가 NOT NULL이면 NULL 허용으로 변경 (데이터는 그대로)
+    private void allowNullVoiceData() {
+        String sql = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (boolean upper : new boolean[]{false, true}) {
+                try (ResultSet column = metaData.getColumns(connection.getCatalog(), null,
+                        upper ? "VOICE_PROFILE" : "voice_profile", upper ? "VOICE_DATA" : "voice_data")) {
+                    if (!column.next()) {
+                        continue;
+                    }
+                    if (column.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls) {
+                        return null; // 이미 NULL 허용
+                    }
+                    // MySQL은 타입을 다시 적어야 하고, H2는 NOT NULL만 뗄 수 있음
+                    return metaData.getDatabaseProductName().toLowerCase().contains("mysql")
+                            ? "ALTER TABLE voice_profile MODIFY COLUMN voice_data " + column.getString("TYPE_NAME") + " NULL"
+                            : "ALTER TABLE voice_profile ALTER COLUMN voice_data SET NULL";
+                }
+            }
+            return null;
+        });
+        if (sql != null) {
+            jdbcTemplate.execute(sql);
+            log.info("Made legacy column voice_profile.voice_data nullable");
+        }
+    }
+
+    // 아직 해시가 없는 프로필마다 오디오를 읽어 저장소에 쓰고 참조를 기록
+    private int moveToBlobStore(String selectVoiceData) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT voice_profile_id FROM voice_profile WHERE voice_data_hash IS NULL", Long.class);
+        int moved = 0;
+        for (Long id : ids) {
+            StoredBlob blob = jdbcTemplate.query(selectVoiceData, rs -> {
+                if (!rs.next()) {
+                    return null;
+                }
+                try (InputStream voiceData = rs.getBinaryStream(1)) {
+                    return voiceData != null ? blobStore.put(voiceData) : null;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e); // 옮기지 못하면 시작을 멈춤 (DB의 오디오는 그대로 남음)
+                }
+            }, id);
+            if (blob != null) {
+                jdbcTemplate.update("UPDATE voice_profile SET voice_data_hash = ?, voice_data_size = ? WHERE voice_profile_id = ?",
+                        blob.hash(), blob.size(), id);
+                moved++;
+            }
+        }
+        return moved;
+    }
+
+    // column이 null이면 테이블이 있는지 확인
+    private boolean exists(String table, String column) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            // MySQL은 소문자, H2는 대문자로 저장
+            for (boolean upper : new boolean[]{false, true}) {
+                String tableName = upper ? table.toUpperCase() : table;
+                try (ResultSet found = column == null
+                        ? metaData.getTables(connection.getCatalog(), null, tableName, null)
+                        : metaData.getColumns(connection.getCatalog(), null, tableName, upper ? column.toUpperCase() : column)) {
+                    if (found.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }));
+    }
+}
@@ -3,6 +3,7 @@ package com.capstone.backend.config;
 import com.capstone.backend.handler.ClientWebSocketHandler;
 import com.capstone.backend.handler.GpuWebSocketHandler;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.socket.config.annotation.EnableWebSocket;
@@ -29,12 +30,27 @@ public class WebSocketConfig implements WebSocketConfigurer {
                 .setAllowedOriginPatterns("*");
     }
 
+    /**
+     * Tomcat은 연결마다 이 크기의 메시지 버퍼를 접속 즉시 할당합니다. (텍스트는 char 버퍼라 2배)
+     * <ul>
+     *     <li>스트리밍 모드(기본): 핸들러가 부분 메시지를 받으므로 버퍼는 작게 두고, 큰 메시지는 조각으로 받음</li>
+     *     <li>스트리밍 모드가 아니면: 메시지 전체가 버퍼에 들어가야 하므로 최대 메시지 크기만큼 (기존 5MB, 연결당 약 15MB)</li>
+     * </ul>
+     */
     @Bean
-    public ServletServerContainerFactoryBean createWebSocketContainer() {
+    public ServletServerContainerFactoryBean createWebSocketContainer(
+            @Value("${relay.streaming.enabled:true}") boolean streaming,
+            @Value("${relay.streaming.buffer-size:65536}") int streamingBufferSize,
+            @Value("${relay.streaming.max-message-bytes:5242880}") int maxMessageBytes) {
         ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
-        // 텍스트와 바이너리 메시지 버퍼 크기를 1MB로 설정 (기본값 8KB)
-        container.setMaxTextMessageBufferSize(5 * 1024 * 1024);
-        container.setMaxBinaryMessageBufferSize(5 * 1024 * 1024);
+        if (streaming) {
+            container.setMaxBinaryMessageBufferSize(streamingBufferSize);
+            // 두 핸들러 모두 텍스트 메시지를 받지 않으므로 (BinaryWebSocketHandler) Tomcat 기본값 8KB
+            container.setMaxTextMessageBufferSize(8 * 1024);
+        } else {
+            container.setMaxTextMessageBufferSize(maxMessageBytes);
+            container.setMaxBinaryMessageBufferSize(maxMessageBytes);
+        }
         return container;
     }
 }
\ No newline at end of file
@@ -1,13 +1,18 @@
 package com.capstone.backend.controller;
 
 import com.capstone.backend.dto.CreateCallRequestDto;
+import com.capstone.backend.dto.CallTimelineDto;
 import com.capstone.backend.dto.CreateCallResponseDto;
+import com.capstone.backend.dto.LatencyReportDto;
 import com.capstone.backend.dto.VoiceMessageDto;
 import com.capstone.backend.handler.GpuWebSocketHandler;
+import com.capstone.backend.metrics.LatencyTracker;
 import com.capstone.backend.service.CallService;
 import com.capstone.backend.service.CallSessionService;
+import com.capstone.backend.service.CallTimelineService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -15,6 +20,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.security.Principal;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/calls")
@@ -24,13 +30,15 @@ public class CallController {
     private final CallSessionService callSessionService;
     private final CallService callService;
     private final GpuWebSocketHandler gpuWebSocketHandler;
+    private final LatencyTracker latencyTracker;
+    private final CallTimelineService callTimelineService;
     /**
      * [POST /api/calls/start]
      * Flutter 앱에서 '통화 시작' 시 호출하는 API입니다.
      * 인증된 사용자의 새 통화 세션을 생성하고 세션 ID를 반환합니다.
      *
      * @param principal Spring Security가 JWT 토큰을 해석하여 넣어주는 사용자 정보
-     * @param requestDto Flutter가 보낸 JSON ({"participantName": "선택한이름"})
+     * @param requestDto Flutter가 보낸 JSON ({"voiceProfileId": 1, "prewarm": true})
      * @return {"callSessionId": 123} 형태의 JSON 응답
      */
 
@@ -41,10 +49,16 @@ public class CallController {
 
         String userPhoneNumber = principal.getName();
 
-        // 1. DB에 세션만 생성 (GPU 매칭 X)
+        // 1. DB에 세션 생성
         Long sessionId = callSessionService.createCallSession(userPhoneNumber, requestDto.getVoiceProfileId());
+        callTimelineService.start(sessionId); // 이후 접속/매칭/ready 등 단계별 시각의 기준
 
-        // 2. 생성된 ID 반환 -> 앱은 이걸 받고 WebSocket 연결 시도함
+        // 2. (선택) 유휴 GPU를 미리 잡아 start 신호 전송 -> 앱이 웹소켓에 접속하는 동안 모델 로딩
+        if (requestDto.isPrewarm()) {
+            callService.prewarm(sessionId);
+        }
+
+        // 3. 생성된 ID 반환 -> 앱은 이걸 받고 WebSocket 연결 시도함
         return ResponseEntity.ok(new CreateCallResponseDto(sessionId));
     }
 
@@ -72,4 +86,65 @@ public class CallController {
 
         return ResponseEntity.ok().build();
     }
+
+    /**
+     * [GET /api/calls/{callSessionId}/latency]
+     * 통화 하나의 오디오 왕복 지연(p50/p95/p99, ms)을 조회합니다.
+     * 진행 중인 통화와 최근에 끝난 통화만 조회할 수 있습니다.
+     *
+     * @param callSessionId 조회할 통화 ID
+     * @param principal 인증된 사용자 정보 (본인 통화만 조회 가능)
+     * @return 왕복/GPU/중계 구간별 지연, 기록이 없거나 본인 통화가 아니면 404
+     */
+    @GetMapping("/{callSessionId}/latency")
+    public ResponseEntity<LatencyReportDto> getCallLatency(@PathVariable Long callSessionId, Principal principal) {
+        // 남의 통화는 존재 여부도 알리지 않도록 없는 통화와 같은 404
+        if (!callSessionService.isOwnedBy(callSessionId, principal.getName())) {
+            return ResponseEntity.notFound().build();
+        }
+        LatencyReportDto report = latencyTracker.report(callSessionId);
+        if (report == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(report);
+    }
+
+    /**
+     * [GET /api/calls/latency]
+     * 서버 시작 이후 전체 통화의 오디오 왕복 지연(p50/p95/p99, ms)을 조회합니다.
+     */
+    @GetMapping("/latency")
+    public ResponseEntity<LatencyReportDto> getAggregateLatency() {
+        return ResponseEntity.ok(latencyTracker.aggregate());
+    }
+
+    /**
+     * [GET /api/calls/{callSessionId}/timeline]
+     * 통화 하나의 단계별 시각(생성, 접속, 대기, 매칭, start, ready, 첫 오디오, 종료)을 조회합니다.
+     *
+     * @param callSessionId 조회할 통화 ID
+     * @param principal 인증된 사용자 정보 (본인 통화만 조회 가능)
+     * @return 단계 목록과 구간별 소요 시간(ms), 기록이 없거나 본인 통화가 아니면 404
+     */
+    @GetMapping("/{callSessionId}/timeline")
+    public ResponseEntity<CallTimelineDto> getCallTimeline(@PathVariable Long callSessionId, Principal principal) {
+        if (!callSessionService.isOwnedBy(callSessionId, principal.getName())) {
+            return ResponseEntity.notFound().build();
+        }
+        CallTimelineDto timeline = callTimelineService.report(callSessionId);
+        if (timeline == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(timeline);
+    }
+
+    /**
+     * [GET /api/calls/timeline]
+     * 서버 시작 이후 전체 통화의 단계별 소요 시간(p50/p95/p99, ms)을 조회합니다.
+     * 예: MATCHED = 매칭 대기, GPU_READY = 모델 준비
+     */
+    @GetMapping("/timeline")
+    public ResponseEntity<Map<String, LatencyReportDto.Percentiles>> getStageDurations() {
+        return ResponseEntity.ok(callTimelineService.aggregate());
+    }
 }
@@ -1,89 +1,123 @@
 package com.capstone.backend.controller;
 
 import com.capstone.backend.dto.VoiceProfileResponseDto;
-import com.capstone.backend.entity.User;
-import com.capstone.backend.entity.VoiceProfile;
-import com.capstone.backend.repository.UserRepository;
-import com.capstone.backend.repository.VoiceProfileRepository;
+import com.capstone.backend.service.VoiceProfileService;
+import com.capstone.backend.storage.BlobDownloadWriter;
+import com.capstone.backend.storage.SpeakerEmbeddingStore;
+import com.capstone.backend.storage.StoredBlob;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.http.ContentDisposition; // [추가]
 import java.nio.charset.StandardCharsets; // [추가]
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.security.Principal;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/voice-profiles")
 @RequiredArgsConstructor
 public class VoiceProfileController {
 
-    private final VoiceProfileRepository voiceProfileRepository;
-    private final UserRepository userRepository;
+    // 목소리 녹음은 개인 데이터이므로 공유 캐시(프록시, CDN)에는 남기지 않고 받는 쪽(GPU 워커)만 캐시
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable();
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private final VoiceProfileService voiceProfileService;
+    private final BlobDownloadWriter blobDownloadWriter;
+    private final SpeakerEmbeddingStore speakerEmbeddingStore;
 
     // 1. [앱용] 목소리 등록 API
-    // 앱에서 파일을 업로드하면 DB에 저장하고 ID를 반환합니다.
+    // 앱에서 파일을 업로드하면 저장소(디스크)에 저장하고 ID를 반환합니다.
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<Long> uploadVoiceProfile(
             Principal principal,
             @RequestParam("profileName") String profileName,
             @RequestParam("file") MultipartFile file
     ) throws IOException {
-        String userPhoneNumber = principal.getName();
-        User user = userRepository.findByPhoneNumber(userPhoneNumber)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        VoiceProfile voiceProfile = VoiceProfile.builder()
-                .user(user)
-                .profileName(profileName)
-                .voiceData(file.getBytes()) // 파일의 이진 데이터를 바로 저장
-                .build();
-
-        VoiceProfile savedProfile = voiceProfileRepository.save(voiceProfile);
+        // 파일 전체를 메모리에 올리지 않고 스트림으로 저장소에 쓰고, DB에는 해시 참조만 저장
+        Long voiceProfileId;
+        try (InputStream voiceData = file.getInputStream()) {
+            voiceProfileId = voiceProfileService.createVoiceProfile(principal.getName(), profileName, voiceData);
+        }
 
         // 생성된 ID(voice_profile_id)를 반환 -> 앱이나 GPU에게 이 번호를 알려주면 됨
-        return ResponseEntity.ok(savedProfile.getId());
+        return ResponseEntity.ok(voiceProfileId);
+    }
+
+    // 1-1. [앱용] 목소리 파일 교체 API
+    // 새 파일을 저장하고, 접속 중인 GPU에게 이 프로필의 캐시를 버리라고(invalidate) 알립니다.
+    @PutMapping(value = "/{voiceProfileId}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Long> replaceVoiceData(
+            Principal principal,
+            @PathVariable Long voiceProfileId,
+            @RequestParam("file") MultipartFile file
+    ) throws IOException {
+        try (InputStream voiceData = file.getInputStream()) {
+            voiceProfileService.replaceVoiceData(principal.getName(), voiceProfileId, voiceData);
+        }
+        return ResponseEntity.ok(voiceProfileId);
     }
 
     // 2. [GPU용] 목소리 데이터 조회 API
-    // GPU가 "ID 5번 목소리 내놔"라고 요청하면 이진 데이터를 스트리밍해줍니다.
+    // GPU가 "ID 5번 목소리 내놔"라고 요청하면 저장소의 파일을 그대로 보내줍니다. (sendfile, Range, ETag 지원)
+    // - ?v={내용 해시}로 요청하면 주소가 내용마다 달라지므로 1년 동안 캐시 (immutable)
+    // - 그 밖에는 매번 If-None-Match로 확인 -> 같으면 본문 없이 304
     @GetMapping("/{voiceProfileId}/download")
-    public ResponseEntity<byte[]> downloadVoiceData(@PathVariable Long voiceProfileId) {
+    public void downloadVoiceData(
+            @PathVariable Long voiceProfileId,
+            @RequestParam(value = "v", required = false) String version,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
 
-        VoiceProfile voiceProfile = voiceProfileRepository.findById(voiceProfileId)
-                .orElseThrow(() -> new RuntimeException("Profile not found"));
+        VoiceProfileResponseDto voiceProfile = voiceProfileService.getVoiceProfileInfo(voiceProfileId);
+        StoredBlob voiceData = voiceProfileService.getVoiceData(voiceProfileId);
 
         // 한글 파일명 깨짐 방지를 위해 ContentDisposition 빌더 사용 (RFC 5987 표준 지원)
         ContentDisposition contentDisposition = ContentDisposition.builder("attachment")
                 .filename(voiceProfile.getProfileName() + ".mp3", StandardCharsets.UTF_8)
                 .build();
 
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition.toString())
-                .contentType(MediaType.parseMediaType("audio/mpeg"))
-                .body(voiceProfile.getVoiceData());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, contentDisposition.toString());
+        response.setContentType("audio/mpeg");
+        CacheControl cacheControl = voiceData.hash().equals(version) ? IMMUTABLE : REVALIDATE;
+        blobDownloadWriter.write(voiceData, cacheControl.getHeaderValue(), request, response);
+    }
+
+    // 2-1. [GPU용] 화자 임베딩 조회 API
+    // start 메시지의 speakerEmbeddingUrl로 받습니다. 목소리 파일의 현재 해시와 워커의 모델 버전으로 올려 둔 임베딩 (없으면 404)
+    // - 캐시 규칙은 목소리 파일 다운로드와 같음 (?v={해시}면 immutable, ETag가 같으면 304)
+    @GetMapping("/{voiceProfileId}/embedding")
+    public ResponseEntity<byte[]> downloadSpeakerEmbedding(
+            @PathVariable Long voiceProfileId,
+            @RequestParam("model") String modelVersion,
+            @RequestParam(value = "v", required = false) String version
+    ) {
+        String voiceDataHash = voiceProfileService.getVoiceData(voiceProfileId).hash();
+        return speakerEmbeddingStore.get(voiceDataHash, modelVersion)
+                .map(embedding -> ResponseEntity.ok()
+                        .eTag("\"" + voiceDataHash + "." + modelVersion + "\"")
+                        .cacheControl(voiceDataHash.equals(version) ? IMMUTABLE : REVALIDATE)
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .body(embedding))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     // 3. [앱용] 내 목소리 목록 조회 API (누락된 부분 추가)
     @GetMapping("/me")
     public ResponseEntity<List<VoiceProfileResponseDto>> getUserVoiceProfiles(Principal principal) {
-        String userPhoneNumber = principal.getName();
-        User user = userRepository.findByPhoneNumber(userPhoneNumber)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-
-        // user.getId()를 사용하여 조회
-        List<VoiceProfile> profiles = voiceProfileRepository.findAllByUserId(user.getId());
-
-        List<VoiceProfileResponseDto> result = profiles.stream()
-                .map(VoiceProfileResponseDto::new)
-                .collect(Collectors.toList());
+        // 메타데이터 컬럼만 DTO로 바로 조회 (오디오 원본은 읽지 않음)
+        List<VoiceProfileResponseDto> result = voiceProfileService.getMyVoiceProfiles(principal.getName());
 
         return ResponseEntity.ok(result);
     }
@@ -92,9 +126,6 @@ public class VoiceProfileController {
     // 파일 내용 없이 ID, 이름, 생성일만 가볍게 반환합니다.
     @GetMapping("/{voiceProfileId}")
     public ResponseEntity<VoiceProfileResponseDto> getVoiceProfileInfo(@PathVariable Long voiceProfileId) {
-        VoiceProfile voiceProfile = voiceProfileRepository.findById(voiceProfileId)
-                .orElseThrow(() -> new RuntimeException("Profile not found"));
-
-        return ResponseEntity.ok(new VoiceProfileResponseDto(voiceProfile));
+        return ResponseEntity.ok(voiceProfileService.getVoiceProfileInfo(voiceProfileId));
     }
 }
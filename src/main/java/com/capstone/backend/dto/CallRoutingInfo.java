@@ -0,0 +1,18 @@
+package com.capstone.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 통화 매칭 시 GPU start 메시지에 필요한 정보 (통화 생성 시 캐시에 저장, 캐시 미스 시 JPQL 프로젝션으로 조회)
+// 목소리 파일이 바뀌면 CallRoutingCache가 voiceDataHash를 새 값으로 바꿔 둠
+@Getter
+@AllArgsConstructor
+public class CallRoutingInfo {
+    private Long userId;
+    private Long voiceProfileId;
+    private String voiceDataHash;
+
+    public CallRoutingInfo withVoiceDataHash(String voiceDataHash) {
+        return new CallRoutingInfo(userId, voiceProfileId, voiceDataHash);
+    }
+}
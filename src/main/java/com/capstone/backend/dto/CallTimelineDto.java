@@ -0,0 +1,26 @@
+package com.capstone.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+// 통화 단계별 시각 조회 응답
+@Getter
+@AllArgsConstructor
+public class CallTimelineDto {
+    private Long callSessionId;
+    private boolean active;               // 진행 중인 통화면 true (아직 저장되지 않은 단계 포함)
+    private List<Event> events;           // 일어난 순서대로
+    private Map<String, Long> durationsMs; // 단계 -> 기준 단계(CallStage.from)부터 걸린 시간
+
+    @Getter
+    @AllArgsConstructor
+    public static class Event {
+        private String stage;
+        private LocalDateTime occurredAt;
+        private long elapsedMs;
+    }
+}
@@ -9,4 +9,7 @@ public class CreateCallRequestDto {
 
     // Flutter에서 {"participantName": "Karina"} 이렇게 보낼 겁니다.
     private Long voiceProfileId;
+
+    // true면 웹소켓 접속 전에 GPU를 미리 잡아 모델 로딩을 시작 (선택, 기본 false)
+    private boolean prewarm;
 }
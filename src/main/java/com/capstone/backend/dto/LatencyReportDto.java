@@ -0,0 +1,31 @@
+package com.capstone.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+// 오디오 왕복 지연 조회 응답 (통화별 또는 전체). 단위는 ms
+@Getter
+@Builder
+public class LatencyReportDto {
+    private Long callSessionId;     // 전체 집계면 null
+    private boolean active;         // 진행 중인 통화면 true (종료된 통화는 최근 결과를 보관해 둔 것)
+    private long samples;           // 짝지어진 프레임 수
+    private long evictedFrames;     // GPU 응답 없이 밀려난 프레임 수 (통화별만)
+    private long unmatchedChunks;   // 짝지을 프레임이 없던 GPU 청크 수 (통화별만)
+    private long clientLostFrames;      // v2 고객 프레임 sequence 기준 유실 수 (통화별만)
+    private long clientReorderedFrames; // v2 고객 프레임 중 순서가 뒤바뀐 수 (통화별만)
+    private long gpuLostFrames;         // v2 GPU 오디오 sequence 기준 유실 수 (통화별만)
+    private long gpuReorderedFrames;    // v2 GPU 오디오 중 순서가 뒤바뀐 수 (통화별만)
+    private Percentiles roundTrip;  // 고객 -> GPU -> 고객
+    private Percentiles gpu;        // GPU 네트워크 + 모델 처리
+    private Percentiles relay;      // 서버 중계 오버헤드
+
+    @Getter
+    @AllArgsConstructor
+    public static class Percentiles {
+        private double p50;
+        private double p95;
+        private double p99;
+    }
+}
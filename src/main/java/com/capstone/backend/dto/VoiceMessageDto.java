@@ -8,9 +8,13 @@ import lombok.Setter;
 @Setter
 @Builder
 public class VoiceMessageDto {
-    private String type;            // "start", "audio", "end" 등
+    private String type;            // "start", "audio", "end", "invalidate" 등
     private String sessionId;       // 통화 세션 ID (String으로 통일 권장)
     private Long voiceProfileId;    // [필수] GPU가 사용할 목소리 ID
     private Long userId;          // 세션에 연결된 유저 id
+    private String voiceDataHash;   // 목소리 파일의 내용 해시(SHA-256) - GPU 로컬 캐시의 해시와 같으면 다운로드/전처리 생략
+    private String modelVersion;    // start: speakerEmbeddingUrl의 임베딩을 만든 모델 버전 (워커가 ?model=로 밝힌 값)
+    private String speakerEmbeddingUrl; // start: 워커가 이전에 올린(0x05) 화자 임베딩의 다운로드 경로 - 있으면 목소리 파일 다운로드/특징 추출 생략
+    private Integer channel;        // 다중 슬롯 워커에서 이 통화의 채널 번호 (단일 슬롯이면 null)
     private String data;            // 오디오 데이터 (start 메시지엔 null)
 }
\ No newline at end of file
@@ -11,6 +11,13 @@ public class VoiceProfileResponseDto {
     private String profileName;
     private LocalDateTime createdAt;
 
+    // JPQL 생성자 projection용 (VoiceProfileRepository)
+    public VoiceProfileResponseDto(Long id, String profileName, LocalDateTime createdAt) {
+        this.id = id;
+        this.profileName = profileName;
+        this.createdAt = createdAt;
+    }
+
     public VoiceProfileResponseDto(VoiceProfile entity) {
         this.id = entity.getId();
         this.profileName = entity.getProfileName();
@@ -0,0 +1,37 @@
+package com.capstone.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// 통화 단계 하나가 일어난 시각 (저장은 CallTimelineService가 JDBC 배치로 수행)
+@Entity
+@Table(name = "call_event", indexes = @Index(name = "idx_call_event_call_session", columnList = "call_session_id"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class CallEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "call_event_id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "call_session_id", nullable = false)
+    private CallSession callSession;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "stage", nullable = false, length = 30)
+    private CallStage stage;
+
+    // 통화 생성 시각 + elapsedMs (단계 사이 순서와 간격은 벽시계가 아닌 단조 시계 기준)
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    // 통화 생성(CREATED)부터 경과 시간 (System.nanoTime 기준)
+    @Column(name = "elapsed_ms", nullable = false)
+    private long elapsedMs;
+}
@@ -0,0 +1,34 @@
+package com.capstone.backend.entity;
+
+/**
+ * 통화 한 건이 거치는 단계입니다. (call_event.stage)
+ * <p>
+ * 각 단계는 구간 시간을 잴 기준 단계(from)를 가집니다. 예: MATCHED - CLIENT_CONNECTED = 매칭 대기 시간
+ */
+public enum CallStage {
+    CREATED(null),                          // 통화 생성 API (CallController.startCall)
+    CLIENT_CONNECTED(CREATED),              // 고객 웹소켓 접속 (앱이 접속하기까지 걸린 시간)
+    QUEUED(CLIENT_CONNECTED),               // 유휴 GPU가 없어 대기열에 들어감
+    MATCHED(CLIENT_CONNECTED),              // GPU 슬롯 배정 (매칭 대기 시간, 사전 준비면 접속 전에 배정됨)
+    START_SENT(MATCHED),                    // GPU에 start 전송
+    GPU_READY(START_SENT),                  // GPU의 ready 신호 (0x04) - 모델 준비 시간
+    FIRST_AUDIO_TO_GPU(CLIENT_CONNECTED),   // 고객 오디오가 처음 GPU로 넘어감
+    FIRST_AUDIO_TO_CLIENT(FIRST_AUDIO_TO_GPU), // 변환된 오디오가 처음 고객에게 감 (첫 응답 시간)
+    HANGUP(CREATED),                        // 통화 종료 API로 끝남 (전체 통화 시간)
+    DISCONNECTED(CREATED);                  // 고객 연결 종료로 끝남 (전체 통화 시간)
+
+    private final CallStage from;
+
+    CallStage(CallStage from) {
+        this.from = from;
+    }
+
+    public CallStage getFrom() {
+        return from;
+    }
+
+    // 이 단계가 기록되면 통화의 타임라인이 끝남
+    public boolean isTerminal() {
+        return this == HANGUP || this == DISCONNECTED;
+    }
+}
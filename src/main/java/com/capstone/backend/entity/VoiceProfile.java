@@ -26,19 +26,29 @@ public class VoiceProfile {
     @Column(name = "profile_name", nullable = false, length = 50)
     private String profileName;
 
-    // [핵심] GPU가 가져갈 실제 이진 데이터 (최대 4GB 지원)
-    @Lob
-    @Column(name = "voice_data", nullable = false, columnDefinition = "LONGBLOB")
-    private byte[] voiceData;
+    // GPU가 가져갈 실제 오디오는 BlobStore(디스크)에 내용 해시 이름으로 저장하고 DB에는 참조만 둠
+    // - 목록/정보 조회나 통화 생성이 이 엔티티를 읽어도 오디오는 읽지 않음
+    @Column(name = "voice_data_hash", length = 64)
+    private String voiceDataHash; // SHA-256 hex
+
+    @Column(name = "voice_data_size")
+    private Long voiceDataSize;
 
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @Builder
-    public VoiceProfile(User user, String profileName, byte[] voiceData) {
+    public VoiceProfile(User user, String profileName, String voiceDataHash, Long voiceDataSize) {
         this.user = user;
         this.profileName = profileName;
-        this.voiceData = voiceData;
+        this.voiceDataHash = voiceDataHash;
+        this.voiceDataSize = voiceDataSize;
+    }
+
+    // 목소리 파일 교체 (새 파일은 이미 저장소에 있음)
+    public void replaceVoiceData(String voiceDataHash, Long voiceDataSize) {
+        this.voiceDataHash = voiceDataHash;
+        this.voiceDataSize = voiceDataSize;
     }
 }
\ No newline at end of file
@@ -1,17 +1,19 @@
 package com.capstone.backend.handler;
 
+import com.capstone.backend.codec.AudioFormat;
+import com.capstone.backend.protocol.FragmentAssembler;
+import com.capstone.backend.protocol.FrameHeader;
 import com.capstone.backend.service.CallService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.BinaryMessage;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.BinaryWebSocketHandler;
-import org.springframework.web.util.UriComponentsBuilder;
 
-import java.net.URI;
-import java.util.Objects;
+import java.nio.ByteBuffer;
 
 @Slf4j
 @Component
@@ -19,6 +21,19 @@ import java.util.Objects;
 public class ClientWebSocketHandler extends BinaryWebSocketHandler {
 
     private final CallService callService;
+    private final OutboundQueueFactory outboundQueueFactory;
+
+    // 스트리밍 모드: 큰 메시지를 컨테이너 버퍼 크기의 조각으로 받음 (WebSocketConfig 참고)
+    @Value("${relay.streaming.enabled:true}")
+    private boolean streaming;
+
+    @Value("${relay.streaming.max-message-bytes:5242880}")
+    private int maxMessageBytes;
+
+    @Override
+    public boolean supportsPartialMessages() {
+        return streaming;
+    }
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
@@ -28,12 +43,37 @@ public class ClientWebSocketHandler extends BinaryWebSocketHandler {
             session.close(CloseStatus.BAD_DATA.withReason("Missing or invalid sessionId"));
             return;
         }
-        callService.registerClient(callSessionId, session);
-        log.info("Client connection established: CallSessionId = {}", callSessionId);
+        // ?protocol=2 면 오디오 프레임마다 FrameHeader(sequence, 녹음 시각)를 주고받음 (없으면 v1: 헤더 없는 오디오)
+        int protocol = FrameHeader.negotiate(HandshakeParams.get(session, "protocol"));
+        session.getAttributes().put(FrameHeader.PROTOCOL_ATTR, protocol);
+        // ?codec=ulaw|ima-adpcm|pcm16&rate=8000 으로 고객 구간의 오디오 형식 지정 (없으면 PCM16 16kHz, 서버가 GPU 형식과 상호 변환)
+        AudioFormat format = AudioFormat.negotiate(HandshakeParams.get(session, "codec"), HandshakeParams.get(session, "rate"));
+        session.getAttributes().put(AudioFormat.ATTR, format);
+        if (streaming) {
+            session.getAttributes().put(FragmentAssembler.ATTR, new FragmentAssembler(maxMessageBytes));
+        }
+
+        // 송신 대기열로 감싸서 등록 (?overflow=drop-oldest|drop-newest|close 로 통화별 정책 지정 가능)
+        callService.registerClient(callSessionId,
+                outboundQueueFactory.decorateClient(session, HandshakeParams.get(session, "overflow")));
+        log.info("Client connection established: CallSessionId = {}, Protocol = v{}, Audio = {}", callSessionId, protocol, format);
     }
 
     @Override
     protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws Exception {
+        // 고객 프레임은 작아서(20ms 단위) 보통 조각나지 않음 - 조각나면 묵음 판단과 코덱 변환이 프레임 단위라 다 모은 뒤 보냄
+        FragmentAssembler fragments = FragmentAssembler.of(session);
+        if (fragments != null && (!message.isLast() || fragments.isAssembling())) {
+            ByteBuffer whole = fragments.append(message.getPayload(), message.isLast());
+            if (whole == null) {
+                if (message.isLast()) {
+                    log.warn("Dropped oversized message (> {} bytes) from client: {}", maxMessageBytes, session.getId());
+                }
+                return;
+            }
+            message = new BinaryMessage(whole);
+        }
+        // GPU가 준비되기 전의 오디오는 CallService가 버퍼에 담아 두었다가 ready 시 순서대로 전달
         callService.forwardAudioToGpu(session, message);
     }
 
@@ -46,11 +86,7 @@ public class ClientWebSocketHandler extends BinaryWebSocketHandler {
     // URI에서 sessionId 쿼리 파라미터 추출
     private Long getCallSessionId(WebSocketSession session) {
         try {
-            URI uri = Objects.requireNonNull(session.getUri());
-            String sessionIdStr = UriComponentsBuilder.fromUri(uri)
-                    .build()
-                    .getQueryParams()
-                    .getFirst("sessionId");
+            String sessionIdStr = HandshakeParams.get(session, "sessionId");
 
             if (sessionIdStr != null) {
                 return Long.parseLong(sessionIdStr);
@@ -60,15 +96,4 @@ public class ClientWebSocketHandler extends BinaryWebSocketHandler {
         }
         return null;
     }
-    /*
-    @Override
-    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws Exception {
-        // [방어 로직] GPU가 준비되지 않았다면 오디오 패킷 무시
-        if (!callService.isGpuReady(session)) {
-            log.warn("Ignored audio packet: GPU is not ready yet.");
-            return;
-        }
-
-        callService.forwardAudioToGpu(session, message);
-    }*/
 }
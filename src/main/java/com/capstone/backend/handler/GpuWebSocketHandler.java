@@ -1,9 +1,19 @@
 package com.capstone.backend.handler;
 
+import com.capstone.backend.codec.AudioFormat;
+import com.capstone.backend.entity.CallStage;
+import com.capstone.backend.protocol.FragmentAssembler;
+import com.capstone.backend.protocol.FrameHeader;
+import com.capstone.backend.protocol.GpuFrame;
+import com.capstone.backend.protocol.SpeakerEmbeddingFrame;
+import com.capstone.backend.service.CallRoute;
 import com.capstone.backend.service.CallService;
+import com.capstone.backend.service.GpuWorker;
 import com.capstone.backend.service.MessageService;
+import com.capstone.backend.storage.SpeakerEmbeddingStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.BinaryMessage;
 import org.springframework.web.socket.CloseStatus;
@@ -20,13 +30,42 @@ public class GpuWebSocketHandler extends BinaryWebSocketHandler {
 
     private final CallService callService;
     private final MessageService messageService;
+    private final OutboundQueueFactory outboundQueueFactory;
+    private final SpeakerEmbeddingStore speakerEmbeddingStore;
+
+    // 워커 하나가 선언할 수 있는 최대 동시 통화 수
+    @Value("${gpu.worker.max-slots:16}")
+    private int maxSlots;
+
+    // 스트리밍 모드: 큰 메시지를 컨테이너 버퍼 크기의 조각으로 받음 (WebSocketConfig 참고)
+    @Value("${relay.streaming.enabled:true}")
+    private boolean streaming;
+
+    // 스트리밍 모드에서 조각을 모아 처리하는 메시지(텍스트 등)의 최대 크기
+    @Value("${relay.streaming.max-message-bytes:5242880}")
+    private int maxMessageBytes;
+
+    @Override
+    public boolean supportsPartialMessages() {
+        return streaming;
+    }
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception{
         try {
-            // TODO: ?workerId=... 파라미터로 GPU 워커 식별
-            callService.registerGpu(session);
-            log.info("GPU worker connection established: Session ID = {}", session.getId());
+            // ?workerId=gpu-a&slots=4&protocol=2&codec=ima-adpcm&rate=16000&model=xtts-v2
+            // : 워커 식별자, 동시에 처리할 수 있는 통화 수, 프레임 규격 버전, 주고받을 오디오 형식 (없으면 PCM16 16kHz), 모델 버전
+            String workerId = HandshakeParams.get(session, "workerId");
+            int slots = parseSlots(HandshakeParams.get(session, "slots"));
+            int protocol = FrameHeader.negotiate(HandshakeParams.get(session, "protocol"));
+            AudioFormat format = AudioFormat.negotiate(HandshakeParams.get(session, "codec"), HandshakeParams.get(session, "rate"));
+            String modelVersion = parseModelVersion(HandshakeParams.get(session, "model"));
+            if (streaming) {
+                session.getAttributes().put(FragmentAssembler.ATTR, new FragmentAssembler(maxMessageBytes));
+            }
+            callService.registerGpu(outboundQueueFactory.decorateGpu(session), workerId, slots, protocol, format, modelVersion);
+            log.info("GPU worker connection established: Session ID = {}, WorkerID = {}, Slots = {}, Protocol = v{}, Audio = {}, Model = {}",
+                    session.getId(), workerId, slots, protocol, format, modelVersion);
         } catch(Exception e) {
             log.error("Failed to establish GPU worker connection: {}", e.getMessage(), e);
             session.close();
@@ -34,64 +73,142 @@ public class GpuWebSocketHandler extends BinaryWebSocketHandler {
     }
 
     /*
-      1 바이트를 읽고 이에 따라 다르게 행동하도록 분기된다
+      v1: 1 바이트(+ 다중 슬롯이면 채널 2바이트)를 읽고, v2: 20바이트 헤더를 읽고 타입에 따라 분기된다
      */
     @Override
     protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws Exception {
+        long receivedAt = System.nanoTime(); // 오디오 왕복 지연 측정 기준
         ByteBuffer payload = message.getPayload();
-        int totalSize = payload.remaining();
 
-        // 페이로드가 비어있거나 헤더조차 없으면 무시
-        if (payload.remaining() < 1) {
-            log.warn("Received empty or invalid binary message from GPU: {}", session.getId());
+        GpuWorker worker = GpuWorker.of(session);
+        if (worker == null) {
+            log.warn("Unregistered GPU session: {}", session.getId());
             return;
         }
 
-        // 첫 1바이트를 읽어 메시지 타입을 확인
-        byte messageType = payload.get(); // 첫 바이트(header)를 읽음
+        // 스트리밍 모드: 컨테이너 버퍼보다 큰 메시지는 조각으로 들어옴 (한 소켓의 메시지 조각은 다른 메시지와 섞이지 않음)
+        if (worker.isAudioStreaming()) {
+            // 첫 조각을 보낸 오디오 메시지의 나머지 - 헤더 없이 오디오만 이어짐
+            CallRoute streamRoute = worker.streamRoute();
+            ByteBuffer chunk = worker.alignStreamChunk(audioPayload(payload));
+            if (streamRoute != null && chunk.hasRemaining()) {
+                callService.forwardAudioFragmentToClient(streamRoute, chunk,
+                        worker.streamSequence(), worker.streamCaptureMicros());
+            }
+            if (message.isLast()) {
+                worker.endAudioStream();
+            }
+            return;
+        }
+        FragmentAssembler fragments = FragmentAssembler.of(session);
+        boolean audioStream = false;
+        if (fragments != null && (!message.isLast() || fragments.isAssembling())) {
+            if (!fragments.isAssembling() && isSplittableAudio(worker, payload)) {
+                // 큰 오디오(TTS 등)는 모으지 않고 도착한 조각부터 고객에게 보냄
+                worker.beginAudioStream();
+                audioStream = true;
+            } else {
+                // 텍스트와 나눠 디코딩할 수 없는 오디오(IMA ADPCM)는 다 모은 뒤 처리
+                payload = fragments.append(payload, message.isLast());
+                if (payload == null) {
+                    if (message.isLast()) {
+                        log.warn("Dropped oversized message (> {} bytes) from GPU: {}", maxMessageBytes, worker.getWorkerId());
+                    }
+                    return;
+                }
+            }
+        }
 
-        log.info("Received from GPU: Type=0x{}, Size={} bytes",
-                Integer.toHexString(messageType & 0xFF).toUpperCase(),
-                totalSize);
+        byte messageType;
+        int channel = 0;
+        long sequence = -1;   // v1은 번호 없음
+        long captureMicros = 0;
+        // 프레임마다 로그를 남기지 않음 - 오디오 중계 지표는 RelayMetrics 참고
 
-        // 실제 데이터 추출 (헤더를 제외한 나머지 바이트)
-        byte[] dataBytes = new byte[payload.remaining()];
-        payload.get(dataBytes);
+        if (worker.getProtocol() == FrameHeader.V2) {
+            // [header:20][payload] - 헤더 필드는 재사용하는 flyweight로 버퍼에서 바로 읽음 (객체 생성 없음)
+            FrameHeader header = worker.inboundHeader();
+            if (!header.wrap(payload)) {
+                log.warn("Invalid v2 frame header from GPU: {}", worker.getWorkerId());
+                return;
+            }
+            messageType = header.type();
+            channel = header.channel();
+            sequence = header.sequence();
+            captureMicros = header.captureMicros();
+        } else {
+            // 페이로드가 비어있거나 헤더조차 없으면 무시
+            if (payload.remaining() < 1) {
+                log.warn("Received empty or invalid binary message from GPU: {}", session.getId());
+                return;
+            }
 
-        // CallService에서 현재 callSessionId 조회
-        Long callSessionId = callService.getCallSessionIdByGpuSession(session.getId());
-        if (callSessionId == null) {
-            log.warn("Cannot find callSessionId for (unpaired?) GPU session: {}", session.getId());
-            return; // 매칭이 안 된 세션이므로 무시
+            // 첫 1바이트를 읽어 메시지 타입을 확인
+            messageType = payload.get(); // 첫 바이트(header)를 읽음
+
+            // 다중 슬롯 워커는 [type][channel:2][payload], 단일 슬롯 워커는 [type][payload]
+            if (worker.isMultiplexed()) {
+                if (payload.remaining() < GpuFrame.CHANNEL_SIZE) {
+                    log.warn("Missing channel header from multi-slot GPU: {}", worker.getWorkerId());
+                    return;
+                }
+                channel = GpuFrame.readChannel(payload);
+            }
+        }
+
+        // 화자 임베딩은 통화가 아닌 프로필 단위 - 채널과 상관없이 저장 (통화가 끝난 뒤 올려도 됨)
+        if (messageType == GpuFrame.SPEAKER_EMBEDDING) {
+            storeSpeakerEmbedding(worker, payload);
+            return;
+        }
+
+        // 채널에 연결된 통화 경로 조회 (맵 조회 없이 배열 인덱스 한 번)
+        CallRoute route = worker.routeAt(channel);
+        if (route == null) {
+            log.warn("Cannot find call route for GPU {} channel {} (unpaired?)", worker.getWorkerId(), channel);
+            return; // 매칭이 안 된 채널이므로 무시
         }
+        Long callSessionId = route.getCallSessionId();
 
         // AI팀과 약속한 바이너리 프로토콜 규격에 따라 분기
         switch (messageType) {
             case 0x01: // AI 오디오 청크
-                // 헤더가 제거된 '순수 오디오 데이터'만 클라이언트로 전달
-                callService.forwardAudioToClient(session, new BinaryMessage(dataBytes));
+                if (sequence >= 0) {
+                    route.getLatency().getGpuSequence().observe(sequence);
+                }
+                // 헤더가 제거된 '순수 오디오 데이터'만 클라이언트로 전달 (v2 고객이면 헤더를 다시 붙임)
+                // (byte[] 복사 없이 원본 버퍼의 읽기 전용 슬라이스를 그대로 전송)
+                if (audioStream) {
+                    // 조각은 샘플 중간에서 잘릴 수 있으므로 샘플 경계에 맞춰 보냄
+                    worker.streamTo(route, sequence, captureMicros);
+                    callService.forwardAudioToClient(route, worker.alignStreamChunk(audioPayload(payload)),
+                            sequence, captureMicros, receivedAt);
+                    break;
+                }
+                callService.forwardAudioToClient(route, audioPayload(payload), sequence, captureMicros, receivedAt);
                 break;
 
             case 0x02: // 사용자 발화 텍스트 (GPU가 받아쓴 USER 텍스트)
                 // UTF-8 텍스트로 디코딩
-                String userText = new String(dataBytes, StandardCharsets.UTF_8);
+                String userText = decodeText(payload);
                 // DB에 "USER"로 저장
                 messageService.saveMessage(callSessionId, "USER", userText);
                 break;
 
             case 0x03: // AI 응답 텍스트 (GPU가 생성한 AI 텍스트)
                 // UTF-8 텍스트로 디코딩
-                String aiText = new String(dataBytes, StandardCharsets.UTF_8);
+                String aiText = decodeText(payload);
                 // DB에 "AI"로 저장
                 messageService.saveMessage(callSessionId, "AI", aiText);
                 break;
 
             case 0x04: // 약속된 헤더값 (예: 0x04)
-                String signal = new String(dataBytes, StandardCharsets.UTF_8);
+                String signal = decodeText(payload);
                 if ("ready".equalsIgnoreCase(signal.trim())) {
                     log.info("GPU is ready for CallSessionId: {}", callSessionId);
+                    route.getTimeline().mark(CallStage.GPU_READY);
                     // 클라이언트에게 준비 완료 신호 전송
-                    callService.notifyClientGpuIsReady(callSessionId);
+                    callService.notifyClientGpuIsReady(route);
                 }
                 break;
 
@@ -100,6 +217,81 @@ public class GpuWebSocketHandler extends BinaryWebSocketHandler {
         }
     }
 
+    // 0x05: [voiceProfileId:8][voiceDataHash:32][model length:1][model][embedding] - 다음 통화의 start 메시지에 주소가 실림
+    // 이 워커가 지금 맡고 있는 통화의 목소리 파일(start 메시지로 넘긴 프로필과 해시)이고 워커가 접속 시 밝힌 모델일 때만 저장
+    // (통화가 끝난 뒤 올리면 버림 - 다른 사람의 목소리 파일 해시로 임베딩을 덮어쓰지 못하게)
+    private void storeSpeakerEmbedding(GpuWorker worker, ByteBuffer payload) {
+        SpeakerEmbeddingFrame frame = SpeakerEmbeddingFrame.read(payload);
+        if (frame == null) {
+            log.warn("Invalid speaker embedding frame from GPU: {}", worker.getWorkerId());
+            return;
+        }
+        if (!frame.modelVersion().equals(worker.getModelVersion())
+                || !worker.isServing(frame.voiceProfileId(), frame.voiceDataHash())) {
+            log.warn("Rejected speaker embedding for VoiceProfile={}, Model={}: not served by GPU {} (model {})",
+                    frame.voiceProfileId(), frame.modelVersion(), worker.getWorkerId(), worker.getModelVersion());
+            return;
+        }
+        if (speakerEmbeddingStore.put(frame.voiceDataHash(), frame.modelVersion(), frame.embedding())) {
+            log.info("Stored speaker embedding: VoiceProfile={}, Model={}, {} bytes (from GPU {})",
+                    frame.voiceProfileId(), frame.modelVersion(), frame.embedding().length, worker.getWorkerId());
+        } else {
+            log.warn("Rejected speaker embedding for VoiceProfile={} ({} bytes) from GPU: {}",
+                    frame.voiceProfileId(), frame.embedding().length, worker.getWorkerId());
+        }
+    }
+
+    // model 파라미터는 저장 경로에 쓰이므로 규칙(영문/숫자/._- 64자 이내)에 맞지 않으면 없는 것으로
+    private String parseModelVersion(String value) {
+        if (value == null || SpeakerEmbeddingFrame.isValidModelVersion(value.trim())) {
+            return value != null ? value.trim() : null;
+        }
+        log.warn("Invalid model parameter from GPU worker: {}", value);
+        return null;
+    }
+
+    // slots 파라미터가 없거나 잘못되면 기존처럼 1 (연결 하나 = 통화 하나)
+    private int parseSlots(String value) {
+        if (value == null) {
+            return 1;
+        }
+        try {
+            return Math.max(1, Math.min(Integer.parseInt(value.trim()), maxSlots));
+        } catch (NumberFormatException e) {
+            log.warn("Invalid slots parameter from GPU worker: {}", value);
+            return 1;
+        }
+    }
+
+    // 첫 조각에 헤더가 다 들어 있고, 워커 오디오 형식이 조각마다 따로 디코딩할 수 있는 오디오(0x01) 메시지인지
+    private static boolean isSplittableAudio(GpuWorker worker, ByteBuffer payload) {
+        if (!worker.getAudioFormat().encoding().isSplittable()) {
+            return false;
+        }
+        int position = payload.position();
+        if (worker.getProtocol() == FrameHeader.V2) {
+            FrameHeader header = worker.inboundHeader(); // 복제본으로 읽어 payload 위치는 그대로
+            return header.wrap(payload.duplicate()) && header.type() == GpuFrame.AUDIO;
+        }
+        int headerSize = worker.isMultiplexed() ? GpuFrame.MUX_HEADER_SIZE : 1;
+        return payload.remaining() >= headerSize && payload.get(position) == GpuFrame.AUDIO;
+    }
+
+    /**
+     * 헤더(타입, 채널)를 읽은 뒤의 페이로드를 복사 없이 잘라낸 읽기 전용 뷰를 반환합니다.
+     * 원본 버퍼는 핸들러 호출이 끝나면 컨테이너가 재사용하므로, 전송은 이 호출 안에서 끝나야 합니다.
+     */
+    static ByteBuffer audioPayload(ByteBuffer payload) {
+        return payload.slice().asReadOnlyBuffer();
+    }
+
+    // 텍스트 메시지(0x02~0x04)만 UTF-8 문자열로 디코딩
+    private static String decodeText(ByteBuffer payload) {
+        byte[] dataBytes = new byte[payload.remaining()];
+        payload.get(dataBytes);
+        return new String(dataBytes, StandardCharsets.UTF_8);
+    }
+
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
         callService.gpuDisconnected(session);
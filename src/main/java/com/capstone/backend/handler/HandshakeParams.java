@@ -0,0 +1,22 @@
+package com.capstone.backend.handler;
+
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.util.Objects;
+
+// 웹소켓 접속 URI의 쿼리 파라미터 조회 (/ws-client?sessionId=..., /ws-gpu?workerId=... 등)
+final class HandshakeParams {
+
+    private HandshakeParams() {
+    }
+
+    static String get(WebSocketSession session, String name) {
+        URI uri = Objects.requireNonNull(session.getUri());
+        return UriComponentsBuilder.fromUri(uri)
+                .build()
+                .getQueryParams()
+                .getFirst(name);
+    }
+}
@@ -0,0 +1,40 @@
+package com.capstone.backend.handler;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+// 고객/GPU 세션을 송신 대기열(OutboundQueueSession)로 감싸는 팩토리
+@Component
+public class OutboundQueueFactory {
+
+    private final int bufferSizeLimit;
+    private final int sendTimeLimitMs;
+    private final OverflowPolicy clientOverflowPolicy;
+    private final OverflowPolicy gpuOverflowPolicy;
+    private final boolean asyncSend; // 샤드 중계 모드에서는 샤드 스레드가 전송을 기다리지 않도록 비동기 전송
+
+    public OutboundQueueFactory(@Value("${relay.outbound.buffer-size-limit:524288}") int bufferSizeLimit,
+                                @Value("${relay.outbound.send-time-limit-ms:2000}") int sendTimeLimitMs,
+                                @Value("${relay.outbound.client-overflow-policy:DROP_OLDEST}") String clientOverflowPolicy,
+                                @Value("${relay.outbound.gpu-overflow-policy:DROP_OLDEST}") String gpuOverflowPolicy,
+                                @Value("${relay.shards.enabled:false}") boolean asyncSend) {
+        this.bufferSizeLimit = bufferSizeLimit;
+        this.sendTimeLimitMs = sendTimeLimitMs;
+        this.clientOverflowPolicy = OverflowPolicy.from(clientOverflowPolicy, OverflowPolicy.DROP_OLDEST);
+        this.gpuOverflowPolicy = OverflowPolicy.from(gpuOverflowPolicy, OverflowPolicy.DROP_OLDEST);
+        this.asyncSend = asyncSend;
+    }
+
+    /**
+     * 고객 세션을 감쌉니다. 통화별로 정책을 지정했다면(?overflow=drop-newest 등) 그 값을 우선합니다.
+     */
+    public OutboundQueueSession decorateClient(WebSocketSession session, String requestedPolicy) {
+        return new OutboundQueueSession(session, bufferSizeLimit, sendTimeLimitMs,
+                OverflowPolicy.from(requestedPolicy, clientOverflowPolicy), asyncSend);
+    }
+
+    public OutboundQueueSession decorateGpu(WebSocketSession session) {
+        return new OutboundQueueSession(session, bufferSizeLimit, sendTimeLimitMs, gpuOverflowPolicy, asyncSend);
+    }
+}
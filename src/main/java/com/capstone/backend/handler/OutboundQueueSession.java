@@ -0,0 +1,313 @@
+package com.capstone.backend.handler;
+
+import jakarta.websocket.RemoteEndpoint;
+import jakarta.websocket.SendResult;
+import jakarta.websocket.Session;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 세션마다 하나씩 붙는 송신 대기열입니다.
+ * <p>
+ * 한 번에 한 스레드만 실제 전송을 하고, 그동안 들어온 메시지는 대기열에 쌓은 뒤 곧바로 반환합니다.
+ * 따라서 여러 생산자가 같은 세션에 동시에 써도 프레임이 섞이지 않고, 느린 상대 때문에
+ * 다른 Tomcat 스레드가 묶이지 않습니다. (Spring의 ConcurrentWebSocketSessionDecorator와 같은 구조)
+ * <p>
+ * 대기열이 비어 있을 때는 복사 없이 바로 보내고, 대기열에 넣을 때만 페이로드를 복사합니다.
+ * 수신 버퍼는 핸들러가 반환되면 컨테이너가 재사용하기 때문입니다.
+ * <p>
+ * 비동기 모드(샤드 중계, relay.shards.enabled)에서는 호출 스레드가 전송을 기다리지 않습니다.
+ * 모든 메시지를 복사해 대기열에 넣고, 컨테이너의 비동기 전송(RemoteEndpoint.Async)으로 하나씩 보낸 뒤
+ * 완료 콜백에서 다음 메시지를 보냅니다. (느린 상대 하나가 같은 샤드의 다른 통화를 막지 않음)
+ */
+@Slf4j
+public class OutboundQueueSession extends WebSocketSessionDecorator {
+
+    // Tomcat이 blocking 전송 시 사용하는 타임아웃 (ms, Long)
+    private static final String TOMCAT_BLOCKING_SEND_TIMEOUT = "org.apache.tomcat.websocket.BLOCKING_SEND_TIMEOUT";
+
+    private final int bufferSizeLimit;
+    private final int sendTimeLimitMs;
+    private volatile OverflowPolicy overflowPolicy;
+
+    private final Deque<WebSocketMessage<?>> buffer = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger bufferSize = new AtomicInteger();
+    private final AtomicLong droppedMessages = new AtomicLong();
+    private final Lock flushLock = new ReentrantLock();
+
+    // 비동기 모드: 컨테이너의 비동기 전송 (null이면 blocking 전송)
+    private final RemoteEndpoint.Async asyncRemote;
+    private final AtomicBoolean asyncSending = new AtomicBoolean();
+    // 완료 콜백이 전송을 시작한 스레드에서 바로 불렸을 때 재귀 대신 바깥 반복문이 다음 메시지를 보내게 함
+    private static final ThreadLocal<OutboundQueueSession> DRAINING = new ThreadLocal<>();
+
+    private volatile long sendStartTime;
+    private volatile boolean limitExceeded;
+
+    public OutboundQueueSession(WebSocketSession delegate, int bufferSizeLimit, int sendTimeLimitMs,
+                                OverflowPolicy overflowPolicy) {
+        this(delegate, bufferSizeLimit, sendTimeLimitMs, overflowPolicy, false);
+    }
+
+    /**
+     * @param async true면 비동기 모드 (컨테이너가 지원하지 않으면 blocking 전송)
+     */
+    public OutboundQueueSession(WebSocketSession delegate, int bufferSizeLimit, int sendTimeLimitMs,
+                                OverflowPolicy overflowPolicy, boolean async) {
+        super(delegate);
+        this.bufferSizeLimit = bufferSizeLimit;
+        this.sendTimeLimitMs = sendTimeLimitMs;
+        this.overflowPolicy = overflowPolicy;
+        this.asyncRemote = async ? asyncRemoteOf(delegate) : null;
+        limitBlockingSendTime(delegate, sendTimeLimitMs);
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        if (shouldNotSend()) {
+            return;
+        }
+        if (asyncRemote != null) {
+            enqueue(message);
+            sendNextAsync();
+            checkSendTimeLimit();
+            return;
+        }
+
+        if (flushLock.tryLock()) {
+            try {
+                if (buffer.isEmpty()) {
+                    // 대기 중인 메시지가 없으면 복사 없이 바로 전송
+                    send(message);
+                } else {
+                    // 먼저 들어온 메시지보다 앞서 나가지 않도록 대기열 뒤에 붙인 후 비움
+                    enqueue(message);
+                    flushBuffer();
+                }
+            } finally {
+                flushLock.unlock();
+            }
+        } else {
+            enqueue(message);
+            if (!tryFlushBuffer()) {
+                checkSendTimeLimit();
+                return;
+            }
+        }
+
+        // 락을 놓는 사이 다른 스레드가 넣고 간 메시지를 마저 전송
+        while (!buffer.isEmpty() && !shouldNotSend()) {
+            if (!tryFlushBuffer()) {
+                checkSendTimeLimit();
+                break;
+            }
+        }
+    }
+
+    public int getBufferSize() {
+        return bufferSize.get();
+    }
+
+    public long getDroppedMessageCount() {
+        return droppedMessages.get();
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    private boolean shouldNotSend() {
+        return limitExceeded || !isOpen();
+    }
+
+    private boolean tryFlushBuffer() throws IOException {
+        if (flushLock.tryLock()) {
+            try {
+                flushBuffer();
+            } finally {
+                flushLock.unlock();
+            }
+            return true;
+        }
+        return false;
+    }
+
+    // flushLock을 잡은 상태에서만 호출
+    private void flushBuffer() throws IOException {
+        while (!shouldNotSend()) {
+            WebSocketMessage<?> message = buffer.poll();
+            if (message == null) {
+                break;
+            }
+            bufferSize.addAndGet(-message.getPayloadLength());
+            send(message);
+        }
+    }
+
+    private void send(WebSocketMessage<?> message) throws IOException {
+        sendStartTime = System.currentTimeMillis();
+        try {
+            getDelegate().sendMessage(message);
+        } finally {
+            sendStartTime = 0;
+        }
+    }
+
+    // 보내는 중인 메시지가 없으면 대기열 맨 앞 메시지의 비동기 전송을 시작
+    private void sendNextAsync() {
+        OutboundQueueSession outer = DRAINING.get();
+        if (outer == this) {
+            return; // 이 스레드의 바깥 반복문이 이어서 보냄
+        }
+        DRAINING.set(this);
+        try {
+            while (!shouldNotSend() && !buffer.isEmpty() && asyncSending.compareAndSet(false, true)) {
+                WebSocketMessage<?> message = buffer.poll();
+                if (message == null) {
+                    asyncSending.set(false);
+                    continue;
+                }
+                bufferSize.addAndGet(-message.getPayloadLength());
+                sendStartTime = System.currentTimeMillis();
+                try {
+                    if (message instanceof BinaryMessage binary) {
+                        asyncRemote.sendBinary(binary.getPayload(), this::onAsyncSent);
+                    } else {
+                        asyncRemote.sendText(String.valueOf(message.getPayload()), this::onAsyncSent);
+                    }
+                } catch (RuntimeException e) {
+                    sendStartTime = 0;
+                    asyncSending.set(false);
+                    closeAsNotReliable("Async send failed: " + e.getMessage());
+                }
+            }
+        } finally {
+            DRAINING.set(outer);
+        }
+    }
+
+    private void onAsyncSent(SendResult result) {
+        sendStartTime = 0;
+        asyncSending.set(false);
+        if (!result.isOK()) {
+            closeAsNotReliable("Async send failed: " + result.getException());
+            return;
+        }
+        sendNextAsync();
+    }
+
+    private void enqueue(WebSocketMessage<?> message) {
+        WebSocketMessage<?> owned = retain(message);
+        int size = owned.getPayloadLength();
+
+        // 텍스트(제어/시스템 메시지)는 크기가 작고 유실되면 안 되므로 한도와 상관없이 넣는다
+        if (!(owned instanceof BinaryMessage) || bufferSize.get() + size <= bufferSizeLimit) {
+            buffer.add(owned);
+            bufferSize.addAndGet(size);
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case DROP_NEWEST -> droppedMessages.incrementAndGet();
+            case DROP_OLDEST -> {
+                buffer.add(owned);
+                bufferSize.addAndGet(size);
+                dropOldestUntilWithinLimit();
+            }
+            case CLOSE -> closeAsNotReliable("Outbound buffer limit exceeded: " + bufferSizeLimit + " bytes");
+        }
+    }
+
+    private void dropOldestUntilWithinLimit() {
+        while (bufferSize.get() > bufferSizeLimit) {
+            WebSocketMessage<?> oldest = null;
+            for (WebSocketMessage<?> queued : buffer) {
+                if (queued instanceof BinaryMessage) {
+                    oldest = queued;
+                    break;
+                }
+            }
+            if (oldest == null) {
+                return;
+            }
+            // 전송 스레드가 먼저 꺼내 갔다면 제거되지 않으므로 크기를 빼지 않는다
+            if (buffer.removeFirstOccurrence(oldest)) {
+                bufferSize.addAndGet(-oldest.getPayloadLength());
+                droppedMessages.incrementAndGet();
+            }
+        }
+    }
+
+    private void checkSendTimeLimit() {
+        long start = sendStartTime;
+        if (start != 0 && System.currentTimeMillis() - start > sendTimeLimitMs) {
+            closeAsNotReliable("Send time " + (System.currentTimeMillis() - start) + " (ms) exceeded the limit");
+        }
+    }
+
+    private void closeAsNotReliable(String reason) {
+        if (limitExceeded) {
+            return;
+        }
+        limitExceeded = true;
+        buffer.clear();
+        bufferSize.set(0);
+        log.warn("Closing slow session {}: {}", getId(), reason);
+        try {
+            getDelegate().close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            log.debug("Failed to close slow session {}", getId(), e);
+        }
+    }
+
+    // 대기열에 들어가는 바이너리 메시지는 컨테이너 버퍼가 재사용되기 전에 복사해 둔다
+    private static WebSocketMessage<?> retain(WebSocketMessage<?> message) {
+        if (message instanceof BinaryMessage binary) {
+            ByteBuffer source = binary.getPayload().duplicate();
+            ByteBuffer copy = ByteBuffer.allocate(source.remaining());
+            copy.put(source).flip();
+            return new BinaryMessage(copy, binary.isLast());
+        }
+        return message;
+    }
+
+    private static RemoteEndpoint.Async asyncRemoteOf(WebSocketSession session) {
+        if (session instanceof NativeWebSocketSession nativeSession) {
+            Session wsSession = nativeSession.getNativeSession(Session.class);
+            if (wsSession != null) {
+                return wsSession.getAsyncRemote();
+            }
+        }
+        log.warn("Async send is not available for session {}, using blocking sends", session.getId());
+        return null;
+    }
+
+    // 전송이 막힌 스레드가 sendTimeLimit 이상 붙잡혀 있지 않도록 Tomcat의 blocking 전송 타임아웃을 맞춘다
+    private static void limitBlockingSendTime(WebSocketSession session, long sendTimeLimitMs) {
+        if (session instanceof NativeWebSocketSession nativeSession) {
+            Session wsSession = nativeSession.getNativeSession(Session.class);
+            if (wsSession != null) {
+                wsSession.getUserProperties().put(TOMCAT_BLOCKING_SEND_TIMEOUT, sendTimeLimitMs);
+            }
+        }
+    }
+}
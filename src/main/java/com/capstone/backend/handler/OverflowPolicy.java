@@ -0,0 +1,25 @@
+package com.capstone.backend.handler;
+
+import java.util.Locale;
+
+// 송신 대기열이 가득 찼을 때의 처리 방식
+public enum OverflowPolicy {
+    DROP_OLDEST, // 가장 오래된 오디오 프레임부터 버림 (지연 최소화)
+    DROP_NEWEST, // 새로 들어온 프레임을 버림 (이미 쌓인 순서 유지)
+    CLOSE;       // 세션을 종료
+
+    /**
+     * "drop-oldest", "DROP_OLDEST" 등 쿼리 파라미터/설정 값을 정책으로 변환합니다.
+     * 알 수 없는 값이면 기본 정책을 반환합니다.
+     */
+    public static OverflowPolicy from(String value, OverflowPolicy defaultPolicy) {
+        if (value == null || value.isBlank()) {
+            return defaultPolicy;
+        }
+        try {
+            return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return defaultPolicy;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.capstone.backend.metrics;
+
+import com.capstone.backend.protocol.SequenceTracker;
+import lombok.Getter;
+
+/**
+ * 통화 하나의 오디오 왕복 지연을 추적합니다. (고객 -> GPU -> 고객)
+ * <p>
+ * GPU로 보낸 프레임의 시각을 순서대로 링에 쌓아 두고, GPU가 돌려준 오디오 청크와 짝짓습니다.
+ * <ul>
+ *     <li>v2 GPU: 청크 헤더에 되돌려 준 sequence와 같은 프레임과 짝지음 (그보다 앞선 프레임은 응답 없음으로 처리)</li>
+ *     <li>v1 GPU: 번호가 없으므로 "받은 순서대로 프레임당 청크 하나를 돌려준다"고 가정하고 가장 오래된 프레임과 짝지음</li>
+ * </ul>
+ * 짝이 맞지 않는 청크와 응답 없이 밀려난 프레임은 따로 세어 가정이 깨졌는지 확인할 수 있게 합니다.
+ * <ul>
+ *     <li>round trip: 고객 프레임 수신 -> 변환된 오디오를 고객 세션에 넘긴 시각</li>
+ *     <li>gpu: GPU에 넘긴 시각 -> GPU 청크 수신 (네트워크 + 모델 처리)</li>
+ *     <li>relay: 서버 안에서 보낸 시간 (수신 -> GPU 전송 완료) + (GPU 청크 수신 -> 고객 전송 완료)</li>
+ * </ul>
+ * 기록은 고객 수신 스레드, 짝짓기는 GPU 수신 스레드에서 일어나므로 짧은 임계 구역으로 보호합니다.
+ */
+public class CallLatency {
+
+    @Getter
+    private final Long callSessionId;
+    private final LatencyTracker tracker;
+
+    private final long[] sequences;
+    private final long[] receivedAt;
+    private final long[] forwardedAt;
+    private final int mask;
+    private long head; // 다음에 짝지을 프레임 번호
+    private long tail; // 다음에 기록할 프레임 번호
+
+    @Getter
+    private final LatencyHistogram roundTrip = new LatencyHistogram();
+    @Getter
+    private final LatencyHistogram gpu = new LatencyHistogram();
+    @Getter
+    private final LatencyHistogram relay = new LatencyHistogram();
+
+    private long evictedFrames;   // GPU 응답 없이 밀려난 프레임 (GPU가 프레임보다 청크를 적게 보냄)
+    private long unmatchedChunks; // 짝지을 프레임이 없던 청크 (GPU가 프레임보다 청크를 많이 보냄)
+
+    // v2 프레임의 sequence로 본 유실/순서 뒤바뀜 (고객 -> 서버, GPU -> 서버)
+    @Getter
+    private final SequenceTracker clientSequence = new SequenceTracker();
+    @Getter
+    private final SequenceTracker gpuSequence = new SequenceTracker();
+
+    CallLatency(Long callSessionId, LatencyTracker tracker, int capacity) {
+        this.callSessionId = callSessionId;
+        this.tracker = tracker;
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1; // 2의 거듭제곱으로 올림
+        this.sequences = new long[size];
+        this.receivedAt = new long[size];
+        this.forwardedAt = new long[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * 고객 프레임을 GPU에 넘긴 직후 호출합니다.
+     *
+     * @param sequence       GPU로 보낸 프레임의 sequence (v1 GPU면 짝짓기에 쓰이지 않음)
+     * @param receivedNanos  프레임을 받은 시각 (System.nanoTime)
+     * @param forwardedNanos GPU 세션에 넘기기를 마친 시각
+     */
+    public synchronized void frameForwarded(long sequence, long receivedNanos, long forwardedNanos) {
+        if (tail - head == receivedAt.length) {
+            head++;
+            evictedFrames++;
+        }
+        int slot = (int) (tail++ & mask);
+        sequences[slot] = sequence;
+        receivedAt[slot] = receivedNanos;
+        forwardedAt[slot] = forwardedNanos;
+    }
+
+    /**
+     * GPU가 돌려준 오디오 청크를 고객에게 넘긴 직후 호출합니다.
+     *
+     * @param sequence         v2 GPU가 되돌려 준 sequence, v1이면 -1 (가장 오래된 프레임과 짝지음)
+     * @param gpuReceivedNanos GPU 청크를 받은 시각
+     * @param deliveredNanos   고객 세션에 넘기기를 마친 시각
+     */
+    public void chunkDelivered(long sequence, long gpuReceivedNanos, long deliveredNanos) {
+        long received;
+        long forwarded;
+        synchronized (this) {
+            if (sequence >= 0) {
+                // 되돌려 받은 번호보다 앞선 프레임은 GPU가 응답하지 않은 것
+                while (head != tail && (int) (sequences[(int) (head & mask)] - sequence) < 0) {
+                    head++;
+                    evictedFrames++;
+                }
+                if (head == tail || sequences[(int) (head & mask)] != sequence) {
+                    unmatchedChunks++; // 이미 지나간(또는 보낸 적 없는) 번호
+                    return;
+                }
+            } else if (head == tail) {
+                unmatchedChunks++;
+                return;
+            }
+            int slot = (int) (head++ & mask);
+            received = receivedAt[slot];
+            forwarded = forwardedAt[slot];
+        }
+        long roundTripNanos = deliveredNanos - received;
+        long gpuNanos = Math.max(gpuReceivedNanos - forwarded, 0);
+        long relayNanos = (forwarded - received) + (deliveredNanos - gpuReceivedNanos);
+
+        roundTrip.recordNanos(roundTripNanos);
+        gpu.recordNanos(gpuNanos);
+        relay.recordNanos(relayNanos);
+        tracker.record(roundTripNanos, gpuNanos, relayNanos);
+    }
+
+    public synchronized long getEvictedFrames() {
+        return evictedFrames;
+    }
+
+    public synchronized long getUnmatchedChunks() {
+        return unmatchedChunks;
+    }
+}
@@ -0,0 +1,87 @@
+package com.capstone.backend.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 마이크로초 단위 지연 시간을 고정 크기 버킷에 세는 히스토그램입니다. (여러 스레드에서 동시에 기록 가능)
+ * <p>
+ * 2의 거듭제곱 구간마다 8개씩 나눈 로그-선형 버킷이라 상대 오차는 약 12.5% 이내이고,
+ * 기록은 배열 원소 하나의 원자적 증가뿐이므로 프레임마다 호출해도 객체를 만들지 않습니다.
+ * 백분위 값은 해당 버킷의 상한으로 보고합니다. (실제 값보다 작게 나오지 않음)
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;  // 구간당 버킷 수
+    private static final int LINEAR_LIMIT = SUB_BUCKETS * 2;      // 이 값 미만은 1us 단위 그대로
+    private static final int MAX_EXPONENT = 36;                   // 2^36 us ≈ 19시간 (그 이상은 마지막 버킷)
+    private static final int BUCKETS = LINEAR_LIMIT + (MAX_EXPONENT - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    public void recordNanos(long nanos) {
+        recordMicros(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    public void recordMicros(long micros) {
+        counts.incrementAndGet(indexOf(Math.max(micros, 0)));
+    }
+
+    public long getCount() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * @param quantile 0.0 ~ 1.0 (예: 0.95)
+     * @return 해당 백분위 지연 시간(us), 기록이 없으면 0
+     */
+    public long percentileMicros(double quantile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    static int indexOf(long micros) {
+        if (micros < LINEAR_LIMIT) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros); // >= SUB_BUCKET_BITS + 1
+        if (exponent >= MAX_EXPONENT + 1) {
+            return BUCKETS - 1;
+        }
+        int sub = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + sub;
+    }
+
+    // 버킷에 들어가는 가장 큰 값
+    static long upperBound(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int offset = index - LINEAR_LIMIT;
+        int exponent = offset / SUB_BUCKETS + SUB_BUCKET_BITS + 1;
+        int sub = offset % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (1L << exponent) + (sub + 1) * width - 1;
+    }
+}
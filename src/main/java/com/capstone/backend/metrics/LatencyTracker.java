@@ -0,0 +1,135 @@
+package com.capstone.backend.metrics;
+
+import com.capstone.backend.dto.LatencyReportDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 통화별 오디오 왕복 지연({@link CallLatency})을 만들고, 전체 집계와 함께 조회할 수 있게 보관합니다.
+ * <ul>
+ *     <li>relay.latency{stage=round_trip|gpu|relay} - 전체 통화 지연 분포 (/actuator/prometheus)</li>
+ *     <li>통화별 분포는 통화 ID 태그로 지표 수가 늘어나지 않도록 메모리에만 두고 API로 조회</li>
+ * </ul>
+ * 종료된 통화의 결과는 크기와 시간이 정해진 캐시에 잠시 남겨 두어 통화가 끝난 뒤에도 확인할 수 있습니다.
+ */
+@Component
+public class LatencyTracker {
+
+    private final int windowFrames;
+    private final Map<Long, CallLatency> active = new ConcurrentHashMap<>();
+    private final Cache<Long, CallLatency> finished;
+
+    // 서버 시작 이후 전체 통화 (API 응답용 - Prometheus 쪽은 아래 Timer 사용)
+    private final LatencyHistogram roundTrip = new LatencyHistogram();
+    private final LatencyHistogram gpu = new LatencyHistogram();
+    private final LatencyHistogram relay = new LatencyHistogram();
+
+    private final Timer roundTripTimer;
+    private final Timer gpuTimer;
+    private final Timer relayTimer;
+
+    public LatencyTracker(MeterRegistry registry,
+                          @Value("${relay.latency.window-frames:256}") int windowFrames,
+                          @Value("${relay.latency.retain-max:1000}") long retainMax,
+                          @Value("${relay.latency.retain-minutes:60}") long retainMinutes) {
+        this.windowFrames = windowFrames;
+        this.finished = Caffeine.newBuilder()
+                .maximumSize(retainMax)
+                .expireAfterWrite(Duration.ofMinutes(retainMinutes))
+                .build();
+        this.roundTripTimer = stageTimer(registry, "round_trip");
+        this.gpuTimer = stageTimer(registry, "gpu");
+        this.relayTimer = stageTimer(registry, "relay");
+    }
+
+    // 통화 경로가 만들어질 때 호출 (같은 통화가 다시 매칭되면 새로 시작)
+    public CallLatency open(Long callSessionId) {
+        CallLatency latency = new CallLatency(callSessionId, this, windowFrames);
+        active.put(callSessionId, latency);
+        return latency;
+    }
+
+    // 통화 경로가 종료될 때 호출
+    public void close(CallLatency latency) {
+        if (active.remove(latency.getCallSessionId(), latency)) {
+            finished.put(latency.getCallSessionId(), latency);
+        }
+    }
+
+    void record(long roundTripNanos, long gpuNanos, long relayNanos) {
+        roundTrip.recordNanos(roundTripNanos);
+        gpu.recordNanos(gpuNanos);
+        relay.recordNanos(relayNanos);
+        roundTripTimer.record(roundTripNanos, TimeUnit.NANOSECONDS);
+        gpuTimer.record(gpuNanos, TimeUnit.NANOSECONDS);
+        relayTimer.record(relayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return 통화의 지연 요약, 진행 중이지도 않고 최근에 끝나지도 않았다면 null
+     */
+    public LatencyReportDto report(Long callSessionId) {
+        CallLatency latency = active.get(callSessionId);
+        boolean running = latency != null;
+        if (!running) {
+            latency = finished.getIfPresent(callSessionId);
+        }
+        if (latency == null) {
+            return null;
+        }
+        return LatencyReportDto.builder()
+                .callSessionId(callSessionId)
+                .active(running)
+                .samples(latency.getRoundTrip().getCount())
+                .evictedFrames(latency.getEvictedFrames())
+                .unmatchedChunks(latency.getUnmatchedChunks())
+                .clientLostFrames(latency.getClientSequence().getLost())
+                .clientReorderedFrames(latency.getClientSequence().getReordered())
+                .gpuLostFrames(latency.getGpuSequence().getLost())
+                .gpuReorderedFrames(latency.getGpuSequence().getReordered())
+                .roundTrip(percentiles(latency.getRoundTrip()))
+                .gpu(percentiles(latency.getGpu()))
+                .relay(percentiles(latency.getRelay()))
+                .build();
+    }
+
+    // 서버 시작 이후 전체 통화의 지연 요약
+    public LatencyReportDto aggregate() {
+        return LatencyReportDto.builder()
+                .samples(roundTrip.getCount())
+                .roundTrip(percentiles(roundTrip))
+                .gpu(percentiles(gpu))
+                .relay(percentiles(relay))
+                .build();
+    }
+
+    private static LatencyReportDto.Percentiles percentiles(LatencyHistogram histogram) {
+        return new LatencyReportDto.Percentiles(
+                millis(histogram.percentileMicros(0.50)),
+                millis(histogram.percentileMicros(0.95)),
+                millis(histogram.percentileMicros(0.99)));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static Timer stageTimer(MeterRegistry registry, String stage) {
+        return Timer.builder("relay.latency")
+                .description("Audio latency from client frame to converted audio delivered back")
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(10_000))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(registry);
+    }
+}
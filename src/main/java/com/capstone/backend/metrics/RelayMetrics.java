@@ -0,0 +1,127 @@
+package com.capstone.backend.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 오디오 중계 경로의 지표입니다. (/actuator/prometheus 로 노출)
+ * <ul>
+ *     <li>relay.frame.size{direction} - 프레임 크기 분포 (count = 프레임 수, sum = 바이트 수)</li>
+ *     <li>relay.frame.send{direction} - 프레임 하나를 상대 세션에 넘기는 데 걸린 시간</li>
+ *     <li>relay.frame.stale.dropped - GPU가 밀려 너무 늦게 도착해 버린 고객 프레임 수</li>
+ *     <li>relay.frame.silent.suppressed - 묵음으로 판단해 GPU로 보내지 않은 고객 프레임 수 (relay.vad.enabled)</li>
+ * </ul>
+ * 프레임마다 로그를 남기지 않고, relay.debug.sample-every=N 이면 DEBUG 레벨에서 약 N개 중 1개만 기록합니다.
+ */
+@Slf4j
+@Component
+public class RelayMetrics {
+
+    private static final String CLIENT_TO_GPU = "client_to_gpu";
+    private static final String GPU_TO_CLIENT = "gpu_to_client";
+
+    private final MeterRegistry registry;
+    private final DistributionSummary clientToGpuSize;
+    private final DistributionSummary gpuToClientSize;
+    private final Timer clientToGpuSend;
+    private final Timer gpuToClientSend;
+    private final Counter staleFrames;
+    private final Counter silentFrames;
+    private final Counter readyTimeouts;
+    private final int sampleEvery;
+
+    public RelayMetrics(MeterRegistry registry, @Value("${relay.debug.sample-every:0}") int sampleEvery) {
+        this.registry = registry;
+        this.sampleEvery = sampleEvery;
+        this.clientToGpuSize = frameSize(CLIENT_TO_GPU);
+        this.gpuToClientSize = frameSize(GPU_TO_CLIENT);
+        this.clientToGpuSend = sendTime(CLIENT_TO_GPU);
+        this.gpuToClientSend = sendTime(GPU_TO_CLIENT);
+        this.staleFrames = Counter.builder("relay.frame.stale.dropped")
+                .description("Client audio frames dropped because they reached the relay too late for the GPU")
+                .register(registry);
+        this.silentFrames = Counter.builder("relay.frame.silent.suppressed")
+                .description("Client audio frames not sent to the GPU because voice activity detection found only silence")
+                .register(registry);
+        this.readyTimeouts = Counter.builder("relay.ready.timeout")
+                .description("Calls ended because the GPU did not signal ready within relay.early-audio.ready-timeout-ms")
+                .register(registry);
+    }
+
+    public void clientToGpu(Long callSessionId, int bytes, long elapsedNanos) {
+        clientToGpuSize.record(bytes);
+        clientToGpuSend.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (sampled()) {
+            log.debug("Audio Packet: Client -> GPU (CallID={}, Size={} bytes, send={} us)",
+                    callSessionId, bytes, elapsedNanos / 1000);
+        }
+    }
+
+    public void gpuToClient(Long callSessionId, int bytes, long elapsedNanos) {
+        gpuToClientSize.record(bytes);
+        gpuToClientSend.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (sampled()) {
+            log.debug("Relay to Client: (CallID={}, Size={} bytes, send={} us)",
+                    callSessionId, bytes, elapsedNanos / 1000);
+        }
+    }
+
+    // GPU가 밀려 늦게 도착한 고객 프레임을 버릴 때마다 호출
+    public void staleFrameDropped() {
+        staleFrames.increment();
+    }
+
+    // 묵음 프레임을 GPU로 보내지 않을 때마다 호출
+    public void silentFrameSuppressed() {
+        silentFrames.increment();
+    }
+
+    // GPU가 제한 시간 안에 ready를 보내지 않아 통화를 끝낼 때마다 호출
+    public void readyTimedOut() {
+        readyTimeouts.increment();
+    }
+
+    // 풀 크기, 대기열 길이 등 현재 상태를 읽어 가는 지표 등록
+    public <T> void gauge(String name, String description, T state, ToDoubleFunction<T> value) {
+        Gauge.builder(name, state, value)
+                .description(description)
+                .register(registry);
+    }
+
+    // 공유 카운터 없이 스레드별 난수로 샘플링 (여러 통화가 같은 변수를 두고 경쟁하지 않게)
+    private boolean sampled() {
+        return sampleEvery > 0 && log.isDebugEnabled() && ThreadLocalRandom.current().nextInt(sampleEvery) == 0;
+    }
+
+    private DistributionSummary frameSize(String direction) {
+        return DistributionSummary.builder("relay.frame.size")
+                .description("Relayed audio frame size")
+                .baseUnit("bytes")
+                .tag("direction", direction)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(64.0)
+                .maximumExpectedValue(65536.0)
+                .register(registry);
+    }
+
+    private Timer sendTime(String direction) {
+        return Timer.builder("relay.frame.send")
+                .description("Time to hand one audio frame to the peer session")
+                .tag("direction", direction)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(1_000))
+                .maximumExpectedValue(Duration.ofSeconds(2))
+                .register(registry);
+    }
+}
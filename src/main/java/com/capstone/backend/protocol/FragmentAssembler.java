@@ -0,0 +1,109 @@
+package com.capstone.backend.protocol;
+
+import org.springframework.web.socket.WebSocketSession;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 스트리밍 모드(부분 메시지 수신)에서 조각으로 나뉘어 도착한 메시지를 하나로 모읍니다. (세션당 하나, 수신 스레드 전용)
+ * <p>
+ * 컨테이너 버퍼를 작게 두면 그보다 큰 메시지는 여러 조각으로 들어옵니다.
+ * 조각 없이 한 번에 온 메시지(대부분의 오디오 프레임)는 복사하지 않고 그대로 돌려주고,
+ * 조각난 메시지만 실제 크기만큼 늘어나는 버퍼에 모읍니다.
+ * <ul>
+ *     <li>maxMessageBytes를 넘는 메시지는 끝까지 받아 버림 (세션은 닫지 않음)</li>
+ *     <li>모은 버퍼는 다음 메시지에 재사용 - 돌려받은 메시지는 다음 append 전까지만 유효 (컨테이너 버퍼와 같은 규칙)</li>
+ *     <li>한 번 커진 버퍼가 세션 내내 남지 않도록 {@link #RETAIN_BYTES}보다 크면 메시지를 넘긴 뒤 놓아 줌</li>
+ * </ul>
+ */
+public class FragmentAssembler {
+
+    // 세션 attributes 키 - 스트리밍 모드일 때만 있음
+    public static final String ATTR = "fragmentAssembler";
+
+    static final int INITIAL_CAPACITY = 4 * 1024;
+    static final int RETAIN_BYTES = 64 * 1024;
+
+    private final int maxMessageBytes;
+
+    private ByteBuffer buffer;
+    private boolean assembling;
+    private boolean oversized;
+    private long droppedMessages;
+
+    public FragmentAssembler(int maxMessageBytes) {
+        this.maxMessageBytes = maxMessageBytes;
+    }
+
+    public static FragmentAssembler of(WebSocketSession session) {
+        return (FragmentAssembler) session.getAttributes().get(ATTR);
+    }
+
+    /**
+     * 조각 하나를 더합니다. fragment의 position은 바뀌지 않습니다.
+     *
+     * @param last 메시지의 마지막 조각이면 true
+     * @return 메시지가 완성되면 전체 메시지, 아직 조각이 남았거나 너무 커서 버렸으면 null
+     */
+    public ByteBuffer append(ByteBuffer fragment, boolean last) {
+        if (!assembling) {
+            if (last) {
+                return fragment; // 한 번에 온 메시지
+            }
+            assembling = true;
+            oversized = false;
+            if (buffer != null) {
+                buffer.clear();
+            }
+        }
+
+        if (!oversized) {
+            int size = (buffer != null ? buffer.position() : 0) + fragment.remaining();
+            if (size > maxMessageBytes) {
+                oversized = true;
+            } else {
+                ensureCapacity(size);
+                buffer.put(fragment.duplicate());
+            }
+        }
+        if (!last) {
+            return null;
+        }
+
+        assembling = false;
+        if (oversized) {
+            droppedMessages++;
+            return null;
+        }
+        ByteBuffer message = buffer.flip();
+        if (message.capacity() > RETAIN_BYTES) {
+            buffer = null;
+        }
+        return message;
+    }
+
+    // 앞서 받은 조각에 이어지는 조각을 기다리는 중인지
+    public boolean isAssembling() {
+        return assembling;
+    }
+
+    // 너무 커서 버린 메시지 수
+    public long getDroppedMessages() {
+        return droppedMessages;
+    }
+
+    private void ensureCapacity(int size) {
+        if (buffer != null && buffer.capacity() >= size) {
+            return;
+        }
+        int capacity = buffer != null ? buffer.capacity() : INITIAL_CAPACITY;
+        while (capacity < size) {
+            capacity = (int) Math.min((long) capacity * 2, maxMessageBytes);
+        }
+        ByteBuffer grown = ByteBuffer.allocate(capacity);
+        if (buffer != null) {
+            grown.put(buffer.flip());
+        }
+        buffer = grown;
+    }
+}
@@ -0,0 +1,121 @@
+package com.capstone.backend.protocol;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 프로토콜 v2 프레임 헤더입니다. /ws-client, /ws-gpu 공통으로 모든 바이너리 프레임 앞에 붙습니다.
+ * <pre>
+ * offset size
+ *   0     1   version        (= 2)
+ *   1     1   type           (GpuFrame.AUDIO ~ SPEAKER_EMBEDDING)
+ *   2     1   flags
+ *   3     1   header length  (= 20, 이후 버전에서 늘어나도 이 값만큼 건너뛰면 payload)
+ *   4     2   channel        (GPU 워커 안의 슬롯 번호, 고객 프레임은 0)
+ *   6     2   reserved
+ *   8     4   sequence       (보낸 쪽이 프레임마다 1씩 증가, unsigned)
+ *  12     8   capture time   (오디오를 녹음한 시각, epoch 기준 us, 모르면 0)
+ * </pre>
+ * 모든 필드는 big-endian입니다. v1 상대와는 접속 시 ?protocol=2 를 밝혔을 때만 v2로 주고받습니다.
+ * <p>
+ * 읽을 때는 {@link #wrap}으로 받은 버퍼 위치만 기억해 두고 각 필드를 그 자리에서 읽으므로,
+ * 수신 스레드마다 인스턴스 하나를 재사용하면 프레임당 객체를 만들지 않습니다. (스레드 안전하지 않음)
+ */
+public final class FrameHeader {
+
+    public static final int V1 = 1;
+    public static final int V2 = 2;
+
+    public static final int SIZE = 20;
+
+    // 세션 attributes 키 - 접속 시 합의한 프로토콜 버전 (Integer)
+    public static final String PROTOCOL_ATTR = "protocolVersion";
+
+    private static final int VERSION_OFFSET = 0;
+    private static final int TYPE_OFFSET = 1;
+    private static final int FLAGS_OFFSET = 2;
+    private static final int LENGTH_OFFSET = 3;
+    private static final int CHANNEL_OFFSET = 4;
+    private static final int SEQUENCE_OFFSET = 8;
+    private static final int CAPTURE_OFFSET = 12;
+
+    private ByteBuffer frame;
+    private int base;
+
+    /**
+     * frame의 현재 위치에서 헤더를 읽을 준비를 하고, 성공하면 frame의 위치를 payload 시작으로 옮깁니다.
+     *
+     * @return 헤더가 잘렸거나 버전이 맞지 않으면 false (frame의 위치는 그대로)
+     */
+    public boolean wrap(ByteBuffer frame) {
+        int position = frame.position();
+        if (frame.remaining() < SIZE || frame.get(position + VERSION_OFFSET) != V2) {
+            return false;
+        }
+        int length = frame.get(position + LENGTH_OFFSET) & 0xFF;
+        if (length < SIZE || length > frame.remaining()) {
+            return false;
+        }
+        this.frame = frame;
+        this.base = position;
+        frame.position(position + length);
+        return true;
+    }
+
+    public byte type() {
+        return frame.get(base + TYPE_OFFSET);
+    }
+
+    public int flags() {
+        return frame.get(base + FLAGS_OFFSET) & 0xFF;
+    }
+
+    public int channel() {
+        return frame.getShort(base + CHANNEL_OFFSET) & 0xFFFF;
+    }
+
+    public long sequence() {
+        return frame.getInt(base + SEQUENCE_OFFSET) & 0xFFFFFFFFL;
+    }
+
+    public long captureMicros() {
+        return frame.getLong(base + CAPTURE_OFFSET);
+    }
+
+    /**
+     * target의 현재 위치에 헤더를 씁니다. (target의 위치는 헤더 뒤로 이동)
+     */
+    public static void write(ByteBuffer target, byte type, int flags, int channel, long sequence, long captureMicros) {
+        target.put((byte) V2)
+                .put(type)
+                .put((byte) flags)
+                .put((byte) SIZE)
+                .putShort((short) channel)
+                .putShort((short) 0)
+                .putInt((int) sequence)
+                .putLong(captureMicros);
+    }
+
+    /**
+     * [헤더][payload] 프레임을 target에 씁니다. target이 작으면 더 큰 버퍼를 새로 만들어 반환하므로,
+     * 호출한 쪽은 반환값을 재사용해야 합니다. payload의 position은 바뀌지 않습니다.
+     */
+    public static ByteBuffer writeFrame(ByteBuffer target, byte type, int channel, long sequence,
+                                        long captureMicros, ByteBuffer payload) {
+        int size = SIZE + payload.remaining();
+        if (target == null || target.capacity() < size) {
+            target = ByteBuffer.allocate(Math.max(size, 4096));
+        }
+        int position = payload.position();
+        target.clear();
+        write(target, type, 0, channel, sequence, captureMicros);
+        target.put(payload);
+        payload.position(position);
+        target.flip();
+        return target;
+    }
+
+    // 접속 파라미터(?protocol=2)를 버전으로 변환, 없거나 모르는 값이면 v1
+    public static int negotiate(String requested) {
+        return String.valueOf(V2).equals(requested != null ? requested.trim() : null) ? V2 : V1;
+    }
+}
@@ -0,0 +1,51 @@
+package com.capstone.backend.protocol;
+
+import java.nio.ByteBuffer;
+
+/**
+ * /ws-gpu 바이너리 프레임 규격입니다.
+ * <pre>
+ * 단일 슬롯 워커 : [type:1][payload]
+ * 다중 슬롯 워커 : [type:1][channel:2][payload]   (channel = 통화가 배정된 슬롯 번호, big-endian)
+ * </pre>
+ * 단일 슬롯 워커로 보내는 고객 오디오는 기존과 같이 헤더 없이 그대로 전달합니다.
+ * 접속 시 ?protocol=2 를 밝힌 워커는 위 대신 {@link FrameHeader}(v2)를 사용합니다. (타입 값은 같음)
+ */
+public final class GpuFrame {
+
+    public static final byte AUDIO = 0x01;     // 오디오 청크
+    public static final byte USER_TEXT = 0x02; // 사용자 발화 텍스트 (STT)
+    public static final byte AI_TEXT = 0x03;   // AI 응답 텍스트
+    public static final byte CONTROL = 0x04;   // 제어 신호 ("ready" 등)
+    public static final byte SPEAKER_EMBEDDING = 0x05; // GPU가 계산한 화자 임베딩 ({@link SpeakerEmbeddingFrame})
+
+    public static final int TYPE_SIZE = 1;
+    public static final int CHANNEL_SIZE = 2;
+    public static final int MUX_HEADER_SIZE = TYPE_SIZE + CHANNEL_SIZE;
+
+    private GpuFrame() {
+    }
+
+    /**
+     * 다중 슬롯 워커로 보낼 [type][channel][payload] 프레임을 target에 씁니다.
+     * target이 작으면 더 큰 버퍼를 새로 만들어 반환하므로, 호출한 쪽은 반환값을 재사용해야 합니다.
+     * payload의 position은 바뀌지 않습니다.
+     */
+    public static ByteBuffer writeMuxFrame(ByteBuffer target, byte type, int channel, ByteBuffer payload) {
+        int size = MUX_HEADER_SIZE + payload.remaining();
+        if (target == null || target.capacity() < size) {
+            target = ByteBuffer.allocate(Math.max(size, 4096));
+        }
+        int position = payload.position();
+        target.clear();
+        target.put(type).putShort((short) channel).put(payload);
+        payload.position(position);
+        target.flip();
+        return target;
+    }
+
+    // 다중 슬롯 워커가 보낸 프레임에서 채널 번호를 읽습니다 (type 바이트를 읽은 뒤 호출)
+    public static int readChannel(ByteBuffer frame) {
+        return frame.getShort() & 0xFFFF;
+    }
+}
@@ -0,0 +1,37 @@
+package com.capstone.backend.protocol;
+
+/**
+ * v2 프레임의 sequence로 유실/순서 뒤바뀜을 셉니다. (한 방향, 한 수신 스레드 전용)
+ * <p>
+ * sequence는 32비트에서 한 바퀴 돌 수 있으므로 차이를 int로 비교합니다.
+ * 기대값보다 큰 번호가 오면 사이의 프레임을 유실로, 작은 번호가 오면 순서 뒤바뀜(또는 중복)으로 셉니다.
+ */
+public class SequenceTracker {
+
+    private boolean started;
+    private long expected;
+    private volatile long lost;
+    private volatile long reordered;
+
+    public void observe(long sequence) {
+        if (!started) {
+            started = true;
+        } else {
+            int gap = (int) (sequence - expected);
+            if (gap < 0) {
+                reordered++;
+                return; // 늦게 온 프레임은 기대값을 되돌리지 않음
+            }
+            lost += gap;
+        }
+        expected = (sequence + 1) & 0xFFFFFFFFL;
+    }
+
+    public long getLost() {
+        return lost;
+    }
+
+    public long getReordered() {
+        return reordered;
+    }
+}
@@ -0,0 +1,66 @@
+package com.capstone.backend.protocol;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * GPU가 계산한 화자 임베딩(특징 텐서)을 서버에 맡기는 0x05 메시지의 payload입니다. (타입/채널 또는 v2 헤더 뒤)
+ * <pre>
+ * [voiceProfileId:8][voiceDataHash:32][model length:1][model version: UTF-8][embedding...]
+ * </pre>
+ * voiceDataHash는 임베딩을 계산한 목소리 파일의 SHA-256 (start 메시지의 voiceDataHash를 hex -> 32바이트로),
+ * model version은 영문/숫자/._- 1~64자입니다. 임베딩 본문의 형식(dtype, shape)은 워커와 모델이 정하고 서버는 그대로 보관합니다.
+ * 통화와 무관한 프로필 단위 메시지라 채널 값은 보지 않습니다.
+ *
+ * @param voiceProfileId 로그용 - 저장 키는 (voiceDataHash, modelVersion)
+ * @param voiceDataHash  소문자 hex 64자
+ * @param modelVersion   임베딩을 만든 모델 버전
+ * @param embedding      payload에서 복사한 임베딩 (수신 버퍼는 컨테이너가 재사용)
+ */
+public record SpeakerEmbeddingFrame(long voiceProfileId, String voiceDataHash, String modelVersion, byte[] embedding) {
+
+    public static final int HASH_SIZE = 32;
+    private static final int FIXED_SIZE = Long.BYTES + HASH_SIZE + 1;
+    private static final Pattern MODEL_VERSION = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+    private static final HexFormat HEX = HexFormat.of();
+
+    public static boolean isValidModelVersion(String modelVersion) {
+        return modelVersion != null && MODEL_VERSION.matcher(modelVersion).matches();
+    }
+
+    /**
+     * payload를 읽습니다. 잘렸거나 모델 버전이 규칙에 맞지 않거나 임베딩이 비어 있으면 null입니다.
+     * 읽으면 payload의 position은 끝으로 옮겨집니다.
+     */
+    public static SpeakerEmbeddingFrame read(ByteBuffer payload) {
+        if (payload.remaining() < FIXED_SIZE) {
+            return null;
+        }
+        long voiceProfileId = payload.getLong();
+        byte[] hash = new byte[HASH_SIZE];
+        payload.get(hash);
+        int modelLength = payload.get() & 0xFF;
+        if (payload.remaining() <= modelLength) {
+            return null; // 모델 버전이 잘렸거나 임베딩이 없음
+        }
+        byte[] model = new byte[modelLength];
+        payload.get(model);
+        String modelVersion = new String(model, StandardCharsets.UTF_8);
+        if (!isValidModelVersion(modelVersion)) {
+            return null;
+        }
+        byte[] embedding = new byte[payload.remaining()];
+        payload.get(embedding);
+        return new SpeakerEmbeddingFrame(voiceProfileId, HEX.formatHex(hash), modelVersion, embedding);
+    }
+
+    // 위 규격의 payload를 만듭니다. (GPU 워커 구현/테스트용)
+    public static ByteBuffer write(long voiceProfileId, String voiceDataHash, String modelVersion, byte[] embedding) {
+        byte[] model = modelVersion.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer payload = ByteBuffer.allocate(FIXED_SIZE + model.length + embedding.length);
+        payload.putLong(voiceProfileId).put(HEX.parseHex(voiceDataHash)).put((byte) model.length).put(model).put(embedding);
+        return payload.flip();
+    }
+}
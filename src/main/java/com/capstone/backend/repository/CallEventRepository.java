@@ -0,0 +1,10 @@
+package com.capstone.backend.repository;
+
+import com.capstone.backend.entity.CallEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface CallEventRepository extends JpaRepository<CallEvent, Long> {
+    List<CallEvent> findAllByCallSession_IdOrderByElapsedMsAsc(Long callSessionId);
+}
@@ -1,5 +1,6 @@
 package com.capstone.backend.repository;
 
+import com.capstone.backend.dto.CallRoutingInfo;
 import com.capstone.backend.entity.CallSession;
 import com.capstone.backend.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CallSessionRepository extends JpaRepository<CallSession, Long>{
@@ -18,4 +20,12 @@ public interface CallSessionRepository extends JpaRepository<CallSession, Long>{
     //    단순 JPA 메서드 이름으로는 길어지므로 @Query를 사용하여 직관적으로 작성합니다.
     @Query("SELECT DISTINCT c.voiceProfile.profileName FROM CallSession c WHERE c.user = :user")
     List<String> findDistinctProfileNamesByUser(@Param("user") User user);
+
+    // 3. 통화 매칭용 정보 (엔티티 로딩 없이 외래 키 컬럼만 한 번에 조회)
+    @Query("SELECT new com.capstone.backend.dto.CallRoutingInfo(c.user.id, c.voiceProfile.id, c.voiceProfile.voiceDataHash) " +
+            "FROM CallSession c WHERE c.id = :id")
+    Optional<CallRoutingInfo> findRoutingInfoById(@Param("id") Long id);
+
+    // 4. 통화 조회 API의 소유자 확인용
+    boolean existsByIdAndUser_PhoneNumber(Long id, String phoneNumber);
 }
@@ -1,8 +1,14 @@
 package com.capstone.backend.repository;
 
+import com.capstone.backend.dto.CallRoutingInfo;
+import com.capstone.backend.dto.VoiceProfileResponseDto;
 import com.capstone.backend.entity.User;
 import com.capstone.backend.entity.VoiceProfile;
+import com.capstone.backend.storage.StoredBlob;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.List;
 import java.util.Optional;
 
@@ -17,4 +23,22 @@ public interface VoiceProfileRepository extends JpaRepository<VoiceProfile, Long
     List<VoiceProfile> findAllByUserId(Long userId);
 
     Optional<VoiceProfile> findByUserAndProfileName(User user, String profileName);
+
+    // 3. 목록/정보 조회용 - 엔티티 대신 필요한 컬럼만 DTO로
+    @Query("SELECT new com.capstone.backend.dto.VoiceProfileResponseDto(v.id, v.profileName, v.createdAt) " +
+            "FROM VoiceProfile v WHERE v.user.phoneNumber = :phoneNumber")
+    List<VoiceProfileResponseDto> findSummariesByUserPhoneNumber(@Param("phoneNumber") String phoneNumber);
+
+    @Query("SELECT new com.capstone.backend.dto.VoiceProfileResponseDto(v.id, v.profileName, v.createdAt) " +
+            "FROM VoiceProfile v WHERE v.id = :id")
+    Optional<VoiceProfileResponseDto> findSummaryById(@Param("id") Long id);
+
+    // 4. 통화 생성 시 소유자 확인 + 매칭용 정보 (소유자 id, 목소리 파일 해시만 조회)
+    @Query("SELECT new com.capstone.backend.dto.CallRoutingInfo(v.user.id, v.id, v.voiceDataHash) FROM VoiceProfile v WHERE v.id = :id")
+    Optional<CallRoutingInfo> findRoutingInfoById(@Param("id") Long id);
+
+    // 5. 다운로드용 - 오디오 원본의 저장소 참조 (해시가 없는 행은 아직 옮기지 않은 것이므로 제외)
+    @Query("SELECT new com.capstone.backend.storage.StoredBlob(v.voiceDataHash, v.voiceDataSize) " +
+            "FROM VoiceProfile v WHERE v.id = :id AND v.voiceDataHash IS NOT NULL")
+    Optional<StoredBlob> findVoiceDataById(@Param("id") Long id);
 }
\ No newline at end of file
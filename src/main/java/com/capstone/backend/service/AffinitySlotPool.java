@@ -0,0 +1,44 @@
+package com.capstone.backend.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 같은 목소리(voiceProfileId)를 가장 최근에 처리한 워커의 슬롯을 우선 배정하는 풀입니다.
+ * <p>
+ * 그 워커에는 화자 모델이 이미 올라가 있으므로 모델 로딩(콜드 스타트) 없이 첫 음성을 낼 수 있습니다.
+ * 해당 워커에 빈 슬롯이 없거나 처음 보는 목소리면 {@link LeastLoadedSlotPool}과 같이 배정합니다.
+ */
+class AffinitySlotPool extends LeastLoadedSlotPool {
+
+    private static final int MAX_TRACKED_PROFILES = 10_000;
+
+    // voiceProfileId -> 가장 최근에 처리한 워커 (오래 쓰이지 않은 목소리부터 제거, 락 안에서만 접근)
+    private final Map<Long, GpuWorker> lastWorkerByProfile = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, GpuWorker> eldest) {
+            return size() > MAX_TRACKED_PROFILES;
+        }
+    };
+
+    @Override
+    protected int selectIndex(WaitingClient client) {
+        GpuWorker warm = client.voiceProfileId() == null ? null : lastWorkerByProfile.get(client.voiceProfileId());
+        if (warm != null) {
+            for (int i = 0; i < idle.size(); i++) {
+                Matchmaker.Ticket<GpuSlot> ticket = idle.get(i);
+                if (!ticket.isWaiting() || ticket.getValue().worker() == warm) {
+                    return i; // 취소된 티켓은 먼저 치우고 다시 요청받음
+                }
+            }
+        }
+        return leastLoadedIndex();
+    }
+
+    @Override
+    public synchronized void matched(WaitingClient client, GpuSlot slot) {
+        if (client.voiceProfileId() != null) {
+            lastWorkerByProfile.put(client.voiceProfileId(), slot.worker());
+        }
+    }
+}
@@ -6,7 +6,6 @@ import com.capstone.backend.entity.User;
 import com.capstone.backend.repository.CallSessionRepository;
 import com.capstone.backend.repository.MessageRepository;
 import com.capstone.backend.repository.UserRepository;
-import com.capstone.backend.repository.VoiceProfileRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -0,0 +1,299 @@
+package com.capstone.backend.service;
+
+import com.capstone.backend.codec.AudioConverter;
+import com.capstone.backend.codec.AudioFormat;
+import com.capstone.backend.metrics.CallLatency;
+import com.capstone.backend.protocol.FrameHeader;
+import com.capstone.backend.protocol.GpuFrame;
+import com.capstone.backend.util.VoiceActivityDetector;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 매칭된 고객-GPU 슬롯 한 쌍의 통화 경로입니다.
+ * <p>
+ * 매칭 시 고객 세션의 attributes와 GPU 워커의 채널 배열에 같은 객체를 넣어 두므로,
+ * 오디오 프레임마다 맵을 여러 번 거치지 않고 이 객체의 필드 하나로 상대 세션을 찾습니다.
+ * 연결 정보는 생성 후 바뀌지 않고, 종료는 {@link #close()}의 CAS 한 번으로 결정됩니다.
+ * <p>
+ * 통화 사전 준비(prewarm)로 만든 경로는 고객 없이 GPU 슬롯만 잡은 상태로 시작하며,
+ * 고객이 접속하면 {@link #bindClient}로 한 번만 연결되고 TTL이 지나면 {@link #expireReservation}으로 만료됩니다.
+ */
+@Getter
+public class CallRoute {
+
+    public static final String ATTR = "callRoute";
+
+    private static final int UNBOUND = 0; // 예약만 된 상태 (고객 접속 전)
+    private static final int BOUND = 1;   // 고객 연결됨
+    private static final int EXPIRED = 2; // 고객이 오지 않아 예약 만료
+
+    private final Long callSessionId;
+    private volatile WebSocketSession client; // 예약 상태에서는 null
+    private final GpuWorker worker;
+    private final int channel; // 워커 안에서 이 통화가 쓰는 슬롯 번호
+    private final Long voiceProfileId; // start 메시지로 워커에 넘긴 목소리 프로필
+    private final String voiceDataHash; // 그때의 목소리 파일 해시 (워커가 올리는 임베딩 확인용)
+    private final CallLatency latency; // 오디오 왕복 지연 추적
+    private final CallTimeline timeline; // 단계별 시각 기록
+    private final GpuLagGovernor lagGovernor; // 너무 늦게 도착한 고객 오디오 버림
+    @Getter(AccessLevel.NONE)
+    private final VoiceActivityDetector vad;  // 묵음 프레임 판별 (꺼져 있으면 null)
+
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger bindState;
+    @Getter(AccessLevel.NONE)
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    // GPU의 "ready" 신호를 고객에게 한 번만 전달하기 위한 상태 (고객이 나중에 붙는 경우 대비)
+    @Getter(AccessLevel.NONE)
+    private volatile boolean gpuReady;
+    @Getter(AccessLevel.NONE)
+    private final AtomicBoolean readyDelivered = new AtomicBoolean();
+    // ready 이후(먼저 받아 둔 오디오를 모두 보낸 뒤) true - 그 전까지 고객 오디오는 버퍼에 쌓음
+    @Getter(AccessLevel.NONE)
+    private volatile boolean audioOpen;
+
+    // 고객이 접속 시 합의한 프로토콜 버전 (FrameHeader.V1 / V2)
+    @Getter(AccessLevel.NONE)
+    private volatile int clientProtocol;
+
+    // 구간별 오디오 형식 변환 (decode는 그 구간에서 받는 스레드, encode는 반대쪽 스레드에서 사용)
+    @Getter(AccessLevel.NONE)
+    private volatile AudioConverter clientAudio;
+    @Getter(AccessLevel.NONE)
+    private final AudioConverter gpuAudio;
+
+    // 고객 -> GPU 방향 (고객 수신 스레드(샤드 모드에서는 통화의 샤드 스레드), 또는 고객 오디오를 막아 둔 채 먼저 받은 오디오를 보내는 스레드에서만 사용)
+    @Getter(AccessLevel.NONE)
+    private ByteBuffer gpuFrame;             // GPU로 보낼 프레임 버퍼 (통화당 하나를 재사용)
+    @Getter(AccessLevel.NONE)
+    private final FrameHeader clientHeader = new FrameHeader();
+    @Getter(AccessLevel.NONE)
+    private long nextGpuSequence;            // v1 고객 프레임에 붙일 sequence
+    @Getter(AccessLevel.NONE)
+    private long lastGpuSequence;
+    @Getter(AccessLevel.NONE)
+    private long lastCaptureMicros;
+    @Getter(AccessLevel.NONE)
+    private int lastAudioBytes;
+    @Getter(AccessLevel.NONE)
+    private boolean lastVoiced;
+
+    // GPU -> 고객 방향 (GPU 수신 스레드(샤드 모드에서는 통화의 샤드 스레드)에서만 사용)
+    @Getter(AccessLevel.NONE)
+    private ByteBuffer clientFrame;
+    @Getter(AccessLevel.NONE)
+    private long nextClientSequence;         // v1 GPU 청크를 v2 고객에게 보낼 때 붙일 sequence
+
+    public CallRoute(Long callSessionId, WebSocketSession client, GpuWorker worker, int channel,
+                     Long voiceProfileId, String voiceDataHash, CallLatency latency, CallTimeline timeline, GpuLagGovernor lagGovernor,
+                     VoiceActivityDetector vad) {
+        this.callSessionId = callSessionId;
+        this.client = client;
+        this.worker = worker;
+        this.channel = channel;
+        this.voiceProfileId = voiceProfileId;
+        this.voiceDataHash = voiceDataHash;
+        this.latency = latency;
+        this.timeline = timeline;
+        this.lagGovernor = lagGovernor;
+        this.vad = vad;
+        this.bindState = new AtomicInteger(client != null ? BOUND : UNBOUND);
+        this.clientProtocol = protocolOf(client);
+        this.clientAudio = new AudioConverter(formatOf(client));
+        this.gpuAudio = new AudioConverter(worker.getAudioFormat());
+    }
+
+    // 고객 없이 GPU 슬롯만 잡아 둔 경로 (통화 사전 준비)
+    public static CallRoute reserve(Long callSessionId, GpuWorker worker, int channel,
+                                    Long voiceProfileId, String voiceDataHash,
+                                    CallLatency latency, CallTimeline timeline, GpuLagGovernor lagGovernor,
+                                    VoiceActivityDetector vad) {
+        return new CallRoute(callSessionId, null, worker, channel, voiceProfileId, voiceDataHash,
+                latency, timeline, lagGovernor, vad);
+    }
+
+    // 세션에 연결된 통화 경로 (매칭 전이거나 이미 종료되었으면 null)
+    public static CallRoute of(WebSocketSession session) {
+        return (CallRoute) session.getAttributes().get(ATTR);
+    }
+
+    public WebSocketSession getGpu() {
+        return worker.getSession();
+    }
+
+    /**
+     * 고객이 보낸 프레임을 GPU로 보낼 페이로드로 만듭니다.
+     * <ul>
+     *     <li>v2 고객: 헤더를 읽어 sequence와 녹음 시각을 이어받음 (오디오가 아닌 프레임이나 잘못된 헤더면 null)</li>
+     *     <li>v2 워커: v2 헤더(channel 포함)를 붙임</li>
+     *     <li>v1 다중 슬롯 워커: [0x01][channel] 헤더, v1 단일 슬롯 워커: 오디오 그대로</li>
+     *     <li>고객과 워커가 밝힌 오디오 형식(?codec=&rate=)이 다르면 워커 형식으로 변환</li>
+     * </ul>
+     * 반환된 버퍼는 다음 프레임에서 덮어쓰므로 전송은 호출한 쪽에서 바로 끝내야 합니다.
+     * 붙인 sequence는 {@link #lastGpuSequence()}로 확인합니다.
+     */
+    public ByteBuffer framePayloadForGpu(ByteBuffer frame) {
+        ByteBuffer audio = frame;
+        long sequence;
+        long captureMicros;
+        if (clientProtocol == FrameHeader.V2) {
+            if (!clientHeader.wrap(frame) || clientHeader.type() != GpuFrame.AUDIO) {
+                return null;
+            }
+            sequence = clientHeader.sequence();
+            captureMicros = clientHeader.captureMicros();
+            latency.getClientSequence().observe(sequence);
+        } else {
+            sequence = nextGpuSequence;
+            captureMicros = 0;
+            nextGpuSequence = (nextGpuSequence + 1) & 0xFFFFFFFFL;
+        }
+        lastGpuSequence = sequence;
+        lastCaptureMicros = captureMicros;
+        // 지연 한도와 묵음 판단은 내부 형식(PCM16 16kHz)으로 하고, GPU에는 워커가 밝힌 형식으로 보냄
+        AudioConverter clientAudio = this.clientAudio;
+        ByteBuffer pcm = clientAudio.decode(audio);
+        lastAudioBytes = pcm.remaining();
+        lastVoiced = vad == null || vad.isVoice(pcm);
+        ByteBuffer encoded = sameFormat(clientAudio) ? audio : gpuAudio.encode(pcm);
+
+        if (worker.getProtocol() == FrameHeader.V2) {
+            gpuFrame = FrameHeader.writeFrame(gpuFrame, GpuFrame.AUDIO, channel, sequence, captureMicros, encoded);
+            return gpuFrame;
+        }
+        if (!worker.isMultiplexed()) {
+            return encoded;
+        }
+        gpuFrame = GpuFrame.writeMuxFrame(gpuFrame, GpuFrame.AUDIO, channel, encoded);
+        return gpuFrame;
+    }
+
+    // 마지막으로 {@link #framePayloadForGpu}가 붙인 sequence (지연 측정에서 GPU 응답과 짝짓는 데 사용)
+    public long lastGpuSequence() {
+        return lastGpuSequence;
+    }
+
+    /**
+     * 마지막으로 {@link #framePayloadForGpu}가 만든 프레임을 GPU로 보낼지 결정합니다.
+     *
+     * @param receivedAt 고객 프레임을 받은 시각 (System.nanoTime)
+     * @return 녹음 후 너무 늦게 도착해 버려야 하면 false
+     */
+    public boolean admitToGpu(long receivedAt) {
+        return lagGovernor.admit(lastAudioBytes, lastCaptureMicros, receivedAt);
+    }
+
+    // 마지막으로 {@link #framePayloadForGpu}가 만든 프레임이 말소리인지 (묵음이면 GPU로 보내지 않음)
+    public boolean lastFrameVoiced() {
+        return lastVoiced;
+    }
+
+    // 이 통화에서 묵음으로 판단해 보내지 않은 프레임 수
+    public long getSuppressedFrames() {
+        return vad != null ? vad.getSuppressedFrames() : 0;
+    }
+
+    /**
+     * GPU가 돌려준 오디오를 고객에게 보낼 페이로드로 만듭니다.
+     * v2 고객에게는 헤더를 붙이고(v2 워커가 되돌려 준 sequence와 녹음 시각을 그대로 전달), v1 고객에게는 오디오만 보냅니다.
+     * 워커와 고객의 오디오 형식이 다르면 고객 형식으로 변환합니다.
+     *
+     * @param sequence      v2 워커가 되돌려 준 sequence, v1 워커면 -1
+     * @param captureMicros v2 워커가 되돌려 준 녹음 시각, 모르면 0
+     */
+    public ByteBuffer framePayloadForClient(ByteBuffer audio, long sequence, long captureMicros) {
+        AudioConverter clientAudio = this.clientAudio;
+        if (!sameFormat(clientAudio)) {
+            audio = clientAudio.encode(gpuAudio.decode(audio));
+        }
+        if (clientProtocol != FrameHeader.V2) {
+            return audio;
+        }
+        if (sequence < 0) {
+            sequence = nextClientSequence;
+            nextClientSequence = (nextClientSequence + 1) & 0xFFFFFFFFL;
+        }
+        clientFrame = FrameHeader.writeFrame(clientFrame, GpuFrame.AUDIO, 0, sequence, captureMicros, audio);
+        return clientFrame;
+    }
+
+    // 두 구간의 형식이 같으면 변환하지 않고 받은 바이트를 그대로 전달
+    private boolean sameFormat(AudioConverter clientAudio) {
+        return clientAudio.getFormat().equals(gpuAudio.getFormat());
+    }
+
+    /**
+     * 예약된 경로에 고객을 연결합니다. 이미 다른 고객이 붙었거나 예약이 만료되었으면 false.
+     */
+    public boolean bindClient(WebSocketSession session) {
+        if (!bindState.compareAndSet(UNBOUND, BOUND)) {
+            return false;
+        }
+        this.clientProtocol = protocolOf(session);
+        this.clientAudio = new AudioConverter(formatOf(session));
+        this.client = session;
+        return true;
+    }
+
+    /**
+     * 고객이 아직 붙지 않았다면 예약을 만료시킵니다. 이후 {@link #bindClient}는 항상 실패합니다.
+     */
+    public boolean expireReservation() {
+        return bindState.compareAndSet(UNBOUND, EXPIRED);
+    }
+
+    public void markGpuReady() {
+        gpuReady = true;
+    }
+
+    // GPU가 ready를 보냈는지 (고객이 아직 붙지 않아 전달 전이어도 true)
+    public boolean isGpuReady() {
+        return gpuReady;
+    }
+
+    /**
+     * GPU 준비 완료와 고객 연결이 모두 끝났고 아직 알리지 않았다면 true (한 번만).
+     * 두 사건 중 나중에 일어난 쪽에서 호출해 알림이 누락되거나 중복되지 않게 합니다.
+     * 이미 종료된 경로(ready 대기 시간 초과 등)에는 알리지 않습니다.
+     */
+    public boolean claimReadyDelivery() {
+        return gpuReady && client != null && !closed.get() && readyDelivered.compareAndSet(false, true);
+    }
+
+    public boolean isAudioOpen() {
+        return audioOpen;
+    }
+
+    void openAudio() {
+        audioOpen = true;
+    }
+
+    /**
+     * 통화 경로를 종료 상태로 바꿉니다.
+     * 고객 종료, GPU 종료, API 강제 종료가 동시에 일어나도 정확히 한 곳만 true를 받습니다.
+     */
+    public boolean close() {
+        return closed.compareAndSet(false, true);
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    private static AudioFormat formatOf(WebSocketSession client) {
+        Object format = client != null ? client.getAttributes().get(AudioFormat.ATTR) : null;
+        return format instanceof AudioFormat f ? f : AudioFormat.INTERNAL;
+    }
+
+    private static int protocolOf(WebSocketSession client) {
+        Object version = client != null ? client.getAttributes().get(FrameHeader.PROTOCOL_ATTR) : null;
+        return version instanceof Integer v ? v : FrameHeader.V1;
+    }
+}
@@ -0,0 +1,49 @@
+package com.capstone.backend.service;
+
+import com.capstone.backend.dto.CallRoutingInfo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * callSessionId -> (userId, voiceProfileId, voiceDataHash) 메모리 캐시입니다.
+ * <p>
+ * 통화 생성 API에서 미리 채워 두므로 웹소켓 I/O 스레드의 매칭 경로는 DB를 거치지 않습니다.
+ * 크기와 만료 시간이 정해져 있어, 종료 처리가 누락된 통화가 있어도 메모리가 계속 늘지 않습니다.
+ */
+@Component
+public class CallRoutingCache {
+
+    private final Cache<Long, CallRoutingInfo> cache;
+
+    public CallRoutingCache(@Value("${call.routing-cache.max-size:10000}") long maxSize,
+                            @Value("${call.routing-cache.ttl-minutes:120}") long ttlMinutes) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+    }
+
+    public void put(Long callSessionId, CallRoutingInfo info) {
+        cache.put(callSessionId, info);
+    }
+
+    // 캐시에 없으면 loader로 한 번 조회해 채움 (같은 키의 동시 조회는 하나로 합쳐짐)
+    public CallRoutingInfo get(Long callSessionId, Function<Long, CallRoutingInfo> loader) {
+        return cache.get(callSessionId, loader);
+    }
+
+    public void evict(Long callSessionId) {
+        cache.invalidate(callSessionId);
+    }
+
+    // 목소리 파일이 바뀌면 그 프로필을 쓰는 통화의 해시를 새 값으로 (드문 일이라 전체를 훑음)
+    public void updateVoiceDataHash(Long voiceProfileId, String voiceDataHash) {
+        cache.asMap().replaceAll((callSessionId, info) -> voiceProfileId.equals(info.getVoiceProfileId())
+                ? info.withVoiceDataHash(voiceDataHash) : info);
+    }
+}
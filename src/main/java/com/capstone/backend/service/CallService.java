@@ -1,9 +1,18 @@
 package com.capstone.backend.service;
 
+import com.capstone.backend.codec.AudioFormat;
+import com.capstone.backend.dto.CallRoutingInfo;
 import com.capstone.backend.dto.VoiceMessageDto;
+import com.capstone.backend.entity.CallStage;
+import com.capstone.backend.metrics.LatencyTracker;
+import com.capstone.backend.metrics.RelayMetrics;
+import com.capstone.backend.storage.SpeakerEmbeddingStore;
+import com.capstone.backend.util.AudioRingBuffer;
+import com.capstone.backend.util.ShardedExecutor;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.socket.BinaryMessage;
 import org.springframework.web.socket.CloseStatus;
@@ -11,95 +20,349 @@ import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class CallService {
 
-    private final CallSessionService callSessionService; // DB 정보 조회용
+    private final CallSessionService callSessionService; // 통화 라우팅 정보 조회용 (캐시 우선)
+    private final MessageService messageService; // 통화 종료 시 대화 내용 저장 마무리
+    private final EarlyAudioBuffers earlyAudioBuffers; // GPU 준비 전 고객 오디오 보관
+    private final VoiceActivityDetectors voiceActivityDetectors; // 묵음 프레임 판별기 (relay.vad.*)
+    private final RelayMetrics relayMetrics; // 중계 지표 (프레임 크기/전송 시간, 풀 상태)
+    private final LatencyTracker latencyTracker; // 통화별 오디오 왕복 지연
+    private final CallTimelineService callTimelineService; // 통화 단계별 시각
+    private final SpeakerEmbeddingStore speakerEmbeddingStore; // GPU가 올린 화자 임베딩 (start 메시지에 주소를 실음)
     private final ObjectMapper objectMapper; // JSON 변환용
 
-    // 세션 관리용 맵
-    private final Queue<WebSocketSession> availableGpuWorkers = new ConcurrentLinkedQueue<>();
-    private final Map<Long, WebSocketSession> waitingClients = new ConcurrentHashMap<>(); // 대기 중인 고객
-    private final Map<Long, WebSocketSession> activePairs = new ConcurrentHashMap<>();    // 매칭된 쌍 (CallID -> GPU)
+    // 세션 attributes 키
+    private static final String CALL_SESSION_ID_ATTR = "callSessionId"; // 고객 세션의 통화 ID
+    private static final String MATCH_TICKET_ATTR = "matchTicket";      // 매칭 대기 티켓 (연결 종료 시 취소용)
+
+    // 고객 <-> GPU 슬롯 매칭. 고객은 FIFO, 슬롯은 gpu.scheduling.policy에 따라 배정
+    // 워커 하나가 slots 개의 티켓을 풀에 올린다
+    private final Matchmaker<WaitingClient, GpuSlot> matchmaker;
+
+    // 통화 ID로 찾아야 하는 경우(API 강제 종료)를 위한 인덱스
+    // 오디오 중계는 세션 attributes의 CallRoute만 사용한다
+    private final Map<Long, Matchmaker.Ticket<WaitingClient>> waitingClients = new ConcurrentHashMap<>(); // 대기 중인 고객
+    private final Map<Long, CallRoute> activeRoutes = new ConcurrentHashMap<>();                         // 매칭(또는 사전 예약)된 통화
+    private final Set<GpuWorker> connectedWorkers = ConcurrentHashMap.newKeySet();                       // 접속 중인 GPU 워커 (지표, 프로필 변경 알림용)
+
+    // 사전 예약 만료, GPU ready 대기 시간 초과 처리용 타이머
+    private final ScheduledExecutorService callTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "call-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final long reservationTtlMs;
+    private final long readyTimeoutMs;
+    private final long maxGpuLagMs;
+    private final long audioBytesPerSecond;
+
+    // 샤드 중계 모드: 프레임을 통화 ID로 고른 단일 스레드 샤드에서 처리 (꺼져 있으면 null - 받은 스레드에서 바로 처리)
+    private final ShardedExecutor relayShards;
+
+    public CallService(CallSessionService callSessionService,
+                       MessageService messageService,
+                       EarlyAudioBuffers earlyAudioBuffers,
+                       VoiceActivityDetectors voiceActivityDetectors,
+                       RelayMetrics relayMetrics,
+                       LatencyTracker latencyTracker,
+                       CallTimelineService callTimelineService,
+                       SpeakerEmbeddingStore speakerEmbeddingStore,
+                       ObjectMapper objectMapper,
+                       @Value("${gpu.scheduling.policy:affinity}") String schedulingPolicy,
+                       @Value("${call.prewarm.reservation-ttl-ms:15000}") long reservationTtlMs,
+                       @Value("${relay.early-audio.ready-timeout-ms:10000}") long readyTimeoutMs,
+                       @Value("${relay.gpu-lag.max-lag-ms:800}") long maxGpuLagMs,
+                       @Value("${relay.audio.bytes-per-second:32000}") long audioBytesPerSecond,
+                       @Value("${relay.shards.enabled:false}") boolean shardsEnabled,
+                       @Value("${relay.shards.count:0}") int shardCount,
+                       @Value("${relay.shards.queue-capacity:4096}") int shardQueueCapacity) {
+        this.callSessionService = callSessionService;
+        this.reservationTtlMs = reservationTtlMs;
+        this.readyTimeoutMs = readyTimeoutMs;
+        this.maxGpuLagMs = maxGpuLagMs;
+        this.audioBytesPerSecond = audioBytesPerSecond;
+        this.relayShards = shardsEnabled ? new ShardedExecutor("relay-shard", shardCount, shardQueueCapacity) : null;
+        this.messageService = messageService;
+        this.earlyAudioBuffers = earlyAudioBuffers;
+        this.voiceActivityDetectors = voiceActivityDetectors;
+        this.relayMetrics = relayMetrics;
+        this.latencyTracker = latencyTracker;
+        this.callTimelineService = callTimelineService;
+        this.speakerEmbeddingStore = speakerEmbeddingStore;
+        this.objectMapper = objectMapper;
+
+        GpuSchedulingPolicy policy = GpuSchedulingPolicy.from(schedulingPolicy, GpuSchedulingPolicy.AFFINITY);
+        this.matchmaker = new Matchmaker<>(policy.newPool());
+        log.info("GPU scheduling policy: {}", policy);
+        if (relayShards != null) {
+            log.info("Relay runs on {} shard thread(s)", relayShards.getShardCount());
+            relayMetrics.gauge("relay.shards.queued", "Frames waiting in relay shard queues", relayShards, ShardedExecutor::getQueuedTasks);
+            relayMetrics.gauge("relay.shards.rejected", "Frames dropped because a relay shard queue was full", relayShards, ShardedExecutor::getRejectedCount);
+        }
 
-    // 세션 ID로 정보 역추적용
-    private final Map<String, Long> clientSessionToCallId = new ConcurrentHashMap<>();
-    private final Map<String, WebSocketSession> gpuSessionToClient = new ConcurrentHashMap<>();
+        relayMetrics.gauge("call.waiting.clients", "Clients waiting for a GPU slot", matchmaker, Matchmaker::waitingClientCount);
+        relayMetrics.gauge("gpu.slots.idle", "Idle GPU slots in the matching pool", matchmaker, Matchmaker::idleGpuCount);
+        relayMetrics.gauge("call.active", "Matched or pre-warmed calls", activeRoutes, Map::size);
+        relayMetrics.gauge("gpu.workers.connected", "Connected GPU workers", connectedWorkers, Set::size);
+        relayMetrics.gauge("gpu.slots.total", "Slots declared by connected GPU workers", connectedWorkers,
+                workers -> workers.stream().mapToInt(GpuWorker::getSlots).sum());
+    }
 
-    private final Map<String, Long> gpuSessionToCallId = new ConcurrentHashMap<>();
     // =========================================================
     // 1. 고객 접속 처리 (ClientWebSocketHandler에서 호출)
     // =========================================================
     public void registerClient(Long callSessionId, WebSocketSession clientSession) {
         log.info("Registering Client: SessionID={}, CallID={}", clientSession.getId(), callSessionId);
 
-        clientSessionToCallId.put(clientSession.getId(), callSessionId);
+        clientSession.getAttributes().put(CALL_SESSION_ID_ATTR, callSessionId);
+        callTimelineService.timeline(callSessionId).mark(CallStage.CLIENT_CONNECTED);
+
+        // 통화 시작 API에서 GPU를 미리 잡아 두었다면 매칭 없이 바로 연결
+        if (bindReservation(callSessionId, clientSession)) {
+            return;
+        }
 
-        // GPU 매칭 시도
-        WebSocketSession gpuSession = availableGpuWorkers.poll();
-        if (gpuSession != null) {
-            match(callSessionId, clientSession, gpuSession);
+        // 해당 통화의 유저/목소리 정보 (통화 생성 시 캐시됨 - 같은 목소리를 처리했던 GPU를 우선 배정하기 위해 매칭 전에 조회)
+        CallRoutingInfo routing = callSessionService.getRoutingInfo(callSessionId);
+        offerClient(new WaitingClient(callSessionId, clientSession, routing.getUserId(), routing.getVoiceProfileId(),
+                routing.getVoiceDataHash()));
+    }
+
+    // 고객을 매칭 풀에 제시 (신규 접속 또는 배정된 GPU가 매칭 직후 끊긴 경우)
+    private void offerClient(WaitingClient waitingClient) {
+        Matchmaker.Ticket<WaitingClient> ticket = new Matchmaker.Ticket<>(waitingClient);
+        Matchmaker.Match<WaitingClient, GpuSlot> pair = matchmaker.offerClient(ticket);
+        if (pair != null) {
+            match(pair.client(), pair.gpu());
         } else {
-            waitingClients.put(callSessionId, clientSession);
-            log.info("Client waiting for GPU...");
+            waitingClient.session().getAttributes().put(MATCH_TICKET_ATTR, ticket);
+            waitingClients.put(waitingClient.callSessionId(), ticket);
+            callTimelineService.mark(waitingClient.callSessionId(), CallStage.QUEUED);
+            log.info("Client waiting for GPU... (waiting={})", matchmaker.waitingClientCount());
         }
     }
 
     // =========================================================
     // 2. GPU 접속 처리 (GpuWebSocketHandler에서 호출)
     // =========================================================
-    public void registerGpu(WebSocketSession gpuSession) {
-        log.info("Registering GPU: SessionID={}", gpuSession.getId());
-
-        // 대기 중인 고객이 있는지 확인
-        Long callSessionId = waitingClients.keySet().stream().findFirst().orElse(null);
+    public void registerGpu(WebSocketSession gpuSession, String workerId, int slots, int protocol, AudioFormat audioFormat,
+                            String modelVersion) {
+        GpuWorker worker = new GpuWorker(workerId != null ? workerId : gpuSession.getId(), gpuSession, slots, protocol,
+                audioFormat, modelVersion);
+        gpuSession.getAttributes().put(GpuWorker.ATTR, worker);
+        connectedWorkers.add(worker);
+        log.info("Registering GPU worker: WorkerID={}, SessionID={}, Slots={}", worker.getWorkerId(), gpuSession.getId(), slots);
+
+        for (int channel = 0; channel < slots; channel++) {
+            offerSlot(new GpuSlot(worker, channel));
+        }
+    }
 
-        if (callSessionId != null) {
-            WebSocketSession clientSession = waitingClients.remove(callSessionId);
-            if (clientSession.isOpen()) {
-                match(callSessionId, clientSession, gpuSession);
-            } else {
-                // 고객이 기다리다 나갔으면 다시 풀에 등록
-                availableGpuWorkers.add(gpuSession);
+    // GPU 슬롯을 매칭 풀에 제시 (신규 접속 또는 통화 종료 후 반환)
+    private void offerSlot(GpuSlot slot) {
+        GpuWorker worker = slot.worker();
+        while (worker.getSession().isOpen()) {
+            Matchmaker.Ticket<GpuSlot> ticket = new Matchmaker.Ticket<>(slot);
+            Matchmaker.Match<WaitingClient, GpuSlot> pair = matchmaker.offerGpu(ticket);
+
+            if (pair == null) {
+                worker.parkSlot(slot.channel(), ticket);
+                // 등록하는 사이 워커가 끊겼다면 종료 콜백이 이 티켓을 놓쳤을 수 있으므로 직접 취소
+                if (!worker.getSession().isOpen()) {
+                    ticket.cancel();
+                }
+                log.info("GPU slot added to pool: Worker={}, Channel={}, Idle slots={}",
+                        worker.getWorkerId(), slot.channel(), matchmaker.idleGpuCount());
+                return;
             }
-        } else {
-            availableGpuWorkers.add(gpuSession);
-            log.info("GPU added to pool. Total GPUs: {}", availableGpuWorkers.size());
+            if (pair.client().session().isOpen()) {
+                match(pair.client(), pair.gpu());
+                return;
+            }
+            // 고객이 기다리다 나갔으면 다시 풀에 등록
+            waitingClients.remove(pair.client().callSessionId());
         }
     }
 
     // =========================================================
-    // 3. 매칭 로직 (핵심: 여기서 GPU에게 Start 신호를 보냄)
+    // 2-1. 통화 사전 준비 (CallController.startCall에서 호출)
     // =========================================================
-    private void match(Long callSessionId, WebSocketSession client, WebSocketSession gpu) {
-        activePairs.put(callSessionId, gpu);
-        gpuSessionToClient.put(gpu.getId(), client);
-        gpuSessionToCallId.put(gpu.getId(), callSessionId);
 
-        log.info("Matched: CallID={} <-> GPU={}", callSessionId, gpu.getId());
+    /**
+     * 고객이 웹소켓에 접속하기 전에 유휴 GPU 슬롯을 잡아 start 메시지를 먼저 보냅니다.
+     * GPU의 모델 로딩이 고객 접속과 겹쳐 진행되므로 접속 후 ready까지의 시간이 줄어듭니다.
+     * 유휴 슬롯이 없으면(대기 중인 고객이 있는 경우 포함) 아무것도 하지 않고 평소처럼 접속 시 매칭합니다.
+     *
+     * @return GPU 슬롯을 예약했으면 true
+     */
+    public boolean prewarm(Long callSessionId) {
+        CallRoutingInfo routing = callSessionService.getRoutingInfo(callSessionId);
+        WaitingClient reservation = new WaitingClient(callSessionId, null, routing.getUserId(), routing.getVoiceProfileId(),
+                routing.getVoiceDataHash());
+
+        GpuSlot slot = matchmaker.pollGpu(reservation);
+        if (slot == null) {
+            log.info("No idle GPU slot to pre-warm CallID={}", callSessionId);
+            return false;
+        }
+        GpuWorker worker = slot.worker();
+        CallRoute route = CallRoute.reserve(callSessionId, worker, slot.channel(),
+                reservation.voiceProfileId(), reservation.voiceDataHash(),
+                latencyTracker.open(callSessionId), callTimelineService.timeline(callSessionId), newLagGovernor(),
+                voiceActivityDetectors.newDetector());
+        activeRoutes.put(callSessionId, route);
+        worker.attach(route);
+        route.getTimeline().mark(CallStage.MATCHED);
+
+        if (!worker.getSession().isOpen()) {
+            detach(route); // 그 사이 끊긴 워커 - 고객이 접속하면 평소처럼 매칭
+            return false;
+        }
+        log.info("Pre-warmed: CallID={} -> GPU={} (channel {}), reserved for {} ms",
+                callSessionId, worker.getWorkerId(), slot.channel(), reservationTtlMs);
+
+        sendStart(route, reservation);
+        callTimer.schedule(() -> expireReservation(route), reservationTtlMs, TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    // 미리 잡아 둔 GPU 슬롯에 접속한 고객을 연결
+    private boolean bindReservation(Long callSessionId, WebSocketSession clientSession) {
+        CallRoute route = activeRoutes.get(callSessionId);
+        if (route == null || !route.bindClient(clientSession)) {
+            return false;
+        }
+        clientSession.getAttributes().put(CallRoute.ATTR, route);
+        log.info("Client bound to pre-warmed GPU: CallID={}, GPU={}", callSessionId, route.getWorker().getWorkerId());
 
-        // [DB 조회] 해당 통화가 어떤 목소리인지 가져옴
-        Long voiceProfileId = callSessionService.getVoiceProfileId(callSessionId);
+        if (route.isClosed()) {
+            // 연결하는 사이 GPU가 끊김 - 경로를 떼고 평소처럼 매칭
+            clientSession.getAttributes().remove(CallRoute.ATTR, route);
+            return false;
+        }
+        // GPU가 이미 모델을 다 올렸다면 바로 ready 전달
+        deliverReadyIfPending(route);
+        return true;
+    }
 
-        Long userId = callSessionService.getUserId(callSessionId);
+    // 예약 TTL 만료: 고객이 끝내 오지 않았으면 슬롯을 풀로 반환 (고객이 나중에 오면 평소처럼 매칭)
+    private void expireReservation(CallRoute route) {
+        if (route.expireReservation() && endRoute(route)) {
+            log.info("GPU reservation expired: CallID={}, GPU={}", route.getCallSessionId(), route.getWorker().getWorkerId());
+        }
+    }
+
+    private GpuLagGovernor newLagGovernor() {
+        return new GpuLagGovernor(maxGpuLagMs, audioBytesPerSecond);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        callTimer.shutdownNow();
+        if (relayShards != null) {
+            relayShards.close();
+        }
+    }
 
-        // [전송] GPU에게 "시작해" 메시지 (JSON)
+    // =========================================================
+    // 3. 매칭 로직 (핵심: 여기서 GPU에게 Start 신호를 보냄)
+    // =========================================================
+    private void match(WaitingClient waitingClient, GpuSlot slot) {
+        Long callSessionId = waitingClient.callSessionId();
+        WebSocketSession client = waitingClient.session();
+        GpuWorker worker = slot.worker();
+
+        CallRoute route = new CallRoute(callSessionId, client, worker, slot.channel(),
+                waitingClient.voiceProfileId(), waitingClient.voiceDataHash(),
+                latencyTracker.open(callSessionId), callTimelineService.timeline(callSessionId), newLagGovernor(),
+                voiceActivityDetectors.newDetector());
+        waitingClients.remove(callSessionId);
+        activeRoutes.put(callSessionId, route);
+        client.getAttributes().remove(MATCH_TICKET_ATTR);
+        client.getAttributes().put(CallRoute.ATTR, route);
+        worker.attach(route);
+        route.getTimeline().mark(CallStage.MATCHED);
+
+        log.info("Matched: CallID={} <-> GPU={} (channel {}, {}/{} slots busy)",
+                callSessionId, worker.getWorkerId(), slot.channel(), worker.getActiveCalls(), worker.getSlots());
+
+        // 경로를 붙이는 사이 한쪽이 끊겼다면 (종료 콜백이 경로를 보기 전에 끊긴 경우) 여기서 정리
+        if (!client.isOpen()) {
+            endRoute(route);
+            return;
+        }
+        if (!worker.getSession().isOpen()) {
+            // 아직 통화가 시작되지 않았으므로 고객은 끊지 않고 다른 슬롯을 기다리게 한다
+            if (detach(route)) {
+                offerClient(waitingClient);
+            }
+            return;
+        }
+
+        sendStart(route, waitingClient);
+    }
+
+    // [전송] GPU에게 "시작해" 메시지 (JSON) - 필요한 정보는 접속(또는 사전 준비) 시 이미 조회되어 있음
+    private void sendStart(CallRoute route, WaitingClient waitingClient) {
+        GpuWorker worker = route.getWorker();
+        // 이 워커의 모델로 이 목소리 파일에서 계산해 둔 임베딩이 있으면 받아 갈 주소를 함께 보냄 (없으면 워커가 파일에서 직접 계산)
+        // 색인만 확인하므로 매칭 스레드는 디스크를 읽지 않고, 임베딩 본문도 start 메시지에 싣지 않음
+        String modelVersion = worker.getModelVersion();
+        boolean hasEmbedding = modelVersion != null
+                && speakerEmbeddingStore.contains(waitingClient.voiceDataHash(), modelVersion);
         VoiceMessageDto startMsg = VoiceMessageDto.builder()
                 .type("start")
-                .sessionId(String.valueOf(callSessionId))
-                .voiceProfileId(voiceProfileId)
-                .userId(userId)
+                .sessionId(String.valueOf(route.getCallSessionId()))
+                .voiceProfileId(waitingClient.voiceProfileId())
+                .userId(waitingClient.userId())
+                .voiceDataHash(waitingClient.voiceDataHash())
+                .modelVersion(hasEmbedding ? modelVersion : null)
+                .speakerEmbeddingUrl(hasEmbedding
+                        ? speakerEmbeddingUrl(waitingClient.voiceProfileId(), modelVersion, waitingClient.voiceDataHash()) : null)
+                .channel(worker.isMultiplexed() ? route.getChannel() : null)
                 .build();
 
-        sendJsonToGpu(gpu, startMsg);
+        sendJsonToGpu(worker.getSession(), startMsg);
+        route.getTimeline().mark(CallStage.START_SENT);
+
+        // ready 신호가 오지 않는 GPU 때문에 고객이 무한히 기다리지 않도록 일정 시간 후 통화를 끝낸다
+        callTimer.schedule(() -> readyTimedOut(route), readyTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    // VoiceProfileController의 임베딩 다운로드 주소 (?v=해시가 붙어 있으므로 워커는 오래 캐시해도 됨)
+    private static String speakerEmbeddingUrl(Long voiceProfileId, String modelVersion, String voiceDataHash) {
+        return "/api/voice-profiles/" + voiceProfileId + "/embedding?model=" + modelVersion + "&v=" + voiceDataHash;
+    }
+
+    // 준비되지 않은 GPU로 오디오를 흘려보내지 않고 통화를 끝냄 (슬롯은 풀로 반환, 고객에게는 에러 알림 후 종료)
+    private void readyTimedOut(CallRoute route) {
+        // ready를 받은 예약은 고객이 아직 안 왔어도 건드리지 않음 (예약 만료는 expireReservation이 맡음)
+        if (route.isGpuReady() || !endRoute(route)) {
+            return; // 이미 ready를 받았거나 다른 곳에서 종료됨
+        }
+        relayMetrics.readyTimedOut();
+        log.warn("GPU {} did not signal ready within {} ms for CallID={}, ending call",
+                route.getWorker().getWorkerId(), readyTimeoutMs, route.getCallSessionId());
+
+        WebSocketSession client = route.getClient();
+        if (client == null) {
+            return; // 사전 예약 상태 - 고객이 나중에 접속하면 평소처럼 매칭
+        }
+        earlyAudioBuffers.release(client);
+        sendSystemEvent(client, route.getCallSessionId(), "error");
+        closeQuietly(client, CloseStatus.SERVER_ERROR.withReason("GPU not ready"));
     }
 
     // =========================================================
@@ -108,31 +371,160 @@ public class CallService {
 
     // 고객 -> GPU (오디오 데이터)
     public void forwardAudioToGpu(WebSocketSession clientSession, BinaryMessage message) {
-        Long callSessionId = clientSessionToCallId.get(clientSession.getId());
-        if (callSessionId != null) {
-            WebSocketSession gpu = activePairs.get(callSessionId);
-            if (gpu != null && gpu.isOpen()) {
-                try {
-                    int payloadSize = message.getPayloadLength();
-                    log.info("Audio Packet: Client -> GPU (Size: {} bytes)", payloadSize);
-
-                    gpu.sendMessage(message);
-                } catch (IOException e) {
-                    log.error("Failed to forward audio to GPU", e);
+        long receivedAt = System.nanoTime();
+        Long callId = relayShards != null ? (Long) clientSession.getAttributes().get(CALL_SESSION_ID_ATTR) : null;
+        if (callId != null) {
+            // 수신 버퍼는 핸들러가 반환되면 재사용되므로 복사해서 넘김
+            BinaryMessage owned = new BinaryMessage(copyOf(message.getPayload()));
+            relayShards.execute(callId, () -> {
+                if (clientSession.isOpen()) {
+                    relayAudioToGpu(clientSession, owned, receivedAt);
                 }
+            });
+            return;
+        }
+        relayAudioToGpu(clientSession, message, receivedAt);
+    }
+
+    private void relayAudioToGpu(WebSocketSession clientSession, BinaryMessage message, long receivedAt) {
+        CallRoute route = CallRoute.of(clientSession);
+        if (route != null && route.isAudioOpen()) {
+            sendAudioToGpu(route, message, receivedAt);
+            return;
+        }
+
+        // 매칭 전이거나 GPU가 아직 준비 중 - 버퍼에 담아 두었다가 ready 시 순서대로 전달
+        AudioRingBuffer early = earlyAudioBuffers.getOrCreate(clientSession);
+        synchronized (early) {
+            route = CallRoute.of(clientSession);
+            if (route != null && route.isAudioOpen()) {
+                // 그 사이 버퍼가 비워지고 열렸음 (이 프레임은 버퍼의 마지막 프레임 뒤에 이어짐)
+                earlyAudioBuffers.release(clientSession);
+                sendAudioToGpu(route, message, receivedAt);
+            } else {
+                early.offer(message.getPayload());
             }
         }
     }
 
-    // GPU -> 고객 (변환된 오디오)
-    public void forwardAudioToClient(WebSocketSession gpuSession, BinaryMessage message) {
-        WebSocketSession client = gpuSessionToClient.get(gpuSession.getId());
-        if (client != null && client.isOpen()) {
+    private void sendAudioToGpu(CallRoute route, BinaryMessage message, long receivedAt) {
+        ByteBuffer audio = message.getPayload();
+        ByteBuffer payload = route.framePayloadForGpu(audio);
+        if (payload == null) {
+            return; // v2 고객이 보낸 오디오가 아닌 프레임 (또는 잘못된 헤더)
+        }
+        if (!route.admitToGpu(System.nanoTime())) { // 샤드 대기열에서 기다린 시간도 밀린 것으로 봄
+            // GPU가 밀려 녹음 후 한도 이상 늦게 도착한 프레임 - 보내면 대화 지연만 늘어나므로 버림
+            relayMetrics.staleFrameDropped();
+            return;
+        }
+        if (!route.lastFrameVoiced()) {
+            relayMetrics.silentFrameSuppressed(); // 묵음 - GPU 추론 시간과 대역폭 절약
+            return;
+        }
+        // 워커가 받는 형식으로 헤더를 붙여 전송 (v1 단일 슬롯이면 원본 그대로)
+        sendToGpu(route, payload == audio ? message : new BinaryMessage(payload), receivedAt);
+    }
+
+    // 먼저 받아 둔 오디오 (GPU 준비를 기다리느라 일부러 늦춘 것이므로 지연 한도를 적용하지 않음)
+    private void sendAudioToGpu(CallRoute route, ByteBuffer audio, long receivedAt) {
+        ByteBuffer payload = route.framePayloadForGpu(audio);
+        if (payload == null) {
+            return;
+        }
+        if (!route.lastFrameVoiced()) {
+            relayMetrics.silentFrameSuppressed();
+            return;
+        }
+        sendToGpu(route, new BinaryMessage(payload), receivedAt);
+    }
+
+    private void sendToGpu(CallRoute route, BinaryMessage framed, long receivedAt) {
+        WebSocketSession gpu = route.getGpu();
+        if (gpu.isOpen()) {
             try {
-                int size = message.getPayloadLength();
-                log.info("Relay to Client: Size={} bytes (SessionID={})", size, client.getId());
+                long start = System.nanoTime();
+                gpu.sendMessage(framed);
+                long end = System.nanoTime();
+                relayMetrics.clientToGpu(route.getCallSessionId(), framed.getPayloadLength(), end - start);
+                route.getLatency().frameForwarded(route.lastGpuSequence(), receivedAt, end);
+                route.getTimeline().mark(CallStage.FIRST_AUDIO_TO_GPU);
+            } catch (IOException e) {
+                log.error("Failed to forward audio to GPU", e);
+            }
+        }
+    }
+
+    // 버퍼에 모아 둔 오디오를 순서대로 GPU에 보낸 뒤 직접 전달 모드로 전환
+    private void flushEarlyAudio(CallRoute route) {
+        WebSocketSession client = route.getClient();
+        // 버퍼가 아직 없어도 만들어서 잠금 - 고객 스레드가 방금 만든 버퍼에 넣은 프레임이 남지 않게 함
+        AudioRingBuffer early = earlyAudioBuffers.getOrCreate(client);
+        synchronized (early) {
+            int frames = early.getFrameCount();
+            long dropped = early.getDroppedFrames();
+            ByteBuffer frame;
+            while ((frame = early.poll()) != null) {
+                // 버퍼에서 기다린 시간은 GPU 준비 시간이므로 왕복 지연에는 넣지 않음 (꺼낸 시각부터 측정)
+                sendAudioToGpu(route, frame, System.nanoTime());
+            }
+            route.openAudio();
+            earlyAudioBuffers.release(client);
+            log.info("Flushed {} early audio frame(s) to GPU for CallID={} ({} dropped over the buffer limit)",
+                    frames, route.getCallSessionId(), dropped);
+        }
+    }
+
+    /**
+     * GPU -> 고객 (변환된 오디오)
+     *
+     * @param audio         헤더를 뗀 오디오 (GPU 수신 버퍼의 읽기 전용 슬라이스)
+     * @param sequence      v2 워커가 되돌려 준 sequence, v1 워커면 -1
+     * @param captureMicros v2 워커가 되돌려 준 녹음 시각, 모르면 0
+     * @param receivedAt    GPU 프레임을 받은 시각 (System.nanoTime)
+     */
+    public void forwardAudioToClient(CallRoute route, ByteBuffer audio, long sequence, long captureMicros, long receivedAt) {
+        if (relayShards != null) {
+            // 같은 통화의 고객 -> GPU 방향과 같은 샤드에서 처리 (GPU 수신 버퍼는 재사용되므로 복사)
+            ByteBuffer owned = copyOf(audio);
+            relayShards.execute(route.getCallSessionId(),
+                    () -> relayAudioToClient(route, owned, sequence, captureMicros, receivedAt, true));
+            return;
+        }
+        relayAudioToClient(route, audio, sequence, captureMicros, receivedAt, true);
+    }
+
+    /**
+     * 스트리밍 모드에서 조각으로 도착한 GPU 오디오 메시지의 두 번째 이후 조각을 고객에게 보냅니다.
+     * 첫 조각은 {@link #forwardAudioToClient}로 보내 지연을 재므로, 나머지는 지연/단계 기록 없이 보내기만 합니다.
+     * (v2 고객은 같은 sequence의 프레임을 여러 개 받음)
+     */
+    public void forwardAudioFragmentToClient(CallRoute route, ByteBuffer audio, long sequence, long captureMicros) {
+        if (relayShards != null) {
+            ByteBuffer owned = copyOf(audio);
+            relayShards.execute(route.getCallSessionId(),
+                    () -> relayAudioToClient(route, owned, sequence, captureMicros, 0, false));
+            return;
+        }
+        relayAudioToClient(route, audio, sequence, captureMicros, 0, false);
+    }
 
+    // measured가 false면 메시지의 나머지 조각 - 지연은 첫 조각에서 이미 기록함
+    private void relayAudioToClient(CallRoute route, ByteBuffer audio, long sequence, long captureMicros,
+                                    long receivedAt, boolean measured) {
+        WebSocketSession client = route.getClient();
+        if (client != null && client.isOpen()) { // 사전 예약 상태면 아직 고객 없음
+            try {
+                BinaryMessage message = new BinaryMessage(route.framePayloadForClient(audio, sequence, captureMicros));
+                long start = System.nanoTime();
                 client.sendMessage(message);
+                long end = System.nanoTime();
+                relayMetrics.gpuToClient(route.getCallSessionId(), message.getPayloadLength(), end - start);
+                if (!measured) {
+                    return;
+                }
+                route.getLatency().chunkDelivered(sequence, receivedAt, end);
+                route.getTimeline().mark(CallStage.FIRST_AUDIO_TO_CLIENT);
             } catch (IOException e) {
                 log.error("Failed to forward audio to Client", e);
             }
@@ -144,38 +536,147 @@ public class CallService {
     // =========================================================
 
     public void clientDisconnected(WebSocketSession clientSession) {
-        Long callId = clientSessionToCallId.remove(clientSession.getId());
-        if (callId != null) {
-            waitingClients.remove(callId); // 대기 중이었다면 제거
-            WebSocketSession gpu = activePairs.remove(callId);
-
-            if (gpu != null) {
-                gpuSessionToClient.remove(gpu.getId());
-                gpuSessionToCallId.remove(gpu.getId());
-                // GPU는 재사용을 위해 풀로 반환
-                availableGpuWorkers.add(gpu);
-                log.info("GPU {} returned to pool", gpu.getId());
+        cancelMatchTicket(clientSession); // 대기 중이었다면 매칭 대상에서 제외
+
+        Long callId = (Long) clientSession.getAttributes().get(CALL_SESSION_ID_ATTR);
+        if (callId == null) {
+            return;
+        }
+        waitingClients.remove(callId); // 대기 중이었다면 제거
+        callTimelineService.mark(callId, CallStage.DISCONNECTED);
+        earlyAudioBuffers.release(clientSession);
+
+        CallRoute route = CallRoute.of(clientSession);
+        if (route != null) {
+            endRoute(route);
+        }
+        // 저장 대기 중인 대화 내용은 최대 지연(transcript.write-behind.max-delay-ms)을 기다리지 않고 바로 저장 시작
+        // (웹소켓 스레드는 다른 통화의 배치까지 기다리지 않도록 요청만 하고 반환)
+        messageService.flushAsync();
+        callSessionService.endCallSession(callId);
+    }
+
+    /**
+     * 목소리 파일이 바뀌었음을 접속 중인 모든 GPU 워커에 알립니다. (VoiceProfileService에서 호출)
+     * 워커는 로컬 캐시의 그 프로필을 지우거나, 받은 해시로 미리 새로 받아 둘 수 있습니다.
+     */
+    public void broadcastVoiceProfileChanged(Long voiceProfileId, String voiceDataHash) {
+        VoiceMessageDto invalidate = VoiceMessageDto.builder()
+                .type("invalidate")
+                .voiceProfileId(voiceProfileId)
+                .voiceDataHash(voiceDataHash)
+                .build();
+        for (GpuWorker worker : connectedWorkers) {
+            if (worker.getSession().isOpen()) {
+                sendJsonToGpu(worker.getSession(), invalidate);
             }
-            // DB 종료 처리
-            callSessionService.endCallSession(callId);
         }
+        log.info("Voice profile {} changed, invalidated on {} GPU worker(s)", voiceProfileId, connectedWorkers.size());
     }
 
     public void gpuDisconnected(WebSocketSession gpuSession) {
-        availableGpuWorkers.remove(gpuSession);
+        GpuWorker worker = GpuWorker.of(gpuSession);
+        if (worker == null) {
+            return;
+        }
+        connectedWorkers.remove(worker);
+        worker.cancelIdleSlots(); // 풀에서 대기 중인 슬롯은 매칭 대상에서 제외
 
-        Long callId = gpuSessionToCallId.remove(gpuSession.getId()); // [추가됨]
-        if (callId != null) {
-            activePairs.remove(callId);
+        // 이 워커에서 진행 중이던 통화를 모두 종료
+        for (CallRoute route : worker.activeRoutes()) {
+            gpuLost(route);
         }
+    }
+
+    // API에서 강제 종료 시 사용
+    public void forceDisconnect(Long callSessionId) {
+        log.info("Force disconnecting session: {}", callSessionId);
+        callTimelineService.mark(callSessionId, CallStage.HANGUP);
+
+        // 1. 대기열(Waiting)에 있는 경우
+        Matchmaker.Ticket<WaitingClient> ticket = waitingClients.remove(callSessionId);
+        if (ticket != null && ticket.cancel()) {
+            closeQuietly(ticket.getValue().session(), CloseStatus.NORMAL.withReason("Call ended by API"));
+            return;
+        }
+
+        // 2. 활성(Active) 상태인 경우
+        CallRoute route = activeRoutes.get(callSessionId);
+        if (route != null && endRoute(route)) {
+            // 클라이언트 종료
+            closeQuietly(route.getClient(), CloseStatus.NORMAL.withReason("Call ended by API"));
+        }
+    }
 
-        WebSocketSession client = gpuSessionToClient.remove(gpuSession.getId());
+    /**
+     * 통화 경로를 정리하고 GPU 슬롯을 풀로 반환합니다.
+     *
+     * @return 이 호출이 실제로 경로를 종료했으면 true (이미 다른 곳에서 종료했다면 false)
+     */
+    private boolean endRoute(CallRoute route) {
+        if (!detach(route)) {
+            return false;
+        }
+        GpuWorker worker = route.getWorker();
+        // 다중 슬롯 워커는 같은 소켓에서 다른 통화가 계속되므로 채널 종료를 알려줌
+        if (worker.isMultiplexed() && worker.getSession().isOpen()) {
+            sendJsonToGpu(worker.getSession(), VoiceMessageDto.builder()
+                    .type("end")
+                    .sessionId(String.valueOf(route.getCallSessionId()))
+                    .channel(route.getChannel())
+                    .build());
+        }
+        // 슬롯은 재사용을 위해 풀로 반환 (대기 중인 고객이 있으면 바로 매칭)
+        log.info("GPU slot returned to pool: Worker={}, Channel={} ({} silent frame(s) not sent)",
+                worker.getWorkerId(), route.getChannel(), route.getSuppressedFrames());
+        offerSlot(new GpuSlot(worker, route.getChannel()));
+        return true;
+    }
+
+    // GPU가 끊긴 경우: 연결된 고객에게 에러 알림 후 종료
+    private void gpuLost(CallRoute route) {
+        if (detach(route)) {
+            closeQuietly(route.getClient(), CloseStatus.SERVER_ERROR.withReason("GPU Disconnected"));
+        }
+    }
+
+    // 한 번의 상태 전이(CAS)로 종료를 확정한 뒤 양쪽 세션과 인덱스에서 경로를 떼어냄
+    private boolean detach(CallRoute route) {
+        if (!route.close()) {
+            return false;
+        }
+        activeRoutes.remove(route.getCallSessionId(), route);
+        latencyTracker.close(route.getLatency());
+        WebSocketSession client = route.getClient();
         if (client != null) {
-            // 연결된 고객이 있었다면 에러 알림 후 종료
-            try {
-                client.close(CloseStatus.SERVER_ERROR.withReason("GPU Disconnected"));
-            } catch (IOException e) {/*ignore*/}
+            client.getAttributes().remove(CallRoute.ATTR, route);
         }
+        route.getWorker().detach(route);
+        return true;
+    }
+
+    private void cancelMatchTicket(WebSocketSession session) {
+        Object ticket = session.getAttributes().remove(MATCH_TICKET_ATTR);
+        if (ticket instanceof Matchmaker.Ticket<?> matchTicket) {
+            matchTicket.cancel();
+        }
+    }
+
+    private void closeQuietly(WebSocketSession session, CloseStatus status) {
+        if (session == null) {
+            return; // 고객이 아직 접속하지 않은 사전 예약 경로
+        }
+        try {
+            session.close(status);
+        } catch (IOException e) {
+            log.error("Error closing session {}", session.getId(), e);
+        }
+    }
+
+    private static ByteBuffer copyOf(ByteBuffer source) {
+        ByteBuffer copy = ByteBuffer.allocate(source.remaining());
+        copy.put(source.duplicate()).flip();
+        return copy;
     }
 
     // 유틸리티: GPU에게 JSON 전송
@@ -184,80 +685,44 @@ public class CallService {
             String json = objectMapper.writeValueAsString(msg);
             gpu.sendMessage(new TextMessage(json));
         } catch (IOException e) {
-            log.error("Error sending Start signal to GPU", e);
+            log.error("Error sending {} signal to GPU", msg.getType(), e);
         }
     }
 
-    /**
-     * GPU 세션 ID로 현재 진행 중인 CallSessionId를 조회합니다.
-     * GpuWebSocketHandler에서 텍스트 메시지 처리 시 사용됩니다.
-     */
-    public Long getCallSessionIdByGpuSession(String gpuSessionId) {
-        return gpuSessionToCallId.get(gpuSessionId);
+    public void notifyClientGpuIsReady(CallRoute route) {
+        route.markGpuReady();
+        deliverReadyIfPending(route); // 사전 준비로 고객이 아직 없다면 접속 시 전달
     }
 
-    // API에서 강제 종료 시 사용
-    public void forceDisconnect(Long callSessionId) {
-        log.info("Force disconnecting session: {}", callSessionId);
-
-        // 1. 대기열(Waiting)에 있는 경우
-        WebSocketSession waitingClient = waitingClients.remove(callSessionId);
-        if (waitingClient != null) {
-            clientSessionToCallId.remove(waitingClient.getId());
-            try {
-                waitingClient.close(CloseStatus.NORMAL.withReason("Call ended by API"));
-            } catch (IOException e) {
-                log.error("Error closing waiting client", e);
-            }
+    private void deliverReadyIfPending(CallRoute route) {
+        if (!route.claimReadyDelivery()) {
             return;
         }
+        // GPU 준비 전에 받아 둔 고객 오디오부터 보냄
+        flushEarlyAudio(route);
 
-        // 2. 활성(Active) 상태인 경우
-        WebSocketSession gpu = activePairs.remove(callSessionId);
-        if (gpu != null) {
-            // GPU 정리 및 반환
-            gpuSessionToCallId.remove(gpu.getId());
-            WebSocketSession client = gpuSessionToClient.remove(gpu.getId());
-            availableGpuWorkers.add(gpu); // GPU 재사용
-
-            // 클라이언트 종료
-            if (client != null) {
-                clientSessionToCallId.remove(client.getId());
-                try {
-                    client.close(CloseStatus.NORMAL.withReason("Call ended by API"));
-                } catch (IOException e) {
-                    log.error("Error closing active client", e);
-                }
-            }
-        }
+        sendSystemEvent(route.getClient(), route.getCallSessionId(), "ready");
     }
 
-    public void notifyClientGpuIsReady(Long callSessionId) {
-        WebSocketSession gpuSession = activePairs.get(callSessionId);
-        if (gpuSession == null) {
-            log.warn("GPU session not found for CallID: {}", callSessionId);
-            return;
-        }
-        WebSocketSession clientSession = gpuSessionToClient.get(gpuSession.getId());
-
-        if (clientSession != null && clientSession.isOpen()) {
+    // 고객에게 시스템 신호 전송 (type: system, event: ready | error)
+    private void sendSystemEvent(WebSocketSession clientSession, Long callSessionId, String event) {
+        if (clientSession.isOpen()) {
             try {
-                // 2. 심플한 JSON 생성 (type: system, event: ready)
-                // Jackson 라이브러리(ObjectMapper) 사용 가정
+                // 2. 심플한 JSON 생성
                 Map<String, String> signal = new HashMap<>();
                 signal.put("type", "system");
-                signal.put("event", "ready");
+                signal.put("event", event);
 
-                String jsonMessage = new ObjectMapper().writeValueAsString(signal);
+                String jsonMessage = objectMapper.writeValueAsString(signal);
 
                 // 3. 클라이언트에게 전송
                 clientSession.sendMessage(new TextMessage(jsonMessage));
 
-                log.info("Sent READY signal (type=system, event=ready) to client: {}", callSessionId);
+                log.info("Sent {} signal (type=system, event={}) to client: {}", event, event, callSessionId);
 
             } catch (IOException e) {
-                log.error("Failed to send ready signal", e);
+                log.error("Failed to send {} signal", event, e);
             }
         }
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.capstone.backend.service;
 
+import com.capstone.backend.dto.CallRoutingInfo;
 import com.capstone.backend.entity.CallSession;
 import com.capstone.backend.entity.User;
 import com.capstone.backend.entity.VoiceProfile;
@@ -23,6 +24,7 @@ public class CallSessionService {
     private final CallSessionRepository callSessionRepository;
     private final UserRepository userRepository;
     private final VoiceProfileRepository voiceProfileRepository;
+    private final CallRoutingCache callRoutingCache;
 
     /**
      * 새로운 통화 세션을 생성하고 DB에 저장합니다.
@@ -37,15 +39,18 @@ public class CallSessionService {
         User user = userRepository.findByPhoneNumber(userPhoneNumber)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userPhoneNumber));
 
-        // 2. [수정됨] ID로 목소리 프로필 조회
-        VoiceProfile voiceProfile = voiceProfileRepository.findById(voiceProfileId)
+        // 2. ID로 목소리 프로필의 소유자와 파일 해시만 조회 (프로필 엔티티는 읽지 않음)
+        CallRoutingInfo routing = voiceProfileRepository.findRoutingInfoById(voiceProfileId)
                 .orElseThrow(() -> new EntityNotFoundException("Voice profile not found: " + voiceProfileId));
+        Long ownerId = routing.getUserId();
 
-        log.info("🔍 [Debug] User ID: {}, VoiceProfile Owner ID: {}", user.getId(), voiceProfile.getUser().getId());
+        log.info("🔍 [Debug] User ID: {}, VoiceProfile Owner ID: {}", user.getId(), ownerId);
         // 3. [추가됨] 보안 검증: 내 목소리 프로필이 맞는지 확인 (남의 것 사용 방지)
-        if (!voiceProfile.getUser().getId().equals(user.getId())) {
+        if (!ownerId.equals(user.getId())) {
             throw new AccessDeniedException("이 목소리 프로필에 대한 접근 권한이 없습니다.");
         }
+        // 세션에는 외래 키만 필요하므로 조회 없이 참조만 사용
+        VoiceProfile voiceProfile = voiceProfileRepository.getReferenceById(voiceProfileId);
 
         // 4. 세션 생성 및 저장
         CallSession newSession = CallSession.builder()
@@ -55,6 +60,9 @@ public class CallSessionService {
 
         CallSession savedSession = callSessionRepository.save(newSession);
 
+        // 5. 매칭 시 DB 조회가 없도록 라우팅 정보를 미리 캐시
+        callRoutingCache.put(savedSession.getId(), routing);
+
         return savedSession.getId();
     }
 
@@ -65,6 +73,8 @@ public class CallSessionService {
      */
     @Transactional
     public void endCallSession(Long callSessionId) {
+        callRoutingCache.evict(callSessionId);
+
         CallSession session = callSessionRepository.findById(callSessionId)
                 .orElseThrow(() -> new EntityNotFoundException("Session not found"));
 
@@ -73,18 +83,21 @@ public class CallSessionService {
         }
     }
 
-    // [중요] CallService에서 GPU에게 VoiceID를 알려주기 위해 필요함
+    /**
+     * 통화가 이 사용자의 것인지 확인합니다. (통화별 조회 API에서 남의 통화 정보를 보지 못하게)
+     *
+     * @param userPhoneNumber JWT 토큰에서 식별된 사용자의 전화번호
+     * @return 통화가 없거나 다른 사용자의 통화면 false
+     */
     @Transactional(readOnly = true)
-    public Long getVoiceProfileId(Long callSessionId) {
-        return callSessionRepository.findById(callSessionId)
-                .map(session -> session.getVoiceProfile().getId())
-                .orElseThrow(() -> new EntityNotFoundException("Session not found"));
+    public boolean isOwnedBy(Long callSessionId, String userPhoneNumber) {
+        return callSessionRepository.existsByIdAndUser_PhoneNumber(callSessionId, userPhoneNumber);
     }
 
-    @Transactional(readOnly = true)
-    public Long getUserId(Long callSessionId) {
-        return callSessionRepository.findById(callSessionId)
-                .map(session -> session.getUser().getId()) // User 엔티티를 거쳐 ID 조회
-                .orElseThrow(() -> new EntityNotFoundException("Session not found"));
+    // [중요] CallService에서 GPU에게 VoiceID/UserID를 알려주기 위해 필요함
+    // 보통 통화 생성 시 채운 캐시에서 바로 반환하고, 없을 때만(서버 재시작 등) 쿼리 한 번으로 조회
+    public CallRoutingInfo getRoutingInfo(Long callSessionId) {
+        return callRoutingCache.get(callSessionId, id -> callSessionRepository.findRoutingInfoById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Session not found")));
     }
 }
@@ -0,0 +1,81 @@
+package com.capstone.backend.service;
+
+import com.capstone.backend.entity.CallStage;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 통화 한 건의 단계별 시각을 단조 시계(System.nanoTime)로 기록합니다.
+ * <p>
+ * 단계마다 처음 한 번만 기록되므로 "첫 오디오"처럼 프레임마다 호출되는 곳에서도
+ * 이미 기록된 뒤에는 배열 원소 하나를 읽고 끝납니다. 종료 단계가 기록되면 이후 기록은 모두 무시합니다.
+ */
+public class CallTimeline {
+
+    private static final long NOT_RECORDED = -1;
+
+    @Getter
+    private final Long callSessionId;
+    private final CallTimelineService owner;
+    private final long baseNanos;
+    private final LocalDateTime baseTime;
+    private final AtomicLongArray elapsed = new AtomicLongArray(CallStage.values().length);
+    private final AtomicBoolean ended = new AtomicBoolean();
+
+    CallTimeline(Long callSessionId, CallTimelineService owner) {
+        this.callSessionId = callSessionId;
+        this.owner = owner;
+        this.baseNanos = System.nanoTime();
+        this.baseTime = LocalDateTime.now();
+        for (int i = 0; i < elapsed.length(); i++) {
+            elapsed.set(i, NOT_RECORDED);
+        }
+    }
+
+    public void mark(CallStage stage) {
+        int index = stage.ordinal();
+        if (elapsed.get(index) != NOT_RECORDED || ended.get()) {
+            return;
+        }
+        if (stage.isTerminal() && !ended.compareAndSet(false, true)) {
+            return; // 종료 API와 연결 종료가 겹치면 먼저 일어난 쪽만
+        }
+        long nanos = System.nanoTime() - baseNanos;
+        if (elapsed.compareAndSet(index, NOT_RECORDED, nanos)) {
+            owner.recorded(this, stage, nanos);
+        }
+    }
+
+    public boolean isRecorded(CallStage stage) {
+        return elapsed.get(stage.ordinal()) != NOT_RECORDED;
+    }
+
+    // 통화 생성(또는 타임라인 시작)부터의 경과 시간, 기록되지 않았으면 -1
+    public long elapsedNanos(CallStage stage) {
+        return elapsed.get(stage.ordinal());
+    }
+
+    /**
+     * @return 기준 단계(CallStage.from)부터 이 단계까지 걸린 시간, 둘 중 하나가 없거나 순서가 뒤바뀌었으면 -1
+     *         (예: 사전 준비로 고객 접속 전에 매칭된 경우)
+     */
+    public long durationNanos(CallStage stage) {
+        CallStage from = stage.getFrom();
+        if (from == null || !isRecorded(stage) || !isRecorded(from)) {
+            return NOT_RECORDED;
+        }
+        long duration = elapsedNanos(stage) - elapsedNanos(from);
+        return duration >= 0 ? duration : NOT_RECORDED;
+    }
+
+    public LocalDateTime occurredAt(long elapsedNanos) {
+        return baseTime.plusNanos(elapsedNanos);
+    }
+
+    public boolean isEnded() {
+        return ended.get();
+    }
+}
@@ -0,0 +1,222 @@
+package com.capstone.backend.service;
+
+import com.capstone.backend.dto.CallTimelineDto;
+import com.capstone.backend.dto.LatencyReportDto;
+import com.capstone.backend.entity.CallEvent;
+import com.capstone.backend.entity.CallStage;
+import com.capstone.backend.metrics.LatencyHistogram;
+import com.capstone.backend.repository.CallEventRepository;
+import com.capstone.backend.util.WriteBehindBuffer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 통화 단계별 시각(타임라인)을 관리합니다.
+ * <ul>
+ *     <li>진행 중인 통화의 타임라인은 메모리에 두고, 단계가 기록될 때마다 call_event 행을 배치 저장 대기열에 넣음</li>
+ *     <li>call.stage{stage} - 기준 단계부터 걸린 시간 분포 (/actuator/prometheus)</li>
+ *     <li>통화별 조회는 진행 중이거나 방금 끝났으면 메모리, 그보다 오래된 통화는 DB에서 읽음</li>
+ * </ul>
+ * 끝난 통화의 타임라인은 저장 대기열이 비워질 때까지 충분한 시간(recently-ended-seconds) 동안 메모리에 남겨 두므로
+ * 조회 요청 스레드가 대기열을 직접 비우며 DB 쓰기를 기다리지 않습니다.
+ * 종료 단계가 기록되지 않은 통화(서버 재시작 등)도 캐시 크기와 만료 시간 때문에 메모리에 계속 남지 않습니다.
+ */
+@Slf4j
+@Service
+public class CallTimelineService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO call_event (call_session_id, stage, occurred_at, elapsed_ms) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CallEventRepository callEventRepository;
+    private final Cache<Long, CallTimeline> timelines;
+    private final Cache<Long, CallTimeline> recentlyEnded; // 종료 단계가 기록된 타임라인 (call_event 저장을 기다리는 동안 조회용)
+    private final WriteBehindBuffer<PendingEvent> buffer;
+
+    // 단계별 구간 시간 (API 응답용 - Prometheus 쪽은 Timer 사용)
+    private final Map<CallStage, LatencyHistogram> histograms = new LinkedHashMap<>();
+    private final Map<CallStage, Timer> timers = new LinkedHashMap<>();
+
+    public CallTimelineService(JdbcTemplate jdbcTemplate,
+                               CallEventRepository callEventRepository,
+                               MeterRegistry registry,
+                               @Value("${call.timeline.max-size:10000}") long maxSize,
+                               @Value("${call.timeline.ttl-minutes:120}") long ttlMinutes,
+                               @Value("${call.timeline.recently-ended-seconds:60}") long recentlyEndedSeconds,
+                               @Value("${call.timeline.write-behind.queue-capacity:10000}") int queueCapacity,
+                               @Value("${call.timeline.write-behind.batch-size:200}") int batchSize,
+                               @Value("${call.timeline.write-behind.max-delay-ms:1000}") long maxDelayMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.callEventRepository = callEventRepository;
+        this.timelines = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(Duration.ofMinutes(ttlMinutes))
+                .build();
+        this.recentlyEnded = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(recentlyEndedSeconds))
+                .build();
+        this.buffer = new WriteBehindBuffer<>("call-event", queueCapacity, batchSize, maxDelayMs, this::insertBatch);
+
+        for (CallStage stage : CallStage.values()) {
+            if (stage.getFrom() == null) {
+                continue;
+            }
+            histograms.put(stage, new LatencyHistogram());
+            timers.put(stage, Timer.builder("call.stage")
+                    .description("Time from the preceding call stage to this one")
+                    .tag("stage", stage.name().toLowerCase())
+                    .tag("from", stage.getFrom().name().toLowerCase())
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofMinutes(30))
+                    .register(registry));
+        }
+    }
+
+    // 통화 생성 시 호출 (CallController.startCall)
+    public void start(Long callSessionId) {
+        timeline(callSessionId).mark(CallStage.CREATED);
+    }
+
+    /**
+     * 통화의 타임라인을 반환합니다. 생성 API를 거치지 않은 통화(서버 재시작 등)면 지금부터 새로 시작합니다.
+     * 이미 끝난 통화에 다시 만들지 않으려면 {@link #mark}를 사용합니다.
+     */
+    public CallTimeline timeline(Long callSessionId) {
+        return timelines.get(callSessionId, id -> new CallTimeline(id, this));
+    }
+
+    // 진행 중인 통화에만 단계를 기록 (이미 끝났거나 모르는 통화면 무시)
+    public void mark(Long callSessionId, CallStage stage) {
+        CallTimeline timeline = timelines.getIfPresent(callSessionId);
+        if (timeline != null) {
+            timeline.mark(stage);
+        }
+    }
+
+    // CallTimeline이 새 단계를 기록했을 때 호출
+    void recorded(CallTimeline timeline, CallStage stage, long elapsedNanos) {
+        buffer.offer(new PendingEvent(timeline.getCallSessionId(), stage,
+                timeline.occurredAt(elapsedNanos), TimeUnit.NANOSECONDS.toMillis(elapsedNanos)));
+
+        long duration = timeline.durationNanos(stage);
+        if (duration >= 0) {
+            histograms.get(stage).recordNanos(duration);
+            timers.get(stage).record(duration, TimeUnit.NANOSECONDS);
+        }
+        if (stage.isTerminal()) {
+            recentlyEnded.put(timeline.getCallSessionId(), timeline);
+            timelines.asMap().remove(timeline.getCallSessionId(), timeline);
+        }
+    }
+
+    /**
+     * @return 통화의 단계별 시각, 기록이 없으면 null
+     */
+    public CallTimelineDto report(Long callSessionId) {
+        CallTimeline timeline = timelines.getIfPresent(callSessionId);
+        if (timeline == null) {
+            timeline = recentlyEnded.getIfPresent(callSessionId); // 마지막 단계가 아직 저장 대기 중일 수 있음
+        }
+        if (timeline != null) {
+            return fromMemory(timeline);
+        }
+        List<CallEvent> events = callEventRepository.findAllByCallSession_IdOrderByElapsedMsAsc(callSessionId);
+        if (events.isEmpty()) {
+            return null;
+        }
+        return fromEvents(callSessionId, events);
+    }
+
+    // 서버 시작 이후 전체 통화의 단계별 구간 시간 (p50/p95/p99, ms)
+    public Map<String, LatencyReportDto.Percentiles> aggregate() {
+        Map<String, LatencyReportDto.Percentiles> result = new LinkedHashMap<>();
+        histograms.forEach((stage, histogram) -> result.put(stage.name(), new LatencyReportDto.Percentiles(
+                histogram.percentileMicros(0.50) / 1000.0,
+                histogram.percentileMicros(0.95) / 1000.0,
+                histogram.percentileMicros(0.99) / 1000.0)));
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        buffer.close();
+    }
+
+    private CallTimelineDto fromMemory(CallTimeline timeline) {
+        List<CallTimelineDto.Event> events = new ArrayList<>();
+        Map<String, Long> durations = new LinkedHashMap<>();
+        for (CallStage stage : CallStage.values()) {
+            long elapsed = timeline.elapsedNanos(stage);
+            if (elapsed < 0) {
+                continue;
+            }
+            events.add(new CallTimelineDto.Event(stage.name(), timeline.occurredAt(elapsed),
+                    TimeUnit.NANOSECONDS.toMillis(elapsed)));
+            long duration = timeline.durationNanos(stage);
+            if (duration >= 0) {
+                durations.put(stage.name(), TimeUnit.NANOSECONDS.toMillis(duration));
+            }
+        }
+        events.sort((a, b) -> Long.compare(a.getElapsedMs(), b.getElapsedMs()));
+        return new CallTimelineDto(timeline.getCallSessionId(), !timeline.isEnded(), events, durations);
+    }
+
+    private static CallTimelineDto fromEvents(Long callSessionId, List<CallEvent> stored) {
+        Map<CallStage, Long> elapsed = new LinkedHashMap<>();
+        List<CallTimelineDto.Event> events = new ArrayList<>();
+        for (CallEvent event : stored) {
+            elapsed.putIfAbsent(event.getStage(), event.getElapsedMs());
+            events.add(new CallTimelineDto.Event(event.getStage().name(), event.getOccurredAt(), event.getElapsedMs()));
+        }
+        Map<String, Long> durations = new LinkedHashMap<>();
+        elapsed.forEach((stage, at) -> {
+            Long from = stage.getFrom() != null ? elapsed.get(stage.getFrom()) : null;
+            if (from != null && at >= from) {
+                durations.put(stage.name(), at - from);
+            }
+        });
+        return new CallTimelineDto(callSessionId, false, events, durations);
+    }
+
+    private void insertBatch(List<PendingEvent> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), CallTimelineService::bind);
+        } catch (DataAccessException e) {
+            // 지표용 기록이므로 한 건씩 다시 시도하지 않고 버림 (대화 내용과 달리 유실되어도 통화에는 영향 없음)
+            log.warn("Failed to save {} call event(s): {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private static void bind(PreparedStatement ps, PendingEvent event) throws SQLException {
+        ps.setLong(1, event.callSessionId());
+        ps.setString(2, event.stage().name());
+        ps.setTimestamp(3, Timestamp.valueOf(event.occurredAt()));
+        ps.setLong(4, event.elapsedMs());
+    }
+
+    // 저장 대기 중인 단계 기록 (call_event 테이블 한 행)
+    private record PendingEvent(Long callSessionId, CallStage stage, LocalDateTime occurredAt, long elapsedMs) {
+    }
+}
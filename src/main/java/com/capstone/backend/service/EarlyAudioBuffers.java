@@ -0,0 +1,34 @@
+package com.capstone.backend.service;
+
+import com.capstone.backend.util.AudioRingBuffer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+/**
+ * GPU가 준비되기 전(매칭 대기, 모델 로딩 중)에 고객이 보낸 오디오를 담아 둘 통화별 버퍼를 관리합니다.
+ * 버퍼는 처음 필요할 때 고객 세션 attributes에 만들고, GPU로 흘려보내거나 통화가 끝나면 뗍니다.
+ * 버퍼 객체는 해당 고객 오디오의 순서를 지키는 잠금으로도 쓰입니다. (direct 메모리는 첫 프레임 때 할당)
+ */
+@Component
+public class EarlyAudioBuffers {
+
+    private static final String ATTR = "earlyAudio";
+
+    private final int capacityBytes;
+
+    public EarlyAudioBuffers(@Value("${relay.early-audio.max-buffered-ms:5000}") long maxBufferedMs,
+                             @Value("${relay.audio.bytes-per-second:32000}") long bytesPerSecond) {
+        // 최대 보관 시간만큼의 오디오 (프레임 헤더 여유분 포함)
+        this.capacityBytes = (int) Math.max(maxBufferedMs * bytesPerSecond / 1000 * 11 / 10, 4096);
+    }
+
+    public AudioRingBuffer getOrCreate(WebSocketSession clientSession) {
+        return (AudioRingBuffer) clientSession.getAttributes()
+                .computeIfAbsent(ATTR, key -> new AudioRingBuffer(capacityBytes));
+    }
+
+    public void release(WebSocketSession clientSession) {
+        clientSession.getAttributes().remove(ATTR);
+    }
+}
@@ -0,0 +1,87 @@
+package com.capstone.backend.service;
+
+/**
+ * 고객 오디오가 GPU로 넘어가기 전에 얼마나 밀려 있는지(대기 중인 오디오 길이)를 추적하고,
+ * 한도를 넘은 프레임은 GPU로 보내지 않고 버립니다. (통화당 하나, 고객 수신 스레드 전용)
+ * <p>
+ * GPU가 느리면 GPU 세션 전송이 막히고 그동안 고객 프레임은 앞단(TCP)에 쌓였다가 한꺼번에 도착합니다.
+ * 이렇게 늦게 도착한 프레임을 모두 보내면 대화 지연이 계속 늘어나므로, 각 프레임이 녹음된 뒤
+ * 얼마나 늦게 도착했는지를 보고 한도를 넘은 프레임(= 밀린 것 중 가장 오래된 프레임)부터 버립니다.
+ * <ul>
+ *     <li>프레임의 녹음 위치: v2 고객은 헤더의 녹음 시각, v1 고객은 지금까지 받은 오디오 길이 (끊김 없이 보낸다고 가정)</li>
+ *     <li>지연 = (도착 시각 - 녹음 위치) - 기준값. 기준값은 지금까지 가장 작았던 값이라 서로 다른 시계의 차이는 상쇄됨</li>
+ *     <li>고객 녹음 속도가 서버 시계보다 조금 느려도 지연이 쌓이지 않도록 기준값은 오디오 길이의 0.2%까지 따라 올라감</li>
+ *     <li>v1 고객이 한동안 보내지 않다가(음소거 등) 다시 보내면 밀린 것이 아니므로 녹음 위치를 도착 시각에 다시 맞춤
+ *         (전송 한 번이 이보다 오래 막힌 경우와는 구분할 수 없음)</li>
+ * </ul>
+ * GPU가 소켓은 바로 읽고 내부에서만 밀리는 경우는 여기서 보이지 않습니다. (그 지연은 CallLatency의 gpu 구간에 나타남)
+ */
+public class GpuLagGovernor {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long DRIFT_ALLOWANCE_DIVISOR = 500; // 오디오 길이의 1/500 = 0.2%
+    private static final long MIN_PAUSE_NANOS = 200_000_000L;
+
+    private final long maxLagNanos;
+    private final long bytesPerSecond;
+    private final long pauseNanos; // v1 고객이 이보다 오래 보내지 않았으면 쉬었다고 봄
+
+    private boolean started;
+    private long receivedAudioNanos; // v1: 지금까지 받은 오디오 길이 (버린 프레임 포함)
+    private long baselineNanos;
+    private long lastArrivalNanos;
+    private long lastLagNanos;
+    private volatile long droppedFrames;
+
+    /**
+     * @param maxLagMs       이보다 늦게 도착한 프레임은 버림 (0 이하면 버리지 않고 지연만 추적)
+     * @param bytesPerSecond 고객 오디오의 초당 바이트 (PCM16 16kHz mono = 32000)
+     */
+    public GpuLagGovernor(long maxLagMs, long bytesPerSecond) {
+        this.maxLagNanos = maxLagMs * 1_000_000L;
+        this.bytesPerSecond = Math.max(bytesPerSecond, 1);
+        this.pauseNanos = Math.max(maxLagNanos, MIN_PAUSE_NANOS);
+    }
+
+    /**
+     * 프레임을 GPU로 보낼지 결정합니다.
+     *
+     * @param audioBytes    헤더를 뺀 오디오 길이
+     * @param captureMicros v2 고객이 보낸 녹음 시각 (epoch us), 없으면 0
+     * @param nowNanos      프레임을 받은 시각 (System.nanoTime)
+     * @return 보내면 true, 너무 늦어 버려야 하면 false
+     */
+    public boolean admit(int audioBytes, long captureMicros, long nowNanos) {
+        long durationNanos = audioBytes * NANOS_PER_SECOND / bytesPerSecond;
+        if (captureMicros <= 0 && started && nowNanos - lastArrivalNanos > pauseNanos) {
+            receivedAudioNanos = nowNanos - baselineNanos;
+        }
+        lastArrivalNanos = nowNanos;
+        long positionNanos = captureMicros > 0 ? captureMicros * 1000 : receivedAudioNanos;
+        receivedAudioNanos += durationNanos;
+
+        long offsetNanos = nowNanos - positionNanos;
+        if (!started) {
+            started = true;
+            baselineNanos = offsetNanos;
+        } else {
+            baselineNanos = Math.min(offsetNanos, baselineNanos + durationNanos / DRIFT_ALLOWANCE_DIVISOR);
+        }
+
+        lastLagNanos = offsetNanos - baselineNanos;
+        if (maxLagNanos > 0 && lastLagNanos > maxLagNanos) {
+            droppedFrames++;
+            return false;
+        }
+        return true;
+    }
+
+    // 마지막 프레임이 녹음 후 밀려 있던 시간 (기준값 대비)
+    public long getLastLagNanos() {
+        return lastLagNanos;
+    }
+
+    public long getDroppedFrames() {
+        return droppedFrames;
+    }
+}
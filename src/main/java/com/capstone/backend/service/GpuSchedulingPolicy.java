@@ -0,0 +1,33 @@
+package com.capstone.backend.service;
+
+import java.util.Locale;
+
+// 고객이 도착했을 때 유휴 GPU 슬롯 중 어느 것을 배정할지 정하는 정책 (gpu.scheduling.policy)
+public enum GpuSchedulingPolicy {
+    FIFO,         // 먼저 풀에 들어온 슬롯부터
+    LEAST_LOADED, // 사용 중인 슬롯 비율이 가장 낮은 워커부터
+    AFFINITY;     // 같은 목소리를 최근에 처리한 워커 우선, 없으면 LEAST_LOADED
+
+    Matchmaker.Pool<WaitingClient, GpuSlot> newPool() {
+        return switch (this) {
+            case FIFO -> new Matchmaker.FifoPool<>();
+            case LEAST_LOADED -> new LeastLoadedSlotPool();
+            case AFFINITY -> new AffinitySlotPool();
+        };
+    }
+
+    /**
+     * "least-loaded", "AFFINITY" 등 설정 값을 정책으로 변환합니다.
+     * 알 수 없는 값이면 기본 정책을 반환합니다.
+     */
+    public static GpuSchedulingPolicy from(String value, GpuSchedulingPolicy defaultPolicy) {
+        if (value == null || value.isBlank()) {
+            return defaultPolicy;
+        }
+        try {
+            return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return defaultPolicy;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.capstone.backend.service;
+
+// GPU 워커의 통화 슬롯 하나 (매칭 풀의 단위)
+public record GpuSlot(GpuWorker worker, int channel) {
+}
@@ -0,0 +1,210 @@
+package com.capstone.backend.service;
+
+import com.capstone.backend.codec.AudioFormat;
+import com.capstone.backend.protocol.FrameHeader;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * /ws-gpu 연결 하나 = GPU 워커 하나입니다.
+ * 워커는 접속 시 동시에 처리할 수 있는 통화 수(slots)를 밝히고,
+ * 각 통화는 채널 번호(0 ~ slots-1)로 구분되어 하나의 소켓을 공유합니다.
+ */
+@Getter
+public class GpuWorker {
+
+    public static final String ATTR = "gpuWorker";
+
+    private final String workerId;
+    private final WebSocketSession session;
+    private final int slots;
+    private final int protocol; // 접속 시 합의한 프로토콜 버전 (FrameHeader.V1 / V2)
+    private final AudioFormat audioFormat; // 워커가 주고받는 오디오 형식 (?codec=&rate=)
+    private final String modelVersion; // 워커가 쓰는 모델 버전 (?model=, 없으면 null) - start 메시지에 실을 화자 임베딩을 고를 때 사용
+
+    // v2 프레임 헤더를 읽는 flyweight (이 워커의 수신 스레드에서만 사용)
+    @Getter(AccessLevel.NONE)
+    private final FrameHeader inboundHeader = new FrameHeader();
+
+    // 스트리밍 모드에서 조각으로 중계 중인 오디오 메시지 (이 워커의 수신 스레드에서만 사용)
+    @Getter(AccessLevel.NONE)
+    private boolean audioStreaming;
+    @Getter(AccessLevel.NONE)
+    private CallRoute streamRoute; // null이면 나머지 조각을 버림
+    @Getter(AccessLevel.NONE)
+    private long streamSequence;
+    @Getter(AccessLevel.NONE)
+    private long streamCaptureMicros;
+    @Getter(AccessLevel.NONE)
+    private final byte[] streamCarry = new byte[2]; // 조각 끝에서 잘린 샘플의 앞부분
+    @Getter(AccessLevel.NONE)
+    private int streamCarried;
+    @Getter(AccessLevel.NONE)
+    private ByteBuffer streamScratch;
+
+    // 채널 번호 -> 진행 중인 통화 (GPU -> 고객 중계 시 배열 인덱스로 바로 찾음)
+    @Getter(AccessLevel.NONE)
+    private final AtomicReferenceArray<CallRoute> routes;
+    // 채널 번호 -> 매칭 풀에서 대기 중인 티켓 (연결 종료 시 취소용)
+    @Getter(AccessLevel.NONE)
+    private final AtomicReferenceArray<Matchmaker.Ticket<GpuSlot>> idleTickets;
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger activeCalls = new AtomicInteger();
+
+    public GpuWorker(String workerId, WebSocketSession session, int slots, int protocol, AudioFormat audioFormat,
+                     String modelVersion) {
+        this.workerId = workerId;
+        this.session = session;
+        this.slots = slots;
+        this.protocol = protocol;
+        this.audioFormat = audioFormat;
+        this.modelVersion = modelVersion;
+        this.routes = new AtomicReferenceArray<>(slots);
+        this.idleTickets = new AtomicReferenceArray<>(slots);
+    }
+
+    public static GpuWorker of(WebSocketSession session) {
+        return (GpuWorker) session.getAttributes().get(ATTR);
+    }
+
+    // 슬롯이 2개 이상이면 프레임에 채널 번호를 붙여 여러 통화를 한 소켓으로 주고받는다
+    public boolean isMultiplexed() {
+        return slots > 1;
+    }
+
+    // 수신 스레드 전용 헤더 flyweight (v2 워커)
+    public FrameHeader inboundHeader() {
+        return inboundHeader;
+    }
+
+    // 오디오 메시지의 첫 조각을 받음 - 나머지 조각은 헤더 없이 이어서 들어옴
+    public void beginAudioStream() {
+        audioStreaming = true;
+        streamRoute = null;
+        streamCarried = 0;
+    }
+
+    /**
+     * 스트리밍 중인 오디오 조각을 샘플 경계에 맞춥니다. (조각은 헤더 길이나 버퍼 크기에 따라 샘플 중간에서 잘릴 수 있음)
+     * 앞 조각에서 남은 바이트를 앞에 붙이고, 이번 조각 끝의 잘린 샘플은 다음 조각으로 넘깁니다.
+     * 이미 맞으면 그대로, 아니면 재사용 버퍼에 복사해 돌려주므로 다음 조각을 받기 전까지만 유효합니다.
+     */
+    public ByteBuffer alignStreamChunk(ByteBuffer audio) {
+        int unit = audioFormat.encoding().getBytesPerSample();
+        if (unit <= 1 || (streamCarried == 0 && audio.remaining() % unit == 0)) {
+            return audio;
+        }
+        int total = streamCarried + audio.remaining();
+        int aligned = total - total % unit; // 0이 아니면 streamCarried(< unit) 이상
+        int fromAudio = Math.max(aligned - streamCarried, 0);
+        if (streamScratch == null || streamScratch.capacity() < aligned) {
+            streamScratch = ByteBuffer.allocate(aligned);
+        }
+        ByteBuffer chunk = streamScratch.clear();
+        if (aligned > 0) {
+            chunk.put(streamCarry, 0, streamCarried);
+            streamCarried = 0;
+            chunk.put(audio.duplicate().limit(audio.position() + fromAudio));
+        }
+        // 끝의 잘린 샘플은 다음 조각 앞에 붙임
+        int leftover = audio.remaining() - fromAudio;
+        audio.get(audio.position() + fromAudio, streamCarry, streamCarried, leftover);
+        streamCarried += leftover;
+        return chunk.flip();
+    }
+
+    // 첫 조각의 헤더로 찾은 통화와 헤더 값 (나머지 조각도 같은 값으로 보냄)
+    public void streamTo(CallRoute route, long sequence, long captureMicros) {
+        streamRoute = route;
+        streamSequence = sequence;
+        streamCaptureMicros = captureMicros;
+    }
+
+    public void endAudioStream() {
+        audioStreaming = false;
+        streamRoute = null;
+    }
+
+    public boolean isAudioStreaming() {
+        return audioStreaming;
+    }
+
+    public CallRoute streamRoute() {
+        return streamRoute;
+    }
+
+    public long streamSequence() {
+        return streamSequence;
+    }
+
+    public long streamCaptureMicros() {
+        return streamCaptureMicros;
+    }
+
+    public CallRoute routeAt(int channel) {
+        return (channel >= 0 && channel < slots) ? routes.get(channel) : null;
+    }
+
+    public int getActiveCalls() {
+        return activeCalls.get();
+    }
+
+    public int getFreeSlots() {
+        return slots - activeCalls.get();
+    }
+
+    // 진행 중인 모든 통화 (워커 연결 종료 시 정리용)
+    public List<CallRoute> activeRoutes() {
+        List<CallRoute> result = new ArrayList<>();
+        for (int channel = 0; channel < slots; channel++) {
+            CallRoute route = routes.get(channel);
+            if (route != null) {
+                result.add(route);
+            }
+        }
+        return result;
+    }
+
+    // 이 워커가 지금 해당 목소리 파일로 통화(또는 예약)를 맡고 있는지 (워커가 올리는 임베딩 확인용)
+    public boolean isServing(long voiceProfileId, String voiceDataHash) {
+        for (CallRoute route : activeRoutes()) {
+            if (route.getVoiceProfileId() != null && route.getVoiceProfileId() == voiceProfileId
+                    && voiceDataHash.equals(route.getVoiceDataHash())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void attach(CallRoute route) {
+        idleTickets.set(route.getChannel(), null);
+        routes.set(route.getChannel(), route);
+        activeCalls.incrementAndGet();
+    }
+
+    void detach(CallRoute route) {
+        if (routes.compareAndSet(route.getChannel(), route, null)) {
+            activeCalls.decrementAndGet();
+        }
+    }
+
+    void parkSlot(int channel, Matchmaker.Ticket<GpuSlot> ticket) {
+        idleTickets.set(channel, ticket);
+    }
+
+    void cancelIdleSlots() {
+        for (int channel = 0; channel < slots; channel++) {
+            Matchmaker.Ticket<GpuSlot> ticket = idleTickets.getAndSet(channel, null);
+            if (ticket != null) {
+                ticket.cancel();
+            }
+        }
+    }
+}
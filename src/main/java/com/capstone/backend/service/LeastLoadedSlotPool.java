@@ -0,0 +1,53 @@
+package com.capstone.backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 부하(사용 중인 슬롯 비율)가 가장 낮은 워커의 슬롯을 먼저 배정하는 풀입니다.
+ * 부하가 같으면 먼저 풀에 들어온 슬롯을 배정합니다.
+ * <p>
+ * 유휴 슬롯 수는 많아야 워커 수 × 슬롯 수이므로 락을 잡고 전체를 훑어도 충분히 짧습니다.
+ */
+class LeastLoadedSlotPool implements Matchmaker.Pool<WaitingClient, GpuSlot> {
+
+    // 풀에 들어온 순서대로 보관
+    protected final List<Matchmaker.Ticket<GpuSlot>> idle = new ArrayList<>();
+
+    @Override
+    public synchronized void add(Matchmaker.Ticket<GpuSlot> ticket) {
+        idle.add(ticket);
+    }
+
+    @Override
+    public synchronized Matchmaker.Ticket<GpuSlot> poll(WaitingClient client) {
+        int index = selectIndex(client);
+        return index < 0 ? null : idle.remove(index);
+    }
+
+    /**
+     * 꺼낼 티켓의 위치를 고릅니다. 취소된 티켓이 보이면 그것부터 반환해 풀에서 치웁니다.
+     */
+    protected int selectIndex(WaitingClient client) {
+        return leastLoadedIndex();
+    }
+
+    protected final int leastLoadedIndex() {
+        int best = -1;
+        for (int i = 0; i < idle.size(); i++) {
+            Matchmaker.Ticket<GpuSlot> ticket = idle.get(i);
+            if (!ticket.isWaiting()) {
+                return i;
+            }
+            if (best < 0 || lessLoaded(ticket.getValue().worker(), idle.get(best).getValue().worker())) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    // a.active / a.slots < b.active / b.slots (나눗셈 없이 비교)
+    private static boolean lessLoaded(GpuWorker a, GpuWorker b) {
+        return (long) a.getActiveCalls() * b.getSlots() < (long) b.getActiveCalls() * a.getSlots();
+    }
+}
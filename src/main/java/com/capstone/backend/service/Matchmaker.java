@@ -0,0 +1,219 @@
+package com.capstone.backend.service;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 고객(C)과 GPU(G)를 1:1로 짝지어 주는 lock-free 매칭 큐입니다.
+ * <p>
+ * 하나의 원자 카운터(balance)가 "대기 중인 고객 수 - 대기 중인 GPU 수"를 나타냅니다.
+ * 도착한 쪽은 카운터를 먼저 움직여 상대가 기다리고 있는지 판단하므로,
+ * 고객과 GPU가 동시에 도착해도 둘 다 대기열에 남는 일이 없습니다.
+ * <ul>
+ *     <li>고객 대기열은 FIFO(ConcurrentLinkedQueue) - 삽입/추출 모두 O(1)</li>
+ *     <li>GPU 풀은 {@link Pool}로 교체 가능 - 고객이 도착했을 때 어떤 GPU를 줄지 정책으로 고름 (기본 FIFO)</li>
+ *     <li>티켓은 CAS로 한 번만 매칭(claim) 또는 취소(cancel)될 수 있음 - exactly-once</li>
+ *     <li>취소된 티켓은 대기열에 남아 있다가, 꺼낸 쪽이 카운터를 다시 움직여 재시도 (lazy 삭제)</li>
+ * </ul>
+ */
+public class Matchmaker<C, G> {
+
+    // > 0: 대기 중인 고객 티켓 수, < 0: 대기 중인 GPU 티켓 수 (취소되었지만 아직 꺼내지지 않은 티켓 포함)
+    private final AtomicLong balance = new AtomicLong();
+    private final Queue<Ticket<C>> clients = new ConcurrentLinkedQueue<>();
+    private final Pool<C, G> gpus;
+
+    public Matchmaker() {
+        this(new FifoPool<>());
+    }
+
+    public Matchmaker(Pool<C, G> gpuPool) {
+        this.gpus = gpuPool;
+    }
+
+    /**
+     * 고객을 제시합니다. 대기 중인 GPU가 있으면 즉시 짝을 반환하고, 없으면 대기열에 넣고 null을 반환합니다.
+     * 이미 취소된 티켓이면 아무것도 하지 않고 null을 반환합니다.
+     * 대기열에 들어간 고객은 이후 GPU가 도착했을 때 {@link #offerGpu}의 반환값으로 짝지어집니다.
+     */
+    public Match<C, G> offerClient(Ticket<C> client) {
+        while (client.isWaiting()) {
+            if (balance.getAndIncrement() >= 0) {
+                clients.add(client);
+                return null;
+            }
+            Ticket<G> gpu = takeGpu(client.getValue());
+            if (!gpu.claim()) {
+                // 취소된 GPU 티켓이었음 - 방금 올린 카운터와 상쇄되었으므로 처음부터 다시 시도
+                continue;
+            }
+            if (client.claim()) {
+                return matched(client.getValue(), gpu.getValue());
+            }
+            // 그 사이 고객 티켓이 취소됨 - 가져온 GPU는 다시 제시 (다른 고객과 매칭될 수 있음)
+            gpu.release();
+            return offerGpu(gpu);
+        }
+        return null;
+    }
+
+    /**
+     * GPU를 제시합니다. 대기 중인 고객이 있으면 가장 먼저 온 고객과의 짝을 반환하고, 없으면 풀에 넣고 null을 반환합니다.
+     */
+    public Match<C, G> offerGpu(Ticket<G> gpu) {
+        while (gpu.isWaiting()) {
+            if (balance.getAndDecrement() <= 0) {
+                gpus.add(gpu);
+                return null;
+            }
+            Ticket<C> client = takeFrom(clients);
+            if (!client.claim()) {
+                continue;
+            }
+            if (gpu.claim()) {
+                return matched(client.getValue(), gpu.getValue());
+            }
+            client.release();
+            return offerClient(client);
+        }
+        return null;
+    }
+
+    /**
+     * 유휴 GPU가 있을 때만 하나를 가져옵니다. 없으면 대기열에 넣지 않고 null을 반환합니다.
+     * (통화 사전 준비처럼 "지금 바로 쓸 수 있으면 쓰고, 아니면 평소대로" 인 경우에 사용)
+     */
+    public G pollGpu(C client) {
+        while (true) {
+            long current = balance.get();
+            if (current >= 0) {
+                return null; // 유휴 GPU 없음 (대기 중인 고객이 있으면 그 고객이 우선)
+            }
+            if (!balance.compareAndSet(current, current + 1)) {
+                continue;
+            }
+            Ticket<G> gpu = takeGpu(client);
+            if (gpu.claim()) {
+                gpus.matched(client, gpu.getValue());
+                return gpu.getValue();
+            }
+            // 취소된 티켓이었음 - 카운터는 이미 상쇄되었으므로 다시 확인
+        }
+    }
+
+    // 대기 중인 고객 수 (취소된 티켓이 포함될 수 있는 근사값)
+    public long waitingClientCount() {
+        return Math.max(balance.get(), 0);
+    }
+
+    // 풀에 있는 유휴 GPU 수 (취소된 티켓이 포함될 수 있는 근사값)
+    public long idleGpuCount() {
+        return Math.max(-balance.get(), 0);
+    }
+
+    private Match<C, G> matched(C client, G gpu) {
+        gpus.matched(client, gpu);
+        return new Match<>(client, gpu);
+    }
+
+    // 카운터가 상대의 존재를 보장하므로, 상대가 큐에 넣기 직전이라면 잠깐 기다린다
+    private static <T> Ticket<T> takeFrom(Queue<Ticket<T>> queue) {
+        Ticket<T> ticket;
+        while ((ticket = queue.poll()) == null) {
+            Thread.onSpinWait();
+        }
+        return ticket;
+    }
+
+    private Ticket<G> takeGpu(C client) {
+        Ticket<G> ticket;
+        while ((ticket = gpus.poll(client)) == null) {
+            Thread.onSpinWait();
+        }
+        return ticket;
+    }
+
+    /**
+     * 유휴 GPU 티켓을 보관하고, 고객이 도착했을 때 어떤 티켓을 내줄지 고르는 풀입니다.
+     * <p>
+     * 구현 시 지켜야 할 규칙:
+     * <ul>
+     *     <li>{@link #poll}은 호출마다 정확히 하나를 꺼내거나, 아직 보이는 티켓이 없으면 null을 반환</li>
+     *     <li>취소된 티켓도 버리지 말고 꺼내서 반환 (Matchmaker가 카운터를 보정한 뒤 다시 요청함)</li>
+     * </ul>
+     */
+    public interface Pool<C, G> {
+
+        void add(Ticket<G> ticket);
+
+        Ticket<G> poll(C client);
+
+        // 매칭이 확정되었을 때 호출 (고객 대기열 쪽에서 매칭된 경우 포함)
+        default void matched(C client, G gpu) {
+        }
+    }
+
+    // 먼저 들어온 GPU부터 배정 (lock-free)
+    public static final class FifoPool<C, G> implements Pool<C, G> {
+
+        private final Queue<Ticket<G>> queue = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public void add(Ticket<G> ticket) {
+            queue.add(ticket);
+        }
+
+        @Override
+        public Ticket<G> poll(C client) {
+            return queue.poll();
+        }
+    }
+
+    /**
+     * 매칭 대기열에 들어가는 항목입니다. 하나의 티켓은 한 번만 제시(offer)해야 합니다.
+     */
+    public static final class Ticket<T> {
+
+        private static final int WAITING = 0;
+        private static final int MATCHED = 1;
+        private static final int CANCELLED = 2;
+
+        private final T value;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        public Ticket(T value) {
+            this.value = value;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        /**
+         * 아직 매칭되지 않았다면 취소합니다.
+         *
+         * @return 취소에 성공하면 true, 이미 매칭(또는 취소)되었다면 false
+         */
+        public boolean cancel() {
+            return state.compareAndSet(WAITING, CANCELLED);
+        }
+
+        public boolean isWaiting() {
+            return state.get() == WAITING;
+        }
+
+        private boolean claim() {
+            return state.compareAndSet(WAITING, MATCHED);
+        }
+
+        // 상대 티켓이 취소되어 짝이 무산된 경우, claim한 쪽이 되돌린다 (MATCHED는 claim한 스레드만 바꿀 수 있음)
+        private void release() {
+            state.set(WAITING);
+        }
+    }
+
+    public record Match<C, G>(C client, G gpu) {
+    }
+}
@@ -1,65 +1,96 @@
 package com.capstone.backend.service;
 
-import com.capstone.backend.entity.CallSession;
-import com.capstone.backend.entity.Message;
 import com.capstone.backend.entity.Sender;
-import com.capstone.backend.repository.CallSessionRepository;
-import com.capstone.backend.repository.MessageRepository;
-import jakarta.persistence.EntityNotFoundException;
-import lombok.RequiredArgsConstructor;
+import com.capstone.backend.util.WriteBehindBuffer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
-@Transactional(readOnly = true)
 public class MessageService {
-    private final MessageRepository messageRepository;
-    private final CallSessionRepository callSessionRepository; // CallSession 프록시를 가져오기 위해 필요
+
+    private static final String INSERT_SQL =
+            "INSERT INTO message (call_session_id, sender, content, timestamp) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // 웹소켓 스레드는 큐에 넣기만 하고, 백그라운드 스레드가 여러 건을 한 번의 배치 INSERT로 저장
+    private final WriteBehindBuffer<PendingMessage> buffer;
+
+    public MessageService(JdbcTemplate jdbcTemplate,
+                          @Value("${transcript.write-behind.queue-capacity:10000}") int queueCapacity,
+                          @Value("${transcript.write-behind.batch-size:100}") int batchSize,
+                          @Value("${transcript.write-behind.max-delay-ms:500}") long maxDelayMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.buffer = new WriteBehindBuffer<>("transcript", queueCapacity, batchSize, maxDelayMs, this::insertBatch);
+    }
 
     /**
-     * GPU 핸들러로부터 받은 텍스트 메시지를 DB에 저장합니다.
+     * GPU 핸들러로부터 받은 텍스트 메시지를 저장 대기열에 넣습니다. (DB 쓰기는 백그라운드에서 수행)
      *
      * @param callSessionId 메시지가 속한 통화 ID
      * @param senderString  발화자 ("USER" 또는 "AI") - 바이너리 프로토콜에서 받은 문자열
      * @param content       메시지 내용 (텍스트)
      */
-    @Transactional // DB 쓰기 작업이므로 트랜잭션 적용
     public void saveMessage(Long callSessionId, String senderString, String content) {
-
         try {
-            // 1. (성능 최적화)
-            // CallSession 엔티티를 DB에서 SELECT 해오는 대신,
-            // getReferenceById를 사용해 ID만 가진 '프록시(껍데기)' 객체를 가져옵니다.
-            // Message 저장 시 FK(ID)만 필요하므로 DB 조회를 1번 아낄 수 있습니다.
-            CallSession callSession = callSessionRepository.getReferenceById(callSessionId);
-
-            // 2. (중요) String -> Sender Enum 변환
-            // GpuWebSocketHandler는 String("USER" or "AI")을 주지만,
-            // Message 엔티티는 Sender Enum 타입을 받으므로 변환이 필요합니다.
-            Sender sender = Sender.valueOf(senderString.toUpperCase()); // "USER" -> Sender.USER
-
-            // 3. Message 엔티티 생성 (엔티티의 @Builder 사용)
-            Message message = Message.builder()
-                    .callSession(callSession)
-                    .sender(sender)
-                    .content(content)
-                    .build(); // timestamp는 @CreationTimestamp가 자동 처리
+            // String -> Sender Enum 변환 ("USER" -> Sender.USER)
+            Sender sender = Sender.valueOf(senderString.toUpperCase());
 
-            // 4. DB에 저장
-            messageRepository.save(message);
-
-        } catch (EntityNotFoundException e) {
-            // getReferenceById는 해당 ID가 DB에 없을 때, 실제 사용하려 하면 이 예외가 발생합니다.
-            log.warn("Failed to save message: CallSession not found with ID: {}", callSessionId);
+            // 발화 시각은 큐에 넣는 시점으로 기록 (배치가 늦게 저장되어도 대화 순서/시간 유지)
+            buffer.offer(new PendingMessage(callSessionId, sender, content, LocalDateTime.now()));
         } catch (IllegalArgumentException e) {
             // Sender.valueOf()가 "USER", "AI" 외의 값을 받을 때 발생합니다.
             log.warn("Failed to save message: Invalid sender type '{}'", senderString, e);
-        } catch (Exception e) {
-            // 기타 모든 예외
-            log.error("Error saving message for session {}: {}", callSessionId, e.getMessage(), e);
         }
     }
+
+    // 대기 중인 메시지를 백그라운드 스레드가 바로 저장 (통화 종료 시 호출 - 호출 스레드는 DB를 기다리지 않음)
+    public CompletableFuture<Void> flushAsync() {
+        return buffer.flushAsync();
+    }
+
+    // 서버 종료 시 남은 메시지 저장
+    @PreDestroy
+    public void shutdown() {
+        buffer.close();
+    }
+
+    private void insertBatch(List<PendingMessage> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), MessageService::bind);
+        } catch (DataAccessException e) {
+            // 한 건(예: 존재하지 않는 통화 ID) 때문에 배치 전체가 실패했을 수 있으므로 한 건씩 다시 저장
+            log.warn("Batch insert of {} message(s) failed, retrying one by one: {}", batch.size(), e.getMessage());
+            for (PendingMessage message : batch) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, message));
+                } catch (DataAccessException ex) {
+                    log.warn("Failed to save message for session {}: {}", message.callSessionId(), ex.getMessage());
+                }
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement ps, PendingMessage message) throws SQLException {
+        ps.setLong(1, message.callSessionId());
+        ps.setString(2, message.sender().name());
+        ps.setString(3, message.content());
+        ps.setTimestamp(4, Timestamp.valueOf(message.timestamp()));
+    }
+
+    // 저장 대기 중인 메시지 (message 테이블 한 행)
+    private record PendingMessage(Long callSessionId, Sender sender, String content, LocalDateTime timestamp) {
+    }
 }
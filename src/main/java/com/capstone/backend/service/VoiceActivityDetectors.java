@@ -0,0 +1,36 @@
+package com.capstone.backend.service;
+
+import com.capstone.backend.util.VoiceActivityDetector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 통화마다 고객 오디오의 묵음 판별기를 만듭니다. (relay.vad.*)
+ * 꺼져 있으면 판별기 없이 모든 프레임을 GPU로 보냅니다.
+ */
+@Component
+public class VoiceActivityDetectors {
+
+    private final boolean enabled;
+    private final double marginDb;
+    private final double minLevelDbfs;
+    private final long hangoverMs;
+    private final long bytesPerSecond;
+
+    public VoiceActivityDetectors(@Value("${relay.vad.enabled:false}") boolean enabled,
+                                  @Value("${relay.vad.margin-db:9}") double marginDb,
+                                  @Value("${relay.vad.min-level-dbfs:-55}") double minLevelDbfs,
+                                  @Value("${relay.vad.hangover-ms:300}") long hangoverMs,
+                                  @Value("${relay.audio.bytes-per-second:32000}") long bytesPerSecond) {
+        this.enabled = enabled;
+        this.marginDb = marginDb;
+        this.minLevelDbfs = minLevelDbfs;
+        this.hangoverMs = hangoverMs;
+        this.bytesPerSecond = bytesPerSecond;
+    }
+
+    // 꺼져 있으면 null
+    public VoiceActivityDetector newDetector() {
+        return enabled ? new VoiceActivityDetector(marginDb, minLevelDbfs, hangoverMs, bytesPerSecond) : null;
+    }
+}
@@ -0,0 +1,98 @@
+package com.capstone.backend.service;
+
+import com.capstone.backend.dto.VoiceProfileResponseDto;
+import com.capstone.backend.entity.User;
+import com.capstone.backend.entity.VoiceProfile;
+import com.capstone.backend.repository.UserRepository;
+import com.capstone.backend.repository.VoiceProfileRepository;
+import com.capstone.backend.storage.BlobStore;
+import com.capstone.backend.storage.StoredBlob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * 목소리 프로필 관리 - 메타데이터는 DB(voice_profile), 오디오 원본은 {@link BlobStore}(디스크)에 저장합니다.
+ * 목록/정보 조회는 메타데이터 컬럼만 projection으로 읽고, 오디오는 다운로드할 때만 저장소에서 읽습니다.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class VoiceProfileService {
+
+    private final VoiceProfileRepository voiceProfileRepository;
+    private final UserRepository userRepository;
+    private final BlobStore blobStore;
+    private final CallRoutingCache callRoutingCache;
+    private final CallService callService; // 프로필 변경을 GPU 워커에 알림
+
+    /**
+     * 오디오를 저장소에 스트림으로 쓴 뒤(내용이 같으면 기존 파일 재사용) 해시 참조를 가진 프로필을 저장합니다.
+     * 업로드를 쓰는 동안 DB 커넥션을 잡지 않도록 트랜잭션 밖에서 실행합니다.
+     *
+     * @return 생성된 voice_profile_id
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Long createVoiceProfile(String userPhoneNumber, String profileName, InputStream voiceData) throws IOException {
+        User user = userRepository.findByPhoneNumber(userPhoneNumber)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        StoredBlob blob = blobStore.put(voiceData);
+        VoiceProfile voiceProfile = voiceProfileRepository.save(VoiceProfile.builder()
+                .user(user)
+                .profileName(profileName)
+                .voiceDataHash(blob.hash())
+                .voiceDataSize(blob.size())
+                .build());
+        return voiceProfile.getId();
+    }
+
+    /**
+     * 목소리 파일을 새 파일로 바꿉니다. (본인 프로필만)
+     * 바뀐 해시는 대기 중인 통화의 start 메시지에 쓰이도록 라우팅 캐시에 반영하고, 접속 중인 GPU 워커에 invalidate로 알립니다.
+     * 이전 파일은 지우지 않습니다. (다른 프로필이 같은 파일을 참조하거나 진행 중인 통화의 GPU가 아직 받는 중일 수 있음)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void replaceVoiceData(String userPhoneNumber, Long voiceProfileId, InputStream voiceData) throws IOException {
+        User user = userRepository.findByPhoneNumber(userPhoneNumber)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        VoiceProfile voiceProfile = voiceProfileRepository.findById(voiceProfileId)
+                .orElseThrow(() -> new RuntimeException("Profile not found"));
+        if (!voiceProfile.getUser().getId().equals(user.getId())) {
+            throw new AccessDeniedException("이 목소리 프로필에 대한 접근 권한이 없습니다.");
+        }
+
+        StoredBlob blob = blobStore.put(voiceData);
+        if (blob.hash().equals(voiceProfile.getVoiceDataHash())) {
+            return; // 같은 파일을 다시 올림
+        }
+        voiceProfile.replaceVoiceData(blob.hash(), blob.size());
+        voiceProfileRepository.save(voiceProfile);
+
+        callRoutingCache.updateVoiceDataHash(voiceProfileId, blob.hash());
+        callService.broadcastVoiceProfileChanged(voiceProfileId, blob.hash());
+    }
+
+    // 내 목소리 목록 (오디오 제외)
+    public List<VoiceProfileResponseDto> getMyVoiceProfiles(String userPhoneNumber) {
+        return voiceProfileRepository.findSummariesByUserPhoneNumber(userPhoneNumber);
+    }
+
+    // 목소리 정보 (오디오 제외)
+    public VoiceProfileResponseDto getVoiceProfileInfo(Long voiceProfileId) {
+        return voiceProfileRepository.findSummaryById(voiceProfileId)
+                .orElseThrow(() -> new RuntimeException("Profile not found"));
+    }
+
+    // 오디오 원본의 저장소 참조 (해시, 크기) - 본문은 BlobDownloadWriter가 저장소에서 바로 보냄
+    public StoredBlob getVoiceData(Long voiceProfileId) {
+        return voiceProfileRepository.findVoiceDataById(voiceProfileId)
+                .orElseThrow(() -> new RuntimeException("Profile not found"));
+    }
+}
@@ -0,0 +1,7 @@
+package com.capstone.backend.service;
+
+import org.springframework.web.socket.WebSocketSession;
+
+// GPU를 기다리는 고객 (매칭 대기열 항목). voiceProfileId는 GPU 배정 정책과 start 메시지에서, voiceDataHash는 start 메시지에서 사용
+record WaitingClient(Long callSessionId, WebSocketSession session, Long userId, Long voiceProfileId, String voiceDataHash) {
+}
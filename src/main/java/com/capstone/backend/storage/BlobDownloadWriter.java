@@ -0,0 +1,136 @@
+package com.capstone.backend.storage;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 저장소의 파일을 HTTP 응답 본문으로 보냅니다. (GPU의 목소리 다운로드)
+ * <ul>
+ *     <li>ETag = "내용 해시" (강한 검증자) - If-None-Match가 맞으면 본문 없이 304</li>
+ *     <li>Range: bytes=a-b (범위 하나) -> 206, 파일 밖이면 416, If-Range가 ETag와 다르면 전체 200
+ *     (여러 범위나 형식이 틀린 Range는 무시하고 전체를 보냄)</li>
+ *     <li>Tomcat이 sendfile을 지원하면 파일 경로와 범위만 넘기고 본문은 쓰지 않음 - 응답이 끝난 뒤 커널이 파일을 소켓으로 바로 복사
+ *     (FileChannel.transferTo, 힙/사용자 공간 버퍼를 거치지 않음)</li>
+ *     <li>sendfile을 못 쓰면 FileChannel.transferTo로 응답 스트림에, 로컬 파일이 아닌 저장소면 스트림 복사로 보냄</li>
+ * </ul>
+ * Content-Type, Content-Disposition은 호출한 쪽이 먼저 정합니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class BlobDownloadWriter {
+
+    // Tomcat이 요청 속성으로 주고받는 sendfile 약속 (NIO/NIO2 커넥터, useSendfile=true 기본값)
+    static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final BlobStore blobStore;
+
+    public void write(StoredBlob blob, String cacheControl, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        String etag = "\"" + blob.hash() + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (matchesAny(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long size = blob.size();
+        long start = 0;
+        long end = size; // [start, end)
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        HttpRange range = singleRange(request.getHeader(HttpHeaders.RANGE));
+        if (range != null && (ifRange == null || ifRange.trim().equals(etag))) {
+            try {
+                start = range.getRangeStart(size);
+                end = range.getRangeEnd(size) + 1;
+            } catch (IllegalArgumentException e) {
+                start = end = 0;
+            }
+            if (start >= end) { // 파일 밖의 범위 (빈 파일 포함)
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + size);
+        }
+        response.setContentLengthLong(end - start);
+        if ("HEAD".equals(request.getMethod()) || start == end) {
+            return;
+        }
+
+        Optional<Path> file = blobStore.localFile(blob.hash());
+        if (file.isEmpty()) {
+            try (InputStream in = blobStore.open(blob.hash())) {
+                StreamUtils.copyRange(in, response.getOutputStream(), start, end - 1);
+            }
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.get().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file.get(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position < end) {
+                long sent = channel.transferTo(position, end - position, out);
+                if (sent <= 0) {
+                    throw new IOException("Blob " + blob.hash() + " is shorter than " + size + " bytes");
+                }
+                position += sent;
+            }
+        }
+    }
+
+    // If-None-Match: "a", W/"b" 또는 * (약한 비교)
+    private static boolean matchesAny(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static HttpRange singleRange(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
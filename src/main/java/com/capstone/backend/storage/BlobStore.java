@@ -0,0 +1,38 @@
+package com.capstone.backend.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * 내용 해시(SHA-256)로 주소를 정하는 파일 저장소입니다.
+ * 같은 내용을 여러 번 올리면 한 번만 저장되고 같은 {@link StoredBlob}을 돌려받습니다.
+ * 기본 구현은 로컬 디스크({@link LocalBlobStore})이고, 나중에 S3 등으로 바꿔도 호출하는 쪽은 그대로입니다.
+ * <p>
+ * 삭제 API는 없습니다. 같은 파일을 여러 프로필이 함께 참조할 수 있어 프로필의 파일을 바꿔도 이전 파일은 남으며,
+ * 어떤 voice_profile.voice_data_hash도 가리키지 않는 파일은 운영에서 따로 정리합니다.
+ */
+public interface BlobStore {
+
+    /**
+     * 스트림을 끝까지 읽어 저장합니다. 전체를 메모리에 올리지 않고 조각 단위로 쓰면서 해시를 계산합니다.
+     * 스트림은 닫지 않습니다.
+     */
+    StoredBlob put(InputStream content) throws IOException;
+
+    /**
+     * 저장된 내용을 읽는 스트림을 엽니다. (호출한 쪽이 닫음)
+     *
+     * @throws java.nio.file.NoSuchFileException 해당 해시의 파일이 없을 때
+     */
+    InputStream open(String hash) throws IOException;
+
+    boolean exists(String hash);
+
+    /**
+     * 로컬 디스크에 있는 파일 경로 - 다운로드를 sendfile/transferTo로 보낼 때 씁니다.
+     * 로컬 파일이 아닌 저장소이거나 파일이 없으면 비어 있고, 이때는 {@link #open(String)}으로 읽습니다.
+     */
+    Optional<Path> localFile(String hash);
+}
@@ -0,0 +1,113 @@
+package com.capstone.backend.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * 로컬 디스크에 저장하는 {@link BlobStore}입니다.
+ * <ul>
+ *     <li>업로드는 64KB 조각으로 tmp/ 아래 임시 파일에 쓰면서 SHA-256을 계산 (메모리 사용량이 파일 크기와 무관)</li>
+ *     <li>다 쓰면 디스크에 내려 쓴(fsync) 뒤 {root}/ab/cd/{hash} 로 원자적으로 이동 - 해시 이름의 파일은 항상 완전한 내용</li>
+ *     <li>이미 같은 해시의 파일이 있으면 임시 파일만 지움 (중복 제거)</li>
+ * </ul>
+ * 여러 프로필이 같은 파일을 가리킬 수 있으므로 파일을 지우지 않습니다.
+ */
+@Component
+public class LocalBlobStore implements BlobStore {
+
+    private static final int CHUNK_BYTES = 64 * 1024;
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final Path root;
+    private final Path tmp;
+
+    public LocalBlobStore(@Value("${storage.local.root-dir:data/blobs}") String rootDir) throws IOException {
+        this.root = Path.of(rootDir).toAbsolutePath().normalize();
+        this.tmp = root.resolve("tmp");
+        Files.createDirectories(tmp);
+    }
+
+    @Override
+    public StoredBlob put(InputStream content) throws IOException {
+        MessageDigest sha256 = newSha256();
+        Path temp = Files.createTempFile(tmp, "upload-", ".part");
+        try {
+            long size = 0;
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                byte[] chunk = new byte[CHUNK_BYTES];
+                int n;
+                while ((n = content.read(chunk)) != -1) {
+                    sha256.update(chunk, 0, n);
+                    ByteBuffer buffer = ByteBuffer.wrap(chunk, 0, n);
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    size += n;
+                }
+                out.force(true);
+            }
+
+            String hash = HEX.formatHex(sha256.digest());
+            Path target = path(hash);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // 같은 내용이 동시에 올라와 먼저 자리를 잡음 - 내용이 같으므로 그대로 사용
+                }
+            }
+            return new StoredBlob(hash, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public InputStream open(String hash) throws IOException {
+        return Files.newInputStream(path(hash));
+    }
+
+    @Override
+    public boolean exists(String hash) {
+        return Files.isRegularFile(path(hash));
+    }
+
+    @Override
+    public Optional<Path> localFile(String hash) {
+        Path file = path(hash);
+        return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    // 해시 앞 4글자로 두 단계 디렉터리를 나눠 한 디렉터리에 파일이 몰리지 않게 함
+    Path path(String hash) {
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Invalid blob hash: " + hash);
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
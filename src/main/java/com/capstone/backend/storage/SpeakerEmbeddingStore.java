@@ -0,0 +1,176 @@
+package com.capstone.backend.storage;
+
+import com.capstone.backend.protocol.SpeakerEmbeddingFrame;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * GPU 워커가 올린 화자 임베딩(0x05)을 (목소리 파일 해시, 모델 버전)별로 보관합니다.
+ * <ul>
+ *     <li>디스크: {root}/{model}/ab/{hash}.bin 에 임베딩 바이트만 그대로 (다른 헤더 없음), 임시 파일에 쓴 뒤 원자적으로 이동</li>
+ *     <li>메모리: 바이트 수 기준 LRU (storage.embeddings.cache-max-bytes) - 자주 받아 가는 임베딩은 디스크를 읽지 않도록</li>
+ *     <li>색인: 저장된 키 전체 - 시작 시 디스크를 한 번 훑어 채우고 이후 put마다 추가</li>
+ * </ul>
+ * 매칭 경로(start 메시지)는 {@link #contains}로 색인만 보고 임베딩 주소를 실으므로 디스크를 읽지 않고, 없는 키도 파일을 찾아보지 않습니다.
+ * 임베딩 본문은 워커가 그 주소(GET /api/voice-profiles/{id}/embedding)로 받아 갈 때 {@link #get}으로 읽습니다.
+ * 시작 시 색인을 채우기 전에 매칭된 통화는 임베딩 없이 시작합니다. (워커가 목소리 파일에서 직접 계산)
+ * <p>
+ * 키가 목소리 파일의 내용 해시이므로 프로필 파일이 바뀌면 이전 임베딩은 저절로 쓰이지 않습니다.
+ * 디스크 쓰기와 색인 작업은 전용 스레드에서 하므로 웹소켓 수신 스레드는 기다리지 않습니다.
+ */
+@Slf4j
+@Component
+public class SpeakerEmbeddingStore {
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final int ENTRY_OVERHEAD = 128; // 키와 배열 헤더 대략치
+
+    private final Path root;
+    private final Path tmp;
+    private final int maxEmbeddingBytes;
+    private final Cache<Key, byte[]> cache;
+    private final Set<Key> stored = ConcurrentHashMap.newKeySet(); // 메모리나 디스크에 있는 키
+    private final CompletableFuture<Void> indexed;
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "embedding-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SpeakerEmbeddingStore(@Value("${storage.embeddings.root-dir:data/embeddings}") String rootDir,
+                                 @Value("${storage.embeddings.cache-max-bytes:67108864}") long cacheMaxBytes,
+                                 @Value("${storage.embeddings.max-bytes:1048576}") int maxEmbeddingBytes) throws IOException {
+        this.root = Path.of(rootDir).toAbsolutePath().normalize();
+        this.tmp = root.resolve("tmp");
+        this.maxEmbeddingBytes = maxEmbeddingBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(cacheMaxBytes)
+                .weigher((Key key, byte[] embedding) -> embedding.length + ENTRY_OVERHEAD)
+                .build();
+        Files.createDirectories(tmp);
+        this.indexed = CompletableFuture.runAsync(this::indexDisk, writer);
+    }
+
+    /**
+     * 임베딩을 메모리에 올리고 디스크에는 비동기로 씁니다.
+     *
+     * @return 키가 잘못됐거나 storage.embeddings.max-bytes보다 커서 저장하지 않았으면 false
+     */
+    public boolean put(String voiceDataHash, String modelVersion, byte[] embedding) {
+        if (!isValidKey(voiceDataHash, modelVersion) || embedding.length == 0 || embedding.length > maxEmbeddingBytes) {
+            return false;
+        }
+        Key key = new Key(voiceDataHash, modelVersion);
+        cache.put(key, embedding);
+        stored.add(key);
+        writer.execute(() -> persist(key, embedding));
+        return true;
+    }
+
+    // 저장된 임베딩이 있는지 (색인만 확인 - 디스크를 읽지 않으므로 매칭 경로에서 사용)
+    public boolean contains(String voiceDataHash, String modelVersion) {
+        return isValidKey(voiceDataHash, modelVersion) && stored.contains(new Key(voiceDataHash, modelVersion));
+    }
+
+    // 색인에 있는 키만 메모리에서, 없으면 디스크에서 읽어 올림 (다운로드 요청 스레드에서 사용)
+    public Optional<byte[]> get(String voiceDataHash, String modelVersion) {
+        if (!contains(voiceDataHash, modelVersion)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(cache.get(new Key(voiceDataHash, modelVersion), this::load));
+    }
+
+    // 시작 시 디스크 색인이 끝나면 완료 (테스트용)
+    CompletableFuture<Void> indexed() {
+        return indexed;
+    }
+
+    private byte[] load(Key key) {
+        try {
+            return Files.readAllBytes(path(key));
+        } catch (NoSuchFileException e) {
+            stored.remove(key); // 밖에서 지워진 파일
+            return null;
+        } catch (IOException e) {
+            log.warn("Failed to read speaker embedding {}", path(key), e);
+            return null;
+        }
+    }
+
+    private void persist(Key key, byte[] embedding) {
+        Path target = path(key);
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(tmp, "embedding-", ".part");
+            try {
+                Files.write(temp, embedding, StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to persist speaker embedding {} (kept in memory only)", target, e);
+        }
+    }
+
+    // {root}/{model}/ab/{hash}.bin 파일을 모두 색인에 추가
+    private void indexDisk() {
+        try (Stream<Path> files = Files.walk(root, 3)) {
+            files.filter(file -> root.relativize(file).getNameCount() == 3 && file.toString().endsWith(".bin"))
+                    .forEach(file -> {
+                        String name = file.getFileName().toString();
+                        Key key = new Key(name.substring(0, name.length() - 4),
+                                file.getParent().getParent().getFileName().toString());
+                        if (isValidKey(key.voiceDataHash(), key.modelVersion()) && path(key).equals(file)) {
+                            stored.add(key);
+                        }
+                    });
+            log.info("Indexed {} speaker embedding(s) under {}", stored.size(), root);
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Failed to index speaker embeddings under {} (only new uploads will be used)", root, e);
+        }
+    }
+
+    Path path(Key key) {
+        return root.resolve(key.modelVersion()).resolve(key.voiceDataHash().substring(0, 2))
+                .resolve(key.voiceDataHash() + ".bin");
+    }
+
+    private static boolean isValidKey(String voiceDataHash, String modelVersion) {
+        return voiceDataHash != null && HASH.matcher(voiceDataHash).matches()
+                && SpeakerEmbeddingFrame.isValidModelVersion(modelVersion)
+                && !modelVersion.equals("tmp") && !modelVersion.startsWith(".");
+    }
+
+    // 남은 디스크 쓰기를 마치고 종료
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    record Key(String voiceDataHash, String modelVersion) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.capstone.backend.storage;
+
+/**
+ * 저장소에 들어간 파일 하나를 가리키는 참조입니다. (DB에는 이 값만 저장)
+ *
+ * @param hash SHA-256 (소문자 hex 64자) - 내용이 같으면 같은 값이므로 저장 위치이자 내용 버전으로 씀
+ * @param size 바이트 수
+ */
+public record StoredBlob(String hash, long size) {
+}
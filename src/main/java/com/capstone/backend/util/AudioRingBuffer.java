@@ -0,0 +1,117 @@
+package com.capstone.backend.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 오디오 프레임을 도착 순서대로 담아 두는 고정 크기 링 버퍼입니다. (스레드 안전하지 않음 - 호출한 쪽에서 동기화)
+ * <p>
+ * 메모리는 첫 프레임이 들어올 때 한 번 잡는 direct 버퍼(off-heap)를 재사용하므로 프레임마다 힙 할당이 없습니다.
+ * 각 프레임은 [length:4][bytes] 형태로 연속 배치되고, 끝에 자리가 모자라면 앞으로 돌아가 씁니다.
+ * 가득 차면 가장 오래된 프레임부터 버려, 나중에 한꺼번에 보낼 때 밀리는 시간이 용량 이상 늘지 않습니다.
+ */
+public class AudioRingBuffer {
+
+    private static final int HEADER = Integer.BYTES;
+    private static final int WRAP_MARKER = -1;
+
+    private final int capacity;
+    private ByteBuffer buffer; // 첫 offer 때 할당 (오디오를 한 번도 담지 않는 통화는 메모리를 쓰지 않음)
+
+    private int head;   // 가장 오래된 프레임 위치
+    private int tail;   // 다음 프레임을 쓸 위치
+    private int used;   // 사용 중인 바이트 (헤더, 끝부분 빈 공간 포함)
+    private int frames;
+    private long droppedFrames;
+
+    public AudioRingBuffer(int capacityBytes) {
+        this.capacity = capacityBytes;
+    }
+
+    /**
+     * 프레임을 복사해 넣습니다. 자리가 없으면 오래된 프레임을 버립니다. src의 position은 바뀌지 않습니다.
+     *
+     * @return 프레임 하나가 버퍼 전체보다 커서 넣지 못했으면 false
+     */
+    public boolean offer(ByteBuffer src) {
+        int length = src.remaining();
+        int need = HEADER + length;
+        if (need > capacity) {
+            droppedFrames++;
+            return false;
+        }
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(capacity);
+        }
+        while (true) {
+            boolean wrap = capacity - tail < need;
+            int padding = wrap ? capacity - tail : 0;
+            if (used + padding + need <= capacity) {
+                if (wrap) {
+                    if (padding >= HEADER) {
+                        buffer.putInt(tail, WRAP_MARKER);
+                    }
+                    used += padding;
+                    tail = 0;
+                }
+                break;
+            }
+            dropOldest();
+        }
+        buffer.putInt(tail, length);
+        buffer.put(tail + HEADER, src, src.position(), length);
+        tail += need;
+        used += need;
+        frames++;
+        return true;
+    }
+
+    /**
+     * 가장 오래된 프레임을 꺼냅니다. 반환된 버퍼는 내부 메모리를 가리키므로 다음 {@link #offer} 전에 다 써야 합니다.
+     *
+     * @return 비어 있으면 null
+     */
+    public ByteBuffer poll() {
+        if (frames == 0) {
+            return null;
+        }
+        skipWrap();
+        int length = buffer.getInt(head);
+        ByteBuffer frame = buffer.slice(head + HEADER, length);
+        release(HEADER + length);
+        return frame;
+    }
+
+    public int getFrameCount() {
+        return frames;
+    }
+
+    public int getBufferedBytes() {
+        return used;
+    }
+
+    public long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    private void dropOldest() {
+        skipWrap();
+        release(HEADER + buffer.getInt(head));
+        droppedFrames++;
+    }
+
+    private void release(int size) {
+        head += size;
+        used -= size;
+        if (--frames == 0) {
+            head = tail = used = 0; // 비면 처음부터 다시 사용
+        }
+    }
+
+    // 끝부분에 남은 빈 공간(또는 WRAP_MARKER)을 건너뛰어 앞으로 돌아감
+    private void skipWrap() {
+        if (capacity - head < HEADER || buffer.getInt(head) == WRAP_MARKER) {
+            used -= capacity - head;
+            head = 0;
+        }
+    }
+}
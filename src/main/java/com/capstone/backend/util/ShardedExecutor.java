@@ -0,0 +1,109 @@
+package com.capstone.backend.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 키(통화 ID)마다 항상 같은 단일 스레드에서 작업을 실행하는 샤드 실행기입니다.
+ * <ul>
+ *     <li>같은 키의 작업은 넣은 순서대로 한 스레드에서만 실행되므로 잠금 없이 순서가 지켜짐</li>
+ *     <li>{@link #execute}는 블로킹하지 않음 - 샤드 대기열이 가득 차면 버리고 false 반환 (수신 스레드 보호)</li>
+ *     <li>샤드 수는 보통 코어 수 - 한 통화의 프레임이 스레드 사이를 옮겨 다니지 않음</li>
+ * </ul>
+ */
+@Slf4j
+public class ShardedExecutor implements AutoCloseable {
+
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L; // 연속된 ID도 샤드에 고르게 퍼지도록 섞음
+
+    private final String name;
+    private final ThreadPoolExecutor[] shards;
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    /**
+     * @param shards        샤드(스레드) 수, 0 이하면 사용 가능한 코어 수
+     * @param queueCapacity 샤드마다 쌓아 둘 수 있는 작업 수
+     */
+    public ShardedExecutor(String name, int shards, int queueCapacity) {
+        this.name = name;
+        int count = shards > 0 ? shards : Runtime.getRuntime().availableProcessors();
+        this.shards = new ThreadPoolExecutor[count];
+        for (int i = 0; i < count; i++) {
+            String threadName = name + "-" + i;
+            this.shards[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, threadName);
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy());
+        }
+    }
+
+    /**
+     * key의 샤드에 작업을 넣습니다. 대기열이 가득 찼거나 이미 닫혔으면 버리고 false를 반환합니다.
+     */
+    public boolean execute(long key, Runnable task) {
+        try {
+            shards[shardOf(key)].execute(() -> run(task));
+            return true;
+        } catch (RejectedExecutionException e) {
+            long rejected = rejectedCount.incrementAndGet();
+            if (rejected == 1 || rejected % 1000 == 0) {
+                log.warn("[{}] shard queue full, dropped {} task(s) so far", name, rejected);
+            }
+            return false;
+        }
+    }
+
+    public int shardOf(long key) {
+        return (int) (((key * GOLDEN_RATIO) >>> 32) % shards.length);
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    // 모든 샤드에서 실행을 기다리는 작업 수
+    public int getQueuedTasks() {
+        int queued = 0;
+        for (ThreadPoolExecutor shard : shards) {
+            queued += shard.getQueue().size();
+        }
+        return queued;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    // 새 작업을 받지 않고, 이미 넣은 작업이 끝나기를 잠시 기다림
+    @Override
+    public void close() {
+        for (ThreadPoolExecutor shard : shards) {
+            shard.shutdown();
+        }
+        try {
+            for (ThreadPoolExecutor shard : shards) {
+                shard.awaitTermination(5, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // 작업 하나의 예외로 샤드 스레드가 죽고 새로 만들어지지 않도록 여기서 처리
+    private void run(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            log.error("[{}] relay task failed", name, e);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.capstone.backend.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * PCM16(little-endian, mono) 프레임이 말소리인지 묵음인지 판단합니다. (통화당 하나, 스레드 안전하지 않음)
+ * <p>
+ * 프레임의 평균 에너지와 영교차율(zero-crossing rate)만 보므로 프레임당 샘플을 한 번 훑는 것 외에 비용이 없고,
+ * 버퍼에서 바로 읽어 객체를 만들지 않습니다.
+ * <ul>
+ *     <li>배경 소음 수준은 조용해지면 빠르게, 시끄러워지면 천천히(약 5초) 따라감 - 말하는 동안 기준이 함께 올라가지 않게</li>
+ *     <li>말소리: 에너지가 배경 소음보다 margin 이상 크고 최소 수준 이상</li>
+ *     <li>무성 자음(ㅅ, ㅎ 등): 에너지는 작지만 영교차율이 높음 - 에너지 기준을 절반(dB)으로 낮춰 판단</li>
+ *     <li>말이 끝난 뒤에도 hangover 동안은 말소리로 보고 보냄 (끝음절이 잘리지 않게)</li>
+ * </ul>
+ */
+public class VoiceActivityDetector {
+
+    private static final double FULL_SCALE_SQUARED = 32768.0 * 32768.0;
+    private static final double UNVOICED_ZCR = 0.3; // 샘플당 부호가 바뀌는 비율 (16kHz 기준 약 2.4kHz 이상 성분)
+    private static final int FLOOR_RISE_SHIFT = 8;  // 시끄러워질 때 1/256씩 (20ms 프레임이면 약 5초)
+    private static final int FLOOR_FALL_SHIFT = 2;  // 조용해질 때 1/4씩
+
+    private final double minEnergy;
+    private final double voicedRatio;
+    private final double unvoicedRatio;
+    private final long hangoverNanos;
+    private final long bytesPerSecond;
+
+    private double noiseFloor;
+    private long hangoverLeftNanos;
+    private long suppressedFrames;
+
+    /**
+     * @param marginDb       배경 소음보다 이만큼 커야 말소리 (dB)
+     * @param minLevelDbfs   이보다 작은 소리는 항상 묵음 (dBFS, 예: -55)
+     * @param hangoverMs     말이 끝난 뒤에도 보내는 시간
+     * @param bytesPerSecond 오디오의 초당 바이트 (PCM16 16kHz mono = 32000)
+     */
+    public VoiceActivityDetector(double marginDb, double minLevelDbfs, long hangoverMs, long bytesPerSecond) {
+        this.minEnergy = FULL_SCALE_SQUARED * Math.pow(10, minLevelDbfs / 10);
+        this.voicedRatio = Math.pow(10, marginDb / 10);
+        this.unvoicedRatio = Math.pow(10, marginDb / 20);
+        this.hangoverNanos = hangoverMs * 1_000_000L;
+        this.bytesPerSecond = Math.max(bytesPerSecond, 1);
+        this.noiseFloor = -1; // 첫 프레임으로 시작
+    }
+
+    /**
+     * 프레임을 GPU로 보내야 하는지 판단합니다. audio의 position은 바뀌지 않습니다.
+     *
+     * @return 말소리(또는 말이 끝난 직후)면 true, 묵음이면 false
+     */
+    public boolean isVoice(ByteBuffer audio) {
+        int start = audio.position();
+        int samples = audio.remaining() / 2;
+        if (samples == 0) {
+            return true; // 판단할 것이 없는 프레임은 그대로 보냄
+        }
+
+        long sumSquares = 0;
+        int crossings = 0;
+        int previous = 0;
+        for (int i = 0; i < samples; i++) {
+            int offset = start + i * 2;
+            int sample = (short) ((audio.get(offset) & 0xFF) | (audio.get(offset + 1) << 8));
+            sumSquares += (long) sample * sample;
+            if (i > 0 && (sample ^ previous) < 0) {
+                crossings++;
+            }
+            previous = sample;
+        }
+        double energy = (double) sumSquares / samples;
+        double zcr = (double) crossings / samples;
+        if (noiseFloor < 0) {
+            noiseFloor = Math.max(energy, 1.0); // 통화는 보통 말하기 전 소리로 시작함 (말소리였다면 다음 쉼에서 빠르게 내려감)
+        }
+
+        boolean voiced = energy > Math.max(minEnergy, noiseFloor * voicedRatio)
+                || (zcr > UNVOICED_ZCR && energy > Math.max(minEnergy, noiseFloor * unvoicedRatio));
+        updateNoiseFloor(energy);
+
+        long durationNanos = samples * 2L * 1_000_000_000L / bytesPerSecond;
+        if (voiced) {
+            hangoverLeftNanos = hangoverNanos;
+            return true;
+        }
+        if (hangoverLeftNanos > 0) {
+            hangoverLeftNanos -= durationNanos;
+            return true;
+        }
+        suppressedFrames++;
+        return false;
+    }
+
+    private void updateNoiseFloor(double energy) {
+        double diff = energy - noiseFloor;
+        noiseFloor += diff > 0 ? diff / (1 << FLOOR_RISE_SHIFT) : diff / (1 << FLOOR_FALL_SHIFT);
+        noiseFloor = Math.max(noiseFloor, 1.0);
+    }
+
+    public long getSuppressedFrames() {
+        return suppressedFrames;
+    }
+}
@@ -0,0 +1,158 @@
+package com.capstone.backend.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 호출 스레드에서는 큐에 넣기만 하고, 백그라운드 스레드가 모아서 한 번에 쓰는 write-behind 버퍼입니다.
+ * <ul>
+ *     <li>{@link #offer}는 블로킹하지 않음 - 큐가 가득 차면 버리고 false 반환 (웹소켓 스레드 보호)</li>
+ *     <li>batchSize 개가 쌓이거나 maxDelay가 지나면 writer에 최대 batchSize 개씩 전달</li>
+ *     <li>{@link #flush()}는 호출 이전에 넣은 항목이 모두 writer에 전달된 뒤 반환</li>
+ *     <li>{@link #flushAsync()}는 백그라운드 스레드를 깨우고 바로 반환 - 같은 보장을 future로 알려줌</li>
+ * </ul>
+ * writer는 한 번에 한 스레드에서만 호출됩니다.
+ */
+@Slf4j
+public class WriteBehindBuffer<T> implements AutoCloseable {
+
+    private final String name;
+    private final BlockingQueue<T> queue;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final Consumer<List<T>> writer;
+
+    // 큐에서 꺼내 writer에 넘기는 구간을 보호 (flush()가 진행 중인 배치를 기다리게 함)
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final AtomicLong droppedCount = new AtomicLong();
+    // flushAsync() 요청 - 백그라운드 스레드가 큐를 비운 뒤 완료
+    private final Queue<CompletableFuture<Void>> flushRequests = new ConcurrentLinkedQueue<>();
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    public WriteBehindBuffer(String name, int capacity, int batchSize, long maxDelayMs, Consumer<List<T>> writer) {
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        this.writer = writer;
+
+        this.flusher = new Thread(this::runFlusher, name + "-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * 항목을 큐에 넣습니다. 큐가 가득 찼거나 이미 닫혔으면 버리고 false를 반환합니다.
+     */
+    public boolean offer(T item) {
+        if (!running || !queue.offer(item)) {
+            long dropped = droppedCount.incrementAndGet();
+            if (dropped == 1 || dropped % 1000 == 0) {
+                log.warn("[{}] write-behind queue full, dropped {} item(s) so far", name, dropped);
+            }
+            return false;
+        }
+        if (queue.size() >= batchSize) {
+            LockSupport.unpark(flusher); // 배치 크기만큼 찼으면 시간을 기다리지 않고 바로 씀
+        }
+        return true;
+    }
+
+    /**
+     * 지금까지 넣은 항목을 모두 호출 스레드에서 씁니다. (통화 종료, 서버 종료 시)
+     */
+    public void flush() {
+        writeLock.lock();
+        try {
+            List<T> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                write(batch);
+                batch.clear();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 지금까지 넣은 항목을 백그라운드 스레드가 바로 쓰게 하고 기다리지 않고 반환합니다. (통화 종료 시 웹소켓 스레드에서)
+     * 진행 중인 배치나 다른 통화의 항목 때문에 호출 스레드가 DB를 기다리는 일이 없습니다.
+     *
+     * @return 호출 이전에 넣은 항목이 모두 writer에 전달되면 완료되는 future
+     */
+    public CompletableFuture<Void> flushAsync() {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        flushRequests.add(done);
+        if (!running) {
+            flushAndComplete(); // 이미 닫힘 - 백그라운드 스레드가 없으므로 직접 (서버 종료 중에만)
+        } else {
+            LockSupport.unpark(flusher);
+        }
+        return done;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    // 새 항목을 받지 않고, 백그라운드 스레드를 멈춘 뒤 남은 항목을 모두 씀
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushAndComplete();
+    }
+
+    private void runFlusher() {
+        while (running) {
+            // writer 안에서 블로킹하는 동안 unpark 허가가 소모될 수 있으므로 대기 중인 요청이 있으면 잠들지 않음
+            if (flushRequests.isEmpty()) {
+                LockSupport.parkNanos(this, maxDelayNanos);
+            }
+            if (!queue.isEmpty() || !flushRequests.isEmpty()) {
+                flushAndComplete();
+            }
+        }
+    }
+
+    // 요청을 먼저 꺼낸 뒤 큐를 비워야 각 요청 이전에 넣은 항목이 이번 flush에 모두 포함됨
+    private void flushAndComplete() {
+        List<CompletableFuture<Void>> requests = new ArrayList<>();
+        CompletableFuture<Void> request;
+        while ((request = flushRequests.poll()) != null) {
+            requests.add(request);
+        }
+        flush();
+        requests.forEach(done -> done.complete(null));
+    }
+
+    private void write(List<T> batch) {
+        try {
+            writer.accept(batch);
+        } catch (RuntimeException e) {
+            log.error("[{}] failed to write batch of {} item(s)", name, batch.size(), e);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.capstone.backend.codec;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AudioConverterTest {
+
+    private static final int FRAME_SAMPLES = 320; // 20ms @ 16kHz
+
+    @Test
+    @DisplayName("μ-law는 크기를 절반으로 줄이고 원음과 거의 같게 복원된다")
+    void muLawRoundTrip() {
+        assertRoundTrip(new AudioFormat(AudioEncoding.MULAW, 16000), 2.0, 30);
+    }
+
+    @Test
+    @DisplayName("IMA ADPCM은 크기를 약 1/4로 줄이고, 프레임마다 헤더가 있어 중간 프레임을 버려도 복원된다")
+    void imaAdpcmRoundTripWithDroppedFrames() {
+        AudioConverter sender = new AudioConverter(new AudioFormat(AudioEncoding.IMA_ADPCM, 16000));
+        AudioConverter receiver = new AudioConverter(new AudioFormat(AudioEncoding.IMA_ADPCM, 16000));
+        long signal = 0;
+        long noise = 0;
+        long pcmBytes = 0;
+        long sentBytes = 0;
+        for (int frame = 0; frame < 50; frame++) {
+            ByteBuffer pcm = tone(frame, 440, 8000, FRAME_SAMPLES);
+            ByteBuffer wire = sender.encode(pcm);
+            if (frame % 3 == 1) {
+                continue; // 중계 서버가 버린 프레임
+            }
+            pcmBytes += pcm.remaining();
+            sentBytes += wire.remaining();
+            ByteBuffer restored = receiver.decode(wire);
+            assertEquals(pcm.remaining(), restored.remaining());
+            for (int i = 0; i < FRAME_SAMPLES; i++) {
+                int expected = sample(pcm, i);
+                int actual = sample(restored, i);
+                signal += (long) expected * expected;
+                noise += (long) (expected - actual) * (expected - actual);
+            }
+        }
+        assertTrue(pcmBytes / (double) sentBytes > 3.5, "ratio " + pcmBytes / (double) sentBytes);
+        assertTrue(snrDb(signal, noise) > 20, "snr " + snrDb(signal, noise));
+    }
+
+    @Test
+    @DisplayName("8kHz μ-law 구간은 16kHz 내부 형식 대비 1/4 크기이고, 음성 대역 신호는 보존된다")
+    void resamplesTo8kHz() {
+        AudioConverter gpuLeg = new AudioConverter(new AudioFormat(AudioEncoding.MULAW, 8000));
+        AudioConverter back = new AudioConverter(new AudioFormat(AudioEncoding.MULAW, 8000));
+        long pcmBytes = 0;
+        long sentBytes = 0;
+        long signal = 0;
+        long noise = 0;
+        for (int frame = 0; frame < 50; frame++) {
+            ByteBuffer pcm = tone(frame, 300, 8000, FRAME_SAMPLES);
+            ByteBuffer wire = gpuLeg.encode(pcm);
+            pcmBytes += pcm.remaining();
+            sentBytes += wire.remaining();
+            ByteBuffer restored = back.decode(wire);
+            // 보간 지연 (몇 샘플)을 빼고 비교하기 위해 앞부분 프레임은 건너뜀
+            if (frame < 2) {
+                continue;
+            }
+            int samples = Math.min(restored.remaining(), pcm.remaining()) / 2;
+            for (int i = 4; i < samples; i++) {
+                int expected = sample(pcm, i - 1);
+                int actual = sample(restored, i);
+                signal += (long) expected * expected;
+                noise += (long) (expected - actual) * (expected - actual);
+            }
+        }
+        assertEquals(4.0, pcmBytes / (double) sentBytes, 0.1);
+        assertTrue(snrDb(signal, noise) > 10, "snr " + snrDb(signal, noise));
+    }
+
+    @Test
+    @DisplayName("프레임 경계에서도 출력 샘플 수가 입력 비율대로 이어진다")
+    void resamplerKeepsRateAcrossFrames() {
+        Resampler resampler = new Resampler(16000, 24000);
+        ByteBuffer out = ByteBuffer.allocate(resampler.maxOutputBytes(FRAME_SAMPLES * 2));
+        long produced = 0;
+        for (int frame = 0; frame < 100; frame++) {
+            out.clear();
+            resampler.resample(tone(frame, 440, 8000, FRAME_SAMPLES), out);
+            produced += out.position() / 2;
+        }
+        assertEquals(100 * FRAME_SAMPLES * 3 / 2, produced, 2);
+    }
+
+    @Test
+    @DisplayName("내부 형식과 같은 구간은 변환 없이 같은 버퍼를 돌려준다")
+    void internalFormatPassesThrough() {
+        AudioConverter converter = new AudioConverter(AudioFormat.negotiate(null, null));
+        ByteBuffer pcm = tone(0, 440, 8000, FRAME_SAMPLES);
+        assertSame(pcm, converter.decode(pcm));
+        assertSame(pcm, converter.encode(pcm));
+        assertEquals(AudioFormat.INTERNAL, AudioFormat.negotiate("PCM16", "96000"));
+        assertEquals(new AudioFormat(AudioEncoding.IMA_ADPCM, 8000), AudioFormat.negotiate("ima-adpcm", "8000"));
+    }
+
+    private static void assertRoundTrip(AudioFormat format, double minRatio, double minSnrDb) {
+        AudioConverter sender = new AudioConverter(format);
+        AudioConverter receiver = new AudioConverter(format);
+        long signal = 0;
+        long noise = 0;
+        long pcmBytes = 0;
+        long sentBytes = 0;
+        for (int frame = 0; frame < 20; frame++) {
+            ByteBuffer pcm = tone(frame, 440, 8000, FRAME_SAMPLES);
+            ByteBuffer wire = sender.encode(pcm);
+            pcmBytes += pcm.remaining();
+            sentBytes += wire.remaining();
+            ByteBuffer restored = receiver.decode(wire);
+            for (int i = 0; i < FRAME_SAMPLES; i++) {
+                int expected = sample(pcm, i);
+                int actual = sample(restored, i);
+                signal += (long) expected * expected;
+                noise += (long) (expected - actual) * (expected - actual);
+            }
+        }
+        assertEquals(minRatio, pcmBytes / (double) sentBytes, 0.01);
+        assertTrue(snrDb(signal, noise) > minSnrDb, "snr " + snrDb(signal, noise));
+    }
+
+    // frame번째 20ms 구간의 사인파 (little-endian PCM16)
+    private static ByteBuffer tone(int frame, double hz, int amplitude, int samples) {
+        ByteBuffer pcm = ByteBuffer.allocate(samples * 2).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < samples; i++) {
+            long n = (long) frame * samples + i;
+            pcm.putShort((short) (Math.sin(2 * Math.PI * hz * n / 16000) * amplitude));
+        }
+        return pcm.flip();
+    }
+
+    private static int sample(ByteBuffer pcm, int i) {
+        return (short) ((pcm.get(pcm.position() + i * 2) & 0xFF) | (pcm.get(pcm.position() + i * 2 + 1) << 8));
+    }
+
+    private static double snrDb(long signal, long noise) {
+        return 10 * Math.log10((double) signal / Math.max(noise, 1));
+    }
+}
@@ -0,0 +1,105 @@
+package com.capstone.backend.controller;
+
+import com.capstone.backend.entity.User;
+import com.capstone.backend.repository.UserRepository;
+import com.capstone.backend.service.VoiceProfileService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * GPU가 같은 목소리 파일을 반복해서 받을 때의 비용을 실제 HTTP(내장 Tomcat, sendfile 사용)로 측정합니다.
+ * <ul>
+ *     <li>full: 검증자 없이 매번 전체 다운로드 (기존 GPU 동작)</li>
+ *     <li>revalidate: 처음 받은 ETag를 If-None-Match로 보냄 -> 304, 본문 없음</li>
+ *     <li>range: 앞부분 64KB만 요청 -> 206</li>
+ * </ul>
+ * ./gradlew benchmark 로 실행합니다. (일반 test 태스크에서는 제외)
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:voice-download-bench;MODE=MySQL")
+class VoiceDataDownloadBenchmark {
+
+    private static final int VOICE_BYTES = 2 * 1024 * 1024; // 2MB 녹음 파일
+    private static final int WARMUP = 50;
+    private static final int FETCHES = 200;
+    private static final int RANGE_BYTES = 64 * 1024;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private VoiceProfileService voiceProfileService;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Test
+    @DisplayName("반복 다운로드 1회당 시간과 받은 바이트: 전체 / If-None-Match(304) / Range(206)")
+    void repeatFetchCost() throws Exception {
+        User user = userRepository.save(new User("01087654321", "password", "벤치마크"));
+        byte[] voiceData = new byte[VOICE_BYTES];
+        new Random(42).nextBytes(voiceData);
+        Long voiceProfileId = voiceProfileService.createVoiceProfile(user.getPhoneNumber(), "목소리",
+                new ByteArrayInputStream(voiceData));
+        URI uri = URI.create("http://localhost:" + port + "/api/voice-profiles/" + voiceProfileId + "/download");
+
+        HttpResponse<byte[]> first = http.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, first.statusCode());
+        assertArrayEquals(voiceData, first.body());
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+
+        Result full = measure(HttpRequest.newBuilder(uri).build(), 200);
+        Result revalidate = measure(HttpRequest.newBuilder(uri).header("If-None-Match", etag).build(), 304);
+        Result range = measure(HttpRequest.newBuilder(uri).header("Range", "bytes=0-" + (RANGE_BYTES - 1)).build(), 206);
+
+        System.out.printf("%-12s %12s %14s%n", "mode", "us/fetch", "bytes/fetch");
+        print("full", full);
+        print("revalidate", revalidate);
+        print("range", range);
+
+        assertEquals(VOICE_BYTES, full.bytesPerFetch());
+        assertEquals(0, revalidate.bytesPerFetch());
+        assertEquals(RANGE_BYTES, range.bytesPerFetch());
+        assertTrue(revalidate.microsPerFetch() < full.microsPerFetch(), "304 응답이 전체 다운로드보다 빨라야 합니다.");
+    }
+
+    private Result measure(HttpRequest request, int expectedStatus) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        }
+        long bytes = 0;
+        long started = System.nanoTime();
+        for (int i = 0; i < FETCHES; i++) {
+            HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            assertEquals(expectedStatus, response.statusCode());
+            bytes += response.body().length;
+        }
+        long elapsed = System.nanoTime() - started;
+        return new Result(elapsed / 1000 / FETCHES, bytes / FETCHES);
+    }
+
+    private static void print(String mode, Result result) {
+        System.out.printf("%-12s %12d %14d%n", mode, result.microsPerFetch(), result.bytesPerFetch());
+    }
+
+    private record Result(long microsPerFetch, long bytesPerFetch) {
+    }
+}
@@ -0,0 +1,200 @@
+package com.capstone.backend.controller;
+
+import com.capstone.backend.entity.User;
+import com.capstone.backend.repository.UserRepository;
+import com.capstone.backend.service.VoiceProfileService;
+import com.capstone.backend.util.JwtUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /api/voice-profiles/me 한 번에 DB에서 읽는 바이트 수를 측정합니다.
+ * <ul>
+ *     <li>before: 기존 방식 - 오디오 원본(voice_data LONGBLOB)이 voice_profile 행에 있어 목록을 읽으면 행마다 함께 읽힘
+ *     (같은 모양의 테이블을 만들어 재현)</li>
+ *     <li>after: 오디오는 파일 저장소에 두고 목록은 (id, 이름, 생성일) projection으로 조회</li>
+ * </ul>
+ * DataSource를 감싸 ResultSet에서 꺼낸 값의 크기를 셉니다. (byte[]/문자열은 길이, 그 밖의 값은 8바이트)
+ * 인증 필터가 사용자 행을 읽는 비용도 함께 잡힙니다.
+ * ./gradlew benchmark 로 실행합니다. (일반 test 태스크에서는 제외)
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:voice-profile-bench;MODE=MySQL")
+@AutoConfigureMockMvc
+class VoiceProfileListingBenchmark {
+
+    private static final int PROFILES = 5;
+    private static final int VOICE_BYTES = 1024 * 1024; // 1MB 녹음 파일
+    private static final int CALLS = 20;
+
+    private static final AtomicLong bytesRead = new AtomicLong();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private VoiceProfileService voiceProfileService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("/api/voice-profiles/me 1회당 DB 읽기 바이트: 기존(엔티티 + 오디오) 대비 projection")
+    void bytesReadPerListing() throws Exception {
+        User user = userRepository.save(new User("01012345678", "password", "벤치마크"));
+        jdbcTemplate.execute("CREATE TABLE legacy_voice_profile (voice_profile_id BIGINT PRIMARY KEY, user_id BIGINT, " +
+                "profile_name VARCHAR(50), voice_data LONGBLOB, created_at TIMESTAMP)");
+        for (int i = 0; i < PROFILES; i++) {
+            byte[] voiceData = new byte[VOICE_BYTES];
+            voiceProfileService.createVoiceProfile(user.getPhoneNumber(), "목소리-" + i, new ByteArrayInputStream(voiceData));
+            jdbcTemplate.update("INSERT INTO legacy_voice_profile VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP)",
+                    i, user.getId(), "목소리-" + i, voiceData);
+        }
+        String token = jwtUtil.generateToken(user.getPhoneNumber());
+
+        // before: findAllByUserId가 엔티티(오디오 포함)를 읽던 쿼리
+        bytesRead.set(0);
+        for (int i = 0; i < CALLS; i++) {
+            jdbcTemplate.queryForList("SELECT * FROM legacy_voice_profile WHERE user_id = ?", user.getId());
+        }
+        long before = bytesRead.get() / CALLS;
+
+        // after: 실제 API 호출
+        bytesRead.set(0);
+        for (int i = 0; i < CALLS; i++) {
+            mockMvc.perform(get("/api/voice-profiles/me").header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk());
+        }
+        long after = bytesRead.get() / CALLS;
+
+        System.out.printf("%-8s %10s %18s%n", "mode", "profiles", "DB bytes/call");
+        System.out.printf("%-8s %10d %18d%n", "before", PROFILES, before);
+        System.out.printf("%-8s %10d %18d%n", "after", PROFILES, after);
+
+        assertTrue(before >= (long) PROFILES * VOICE_BYTES, "기존 방식은 오디오 원본을 모두 읽어야 합니다.");
+        assertTrue(after < VOICE_BYTES / 100, "목록 조회는 오디오 원본을 읽지 않아야 합니다.");
+    }
+
+    @TestConfiguration
+    static class CountingDataSourceConfig {
+
+        @Bean
+        static BeanPostProcessor countingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && !(bean instanceof CountingDataSource)
+                            ? new CountingDataSource(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    // Connection -> Statement -> ResultSet 을 프록시로 감싸 ResultSet의 getXxx 결과 크기를 더함
+    static class CountingDataSource extends DelegatingDataSource {
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return (Connection) counting(super.getConnection(), Connection.class);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return (Connection) counting(super.getConnection(username, password), Connection.class);
+        }
+
+        private static Object counting(Object target, Class<?> type) {
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                Class<?> returnType = method.getReturnType();
+                if (result != null && returnType.isInterface() && returnType.getName().startsWith("java.sql.")
+                        && (java.sql.Statement.class.isAssignableFrom(returnType) || returnType == ResultSet.class)) {
+                    return counting(result, returnType);
+                }
+                if (target instanceof ResultSet && method.getName().startsWith("get")
+                        && args != null && args.length > 0 && result != null) {
+                    return count(result);
+                }
+                return result;
+            });
+        }
+
+        private static Object count(Object value) throws SQLException {
+            if (value instanceof byte[] bytes) {
+                bytesRead.addAndGet(bytes.length);
+            } else if (value instanceof CharSequence text) {
+                bytesRead.addAndGet(text.length());
+            } else if (value instanceof Blob blob) {
+                bytesRead.addAndGet(blob.length());
+            } else if (value instanceof Clob clob) {
+                bytesRead.addAndGet(clob.length());
+            } else if (value instanceof InputStream stream) {
+                return new FilterInputStream(stream) {
+                    @Override
+                    public int read() throws IOException {
+                        int b = super.read();
+                        if (b >= 0) {
+                            bytesRead.incrementAndGet();
+                        }
+                        return b;
+                    }
+
+                    @Override
+                    public int read(byte[] buffer, int offset, int length) throws IOException {
+                        int n = super.read(buffer, offset, length);
+                        if (n > 0) {
+                            bytesRead.addAndGet(n);
+                        }
+                        return n;
+                    }
+                };
+            } else {
+                bytesRead.addAndGet(8);
+            }
+            return value;
+        }
+    }
+}
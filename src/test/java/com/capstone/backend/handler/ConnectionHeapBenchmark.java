@@ -0,0 +1,192 @@
+package com.capstone.backend.handler;
+
+import jakarta.websocket.ClientEndpointConfig;
+import jakarta.websocket.ContainerProvider;
+import jakarta.websocket.Endpoint;
+import jakarta.websocket.EndpointConfig;
+import jakarta.websocket.MessageHandler;
+import jakarta.websocket.Session;
+import jakarta.websocket.WebSocketContainer;
+import jakarta.websocket.server.ServerContainer;
+import jakarta.websocket.server.ServerEndpointConfig;
+import org.apache.catalina.Context;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.tomcat.websocket.server.WsSci;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * WebSocket 연결 하나가 차지하는 힙(대기 중 / 오디오를 주고받는 중)을 측정합니다.
+ * <ul>
+ *     <li>before: 메시지 전체를 받는 방식 - 컨테이너 버퍼 5MB (기존 WebSocketConfig)</li>
+ *     <li>after: 스트리밍 모드 - 부분 메시지를 받고 컨테이너 버퍼 64KB (relay.streaming.*)</li>
+ * </ul>
+ * 내장 Tomcat에 서버 엔드포인트를 띄우고 같은 JVM의 클라이언트로 접속합니다.
+ * 클라이언트 쪽 버퍼(1KB)도 함께 잡히지만 두 방식에서 같습니다.
+ * 활성 연결은 20ms 오디오 프레임을 주고받고(서버가 되돌려 보냄) 큰 메시지(TTS 청크 크기) 하나를 보낸 상태입니다.
+ * ./gradlew benchmark 로 실행합니다. (일반 test 태스크에서는 제외)
+ */
+@Tag("benchmark")
+class ConnectionHeapBenchmark {
+
+    private static final int LEGACY_BUFFER = 5 * 1024 * 1024;
+    private static final int STREAMING_BUFFER = 64 * 1024;
+    private static final int STREAMING_TEXT_BUFFER = 8 * 1024;
+    private static final int CLIENT_BUFFER = 1024;
+
+    private static final int LEGACY_CONNECTIONS = 16;     // 연결당 약 15MB - 테스트 JVM 힙(기본 512MB) 안에서
+    private static final int STREAMING_CONNECTIONS = 256;
+    private static final int AUDIO_FRAMES = 50;
+    private static final int FRAME_BYTES = 640;          // 20ms @ 16kHz PCM16
+    private static final int LARGE_MESSAGE_BYTES = 256 * 1024;
+
+    @Test
+    @DisplayName("연결당 힙: 기존(5MB 버퍼, 전체 메시지) 대비 스트리밍 모드(64KB 버퍼, 부분 메시지)")
+    void heapPerConnection() throws Exception {
+        Result legacy = measure(LEGACY_BUFFER, LEGACY_BUFFER, WholeEndpoint.class, LEGACY_CONNECTIONS);
+        Result streaming = measure(STREAMING_BUFFER, STREAMING_TEXT_BUFFER, StreamingEndpoint.class, STREAMING_CONNECTIONS);
+
+        System.out.printf("%-10s %6s %16s %16s %18s%n", "mode", "conns", "idle B/conn", "active B/conn", "calls per GiB");
+        print("before", LEGACY_CONNECTIONS, legacy);
+        print("after", STREAMING_CONNECTIONS, streaming);
+
+        assertTrue(legacy.activeBytesPerConnection() > LEGACY_BUFFER, "기존 방식은 연결마다 버퍼 크기 이상을 차지해야 합니다.");
+        assertTrue(streaming.activeBytesPerConnection() * 10 < legacy.activeBytesPerConnection(),
+                "스트리밍 모드의 연결당 힙은 기존의 1/10 미만이어야 합니다.");
+    }
+
+    private static void print(String mode, int connections, Result result) {
+        // 통화 하나 = 고객 연결 하나 (GPU 연결은 여러 통화가 슬롯으로 나눠 쓰므로 제외)
+        long callsPerGiB = (1L << 30) / Math.max(result.activeBytesPerConnection(), 1);
+        System.out.printf("%-10s %6d %16d %16d %18d%n", mode, connections,
+                result.idleBytesPerConnection(), result.activeBytesPerConnection(), callsPerGiB);
+    }
+
+    private Result measure(int binaryBuffer, int textBuffer, Class<? extends Endpoint> endpoint, int connections)
+            throws Exception {
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("ws-heap").toString());
+        tomcat.setPort(0);
+        Context context = tomcat.addContext("", null);
+        context.addServletContainerInitializer(new WsSci(), null);
+        tomcat.getConnector();
+        tomcat.start();
+        List<Session> sessions = new ArrayList<>();
+        try {
+            ServerContainer server = (ServerContainer) context.getServletContext().getAttribute(ServerContainer.class.getName());
+            server.setDefaultMaxBinaryMessageBufferSize(binaryBuffer);
+            server.setDefaultMaxTextMessageBufferSize(textBuffer);
+            server.addEndpoint(ServerEndpointConfig.Builder.create(endpoint, "/ws").build());
+            URI uri = URI.create("ws://localhost:" + tomcat.getConnector().getLocalPort() + "/ws");
+
+            WebSocketContainer client = ContainerProvider.getWebSocketContainer();
+            client.setDefaultMaxBinaryMessageBufferSize(CLIENT_BUFFER);
+            client.setDefaultMaxTextMessageBufferSize(CLIENT_BUFFER);
+
+            long baseline = usedHeap();
+            CountDownLatch echoed = new CountDownLatch(connections * AUDIO_FRAMES);
+            for (int i = 0; i < connections; i++) {
+                sessions.add(client.connectToServer(new EchoCounter(echoed), ClientEndpointConfig.Builder.create().build(), uri));
+            }
+            long idle = usedHeap() - baseline;
+
+            ByteBuffer frame = ByteBuffer.allocate(FRAME_BYTES);
+            ByteBuffer large = ByteBuffer.allocate(LARGE_MESSAGE_BYTES);
+            for (int f = 0; f < AUDIO_FRAMES; f++) {
+                for (Session session : sessions) {
+                    session.getBasicRemote().sendBinary(frame.clear());
+                }
+            }
+            for (Session session : sessions) {
+                session.getBasicRemote().sendBinary(large.clear());
+            }
+            assertTrue(echoed.await(30, TimeUnit.SECONDS), "모든 프레임이 되돌아와야 합니다.");
+            long active = usedHeap() - baseline;
+
+            return new Result(idle / connections, active / connections);
+        } finally {
+            for (Session session : sessions) {
+                closeQuietly(session);
+            }
+            tomcat.stop();
+            tomcat.destroy();
+        }
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static void closeQuietly(Session session) {
+        try {
+            session.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private record Result(long idleBytesPerConnection, long activeBytesPerConnection) {
+    }
+
+    // 서버가 되돌려 보낸 오디오 프레임 수를 셈 (큰 메시지는 되돌려 보내지 않음)
+    private static final class EchoCounter extends Endpoint {
+        private final CountDownLatch echoed;
+
+        EchoCounter(CountDownLatch echoed) {
+            this.echoed = echoed;
+        }
+
+        @Override
+        public void onOpen(Session session, EndpointConfig config) {
+            session.addMessageHandler(ByteBuffer.class, (MessageHandler.Whole<ByteBuffer>) message -> echoed.countDown());
+        }
+    }
+
+    // 기존 방식: 메시지 전체를 컨테이너 버퍼에 모아 받음
+    public static class WholeEndpoint extends Endpoint {
+        @Override
+        public void onOpen(Session session, EndpointConfig config) {
+            session.addMessageHandler(ByteBuffer.class, (MessageHandler.Whole<ByteBuffer>) message -> echo(session, message));
+        }
+    }
+
+    // 스트리밍 모드: 컨테이너 버퍼 크기의 조각으로 받음
+    public static class StreamingEndpoint extends Endpoint {
+        @Override
+        public void onOpen(Session session, EndpointConfig config) {
+            session.addMessageHandler(ByteBuffer.class, (MessageHandler.Partial<ByteBuffer>) (fragment, last) -> {
+                if (last) {
+                    echo(session, fragment);
+                }
+            });
+        }
+    }
+
+    // 오디오 프레임 크기의 메시지만 되돌려 보냄 (중계처럼 받은 스레드에서 바로 전송)
+    private static void echo(Session session, ByteBuffer message) {
+        if (message.remaining() != FRAME_BYTES) {
+            return;
+        }
+        try {
+            session.getBasicRemote().sendBinary(message);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.capstone.backend.handler;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.BinaryMessage;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * GPU -> 고객 오디오(0x01) 중계 시 프레임당 힙 할당량을 측정합니다.
+ * ./gradlew benchmark 로 실행합니다. (일반 test 태스크에서는 제외)
+ */
+@Tag("benchmark")
+class GpuAudioRelayAllocationBenchmark {
+
+    private static final int AUDIO_BYTES = 1920; // 20ms, 48kHz mono PCM16
+    private static final int WARMUP_FRAMES = 50_000;
+    private static final int MEASURED_FRAMES = 200_000;
+
+    @Test
+    @DisplayName("0x01 오디오 중계: 복사 방식(before) 대비 슬라이스 방식(after)의 프레임당 할당 바이트")
+    void bytesAllocatedPerRelayedFrame() {
+        ByteBuffer frame = ByteBuffer.allocate(1 + AUDIO_BYTES);
+        frame.put(0, (byte) 0x01);
+
+        // before: 헤더를 뺀 나머지를 byte[]로 복사한 뒤 새 BinaryMessage로 감싸던 방식
+        long before = bytesPerFrame(frame, payload -> {
+            byte[] dataBytes = new byte[payload.remaining()];
+            payload.get(dataBytes);
+            return new BinaryMessage(dataBytes);
+        });
+
+        // after: 원본 버퍼의 읽기 전용 슬라이스를 그대로 전달
+        long after = bytesPerFrame(frame, payload -> new BinaryMessage(GpuWebSocketHandler.audioPayload(payload)));
+
+        System.out.printf("[relay-alloc] frame=%d bytes, before=%d B/frame, after=%d B/frame%n",
+                AUDIO_BYTES, before, after);
+
+        assertTrue(before >= AUDIO_BYTES, "복사 방식은 프레임 크기 이상을 할당해야 합니다.");
+        assertTrue(after < AUDIO_BYTES / 4, "슬라이스 방식의 할당량은 프레임 크기와 무관해야 합니다.");
+    }
+
+    private long bytesPerFrame(ByteBuffer frame, Function<ByteBuffer, BinaryMessage> relay) {
+        com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        long sink = relayFrames(frame, relay, WARMUP_FRAMES);
+
+        long start = threadMXBean.getCurrentThreadAllocatedBytes();
+        sink += relayFrames(frame, relay, MEASURED_FRAMES);
+        long allocated = threadMXBean.getCurrentThreadAllocatedBytes() - start;
+
+        assertTrue(sink > 0); // JIT가 중계 코드를 제거하지 못하도록 결과를 사용
+        return allocated / MEASURED_FRAMES;
+    }
+
+    private long relayFrames(ByteBuffer frame, Function<ByteBuffer, BinaryMessage> relay, int count) {
+        long sink = 0;
+        for (int i = 0; i < count; i++) {
+            frame.clear();
+            frame.get(); // 1바이트 헤더(메시지 타입)를 읽은 상태에서 중계
+            sink += relay.apply(frame).getPayloadLength();
+        }
+        return sink;
+    }
+}
@@ -0,0 +1,208 @@
+package com.capstone.backend.handler;
+
+import com.capstone.backend.support.StubWebSocketSession;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboundQueueSessionTest {
+
+    private static final int FRAME_BYTES = 100;
+    private static final int NO_TIME_LIMIT = 60_000;
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 보내도 전송은 한 번에 하나씩, 보낸 스레드별 순서대로 모두 나간다")
+    void concurrentSendersKeepPerSenderOrder() throws Exception {
+        int senders = 8;
+        int perSender = 2_000;
+        StubWebSocketSession delegate = new StubWebSocketSession("peer");
+        OutboundQueueSession session = new OutboundQueueSession(delegate, Integer.MAX_VALUE, NO_TIME_LIMIT,
+                OverflowPolicy.DROP_NEWEST);
+
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int s = 0; s < senders; s++) {
+            int sender = s;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < perSender; i++) {
+                        session.sendMessage(new BinaryMessage(ByteBuffer.allocate(8).putInt(sender).putInt(i).flip()));
+                    }
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertNull(failure.get());
+        assertEquals(0, delegate.getOverlappingSends(), "delegate에 두 스레드가 동시에 쓰면 안 됩니다.");
+        assertEquals(0, session.getBufferSize());
+        List<byte[]> sent = delegate.sentBinary();
+        assertEquals(senders * perSender, sent.size());
+        int[] next = new int[senders];
+        for (byte[] frame : sent) {
+            ByteBuffer payload = ByteBuffer.wrap(frame);
+            int sender = payload.getInt();
+            assertEquals(next[sender]++, payload.getInt(), "sender " + sender + "의 순서가 바뀌었습니다.");
+        }
+    }
+
+    @Test
+    @DisplayName("DROP_OLDEST: 한도를 넘으면 가장 오래된 오디오부터 버리고, 남은 메시지는 들어온 순서대로 나간다")
+    void dropOldestKeepsNewestWithinLimit() throws Exception {
+        StubWebSocketSession delegate = new StubWebSocketSession("peer");
+        OutboundQueueSession session = new OutboundQueueSession(delegate, 3 * FRAME_BYTES, NO_TIME_LIMIT,
+                OverflowPolicy.DROP_OLDEST);
+
+        Thread inFlight = sendWhileHeld(delegate, session, 0);
+        for (int id = 1; id <= 3; id++) {
+            session.sendMessage(frame(id));
+        }
+        assertEquals(3 * FRAME_BYTES, session.getBufferSize());
+
+        session.sendMessage(frame(4));
+        assertEquals(3 * FRAME_BYTES, session.getBufferSize());
+        assertEquals(1, session.getDroppedMessageCount());
+
+        // 제어 메시지(텍스트)는 한도와 상관없이 들어감
+        session.sendMessage(new TextMessage("end"));
+        assertEquals(3 * FRAME_BYTES + 3, session.getBufferSize());
+
+        delegate.releaseSends();
+        inFlight.join();
+        assertEquals(List.of(0, 2, 3, 4), ids(delegate));
+        assertEquals(List.of("end"), delegate.sentText());
+        assertEquals(0, session.getBufferSize());
+        assertTrue(delegate.isOpen());
+    }
+
+    @Test
+    @DisplayName("DROP_NEWEST: 한도를 넘으면 새로 들어온 오디오를 버리고 이미 쌓인 순서를 지킨다")
+    void dropNewestKeepsQueuedFrames() throws Exception {
+        StubWebSocketSession delegate = new StubWebSocketSession("peer");
+        OutboundQueueSession session = new OutboundQueueSession(delegate, 3 * FRAME_BYTES, NO_TIME_LIMIT,
+                OverflowPolicy.DROP_NEWEST);
+
+        Thread inFlight = sendWhileHeld(delegate, session, 0);
+        for (int id = 1; id <= 5; id++) {
+            session.sendMessage(frame(id));
+        }
+        assertEquals(3 * FRAME_BYTES, session.getBufferSize());
+        assertEquals(2, session.getDroppedMessageCount());
+
+        delegate.releaseSends();
+        inFlight.join();
+        assertEquals(List.of(0, 1, 2, 3), ids(delegate));
+        assertEquals(0, session.getBufferSize());
+    }
+
+    @Test
+    @DisplayName("CLOSE: 한도를 넘으면 대기열을 비우고 세션을 SESSION_NOT_RELIABLE로 닫는다")
+    void closePolicyClosesSession() throws Exception {
+        StubWebSocketSession delegate = new StubWebSocketSession("peer");
+        OutboundQueueSession session = new OutboundQueueSession(delegate, 3 * FRAME_BYTES, NO_TIME_LIMIT,
+                OverflowPolicy.CLOSE);
+
+        Thread inFlight = sendWhileHeld(delegate, session, 0);
+        for (int id = 1; id <= 3; id++) {
+            session.sendMessage(frame(id));
+        }
+        assertTrue(delegate.isOpen());
+
+        session.sendMessage(frame(4));
+        assertFalse(delegate.isOpen());
+        assertEquals(CloseStatus.SESSION_NOT_RELIABLE.getCode(), delegate.getCloseStatus().getCode());
+        assertEquals(0, session.getBufferSize());
+
+        // 닫힌 뒤에는 조용히 무시
+        session.sendMessage(frame(5));
+        delegate.releaseSends();
+        inFlight.join();
+        assertEquals(List.of(0), ids(delegate));
+    }
+
+    @Test
+    @DisplayName("전송 하나가 sendTimeLimit 이상 멈춰 있으면 다음 전송 시도에서 세션을 닫는다")
+    void closesWhenSendTimeLimitExceeded() throws Exception {
+        StubWebSocketSession delegate = new StubWebSocketSession("peer");
+        OutboundQueueSession session = new OutboundQueueSession(delegate, Integer.MAX_VALUE, 50,
+                OverflowPolicy.DROP_OLDEST);
+
+        Thread inFlight = sendWhileHeld(delegate, session, 0);
+        session.sendMessage(frame(1)); // 아직 한도 안 - 대기열에 쌓임
+        assertTrue(delegate.isOpen());
+
+        Thread.sleep(150);
+        session.sendMessage(frame(2));
+        assertFalse(delegate.isOpen());
+        assertEquals(CloseStatus.SESSION_NOT_RELIABLE.getCode(), delegate.getCloseStatus().getCode());
+        assertEquals(0, session.getBufferSize());
+
+        delegate.releaseSends();
+        inFlight.join();
+        assertEquals(List.of(0), ids(delegate));
+    }
+
+    @Test
+    @DisplayName("대기열에 넣은 메시지는 복사본이므로 호출한 쪽이 버퍼를 재사용해도 내용이 바뀌지 않는다")
+    void queuedPayloadIsCopied() throws Exception {
+        StubWebSocketSession delegate = new StubWebSocketSession("peer");
+        OutboundQueueSession session = new OutboundQueueSession(delegate, Integer.MAX_VALUE, NO_TIME_LIMIT,
+                OverflowPolicy.DROP_OLDEST);
+
+        Thread inFlight = sendWhileHeld(delegate, session, 0);
+        // 컨테이너처럼 같은 수신 버퍼를 다음 프레임에 다시 씀
+        ByteBuffer reused = ByteBuffer.allocate(FRAME_BYTES);
+        reused.putInt(0, 1);
+        session.sendMessage(new BinaryMessage(reused));
+        reused.putInt(0, 2);
+        session.sendMessage(new BinaryMessage(reused));
+        reused.putInt(0, 3);
+
+        delegate.releaseSends();
+        inFlight.join();
+        assertEquals(List.of(0, 1, 2), ids(delegate));
+    }
+
+    // 다른 스레드에서 보낸 frame(id)가 delegate 안에서 멈춰 있는 상태를 만듦 (이후 전송은 대기열로 감)
+    private static Thread sendWhileHeld(StubWebSocketSession delegate, OutboundQueueSession session, int id)
+            throws InterruptedException {
+        delegate.holdSends();
+        Thread thread = new Thread(() -> {
+            try {
+                session.sendMessage(frame(id));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        thread.start();
+        assertTrue(delegate.awaitHeldSend());
+        return thread;
+    }
+
+    private static BinaryMessage frame(int id) {
+        return new BinaryMessage(ByteBuffer.allocate(FRAME_BYTES).putInt(0, id));
+    }
+
+    private static List<Integer> ids(StubWebSocketSession delegate) {
+        return delegate.sentBinary().stream().map(frame -> ByteBuffer.wrap(frame).getInt()).toList();
+    }
+}
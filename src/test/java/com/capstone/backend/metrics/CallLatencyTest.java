@@ -0,0 +1,124 @@
+package com.capstone.backend.metrics;
+
+import com.capstone.backend.dto.LatencyReportDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CallLatencyTest {
+
+    private static final long MS = 1_000_000;
+
+    private final LatencyTracker tracker = new LatencyTracker(new SimpleMeterRegistry(), 4, 100, 10);
+
+    @Test
+    @DisplayName("v1 GPU: 청크를 받은 순서대로 가장 오래된 프레임과 짝짓고 구간별 지연을 나눠 기록한다")
+    void pairsV1ChunksInOrder() {
+        CallLatency latency = tracker.open(1L);
+        for (int i = 0; i < 3; i++) {
+            long received = i * 100 * MS;
+            latency.frameForwarded(i, received, received + MS); // 중계 1ms
+        }
+        for (int i = 0; i < 3; i++) {
+            long gpuReceived = i * 100 * MS + 21 * MS; // GPU 20ms
+            latency.chunkDelivered(-1, gpuReceived, gpuReceived + MS); // 중계 1ms
+        }
+
+        assertEquals(3, latency.getRoundTrip().getCount());
+        assertMillis(22, latency.getRoundTrip().percentileMicros(0.99));
+        assertMillis(20, latency.getGpu().percentileMicros(0.99));
+        assertMillis(2, latency.getRelay().percentileMicros(0.99));
+        assertEquals(0, latency.getEvictedFrames());
+        assertEquals(0, latency.getUnmatchedChunks());
+
+        latency.chunkDelivered(-1, 400 * MS, 401 * MS); // 보낸 프레임보다 많은 청크
+        assertEquals(1, latency.getUnmatchedChunks());
+        assertEquals(3, latency.getRoundTrip().getCount());
+    }
+
+    @Test
+    @DisplayName("v2 GPU: 되돌려 받은 sequence의 프레임과 짝짓고, 그보다 앞선 프레임은 응답 없음으로 센다")
+    void pairsV2ChunksBySequence() {
+        CallLatency latency = tracker.open(1L);
+        for (int sequence = 10; sequence <= 12; sequence++) {
+            latency.frameForwarded(sequence, sequence * MS, sequence * MS);
+        }
+
+        latency.chunkDelivered(12, 40 * MS, 40 * MS);
+        assertEquals(2, latency.getEvictedFrames()); // 10, 11
+        assertEquals(1, latency.getRoundTrip().getCount());
+        assertMillis(28, latency.getRoundTrip().percentileMicros(0.5));
+
+        // 순서가 뒤바뀌어 늦게 온 청크는 이미 밀려난 프레임이므로 짝이 없음
+        latency.chunkDelivered(11, 41 * MS, 41 * MS);
+        assertEquals(1, latency.getUnmatchedChunks());
+        assertEquals(1, latency.getRoundTrip().getCount());
+    }
+
+    @Test
+    @DisplayName("링이 가득 차면 가장 오래된 프레임을 밀어내고 남은 프레임과 계속 짝짓는다")
+    void evictsOldestWhenRingIsFull() {
+        CallLatency latency = tracker.open(1L); // 용량 4
+        for (int sequence = 0; sequence < 6; sequence++) {
+            latency.frameForwarded(sequence, sequence * MS, sequence * MS);
+        }
+        assertEquals(2, latency.getEvictedFrames());
+
+        latency.chunkDelivered(2, 10 * MS, 10 * MS); // 밀려나지 않은 가장 오래된 프레임
+        latency.chunkDelivered(5, 11 * MS, 11 * MS); // 3, 4는 응답 없음
+        assertEquals(4, latency.getEvictedFrames());
+        assertEquals(2, latency.getRoundTrip().getCount());
+        assertMillis(8, latency.getRoundTrip().percentileMicros(0.99)); // 2번 8ms, 5번 6ms
+
+        latency.chunkDelivered(0, 12 * MS, 12 * MS); // 링에서 이미 밀려난 번호
+        assertEquals(1, latency.getUnmatchedChunks());
+    }
+
+    @Test
+    @DisplayName("sequence가 32비트를 넘어 0으로 돌아가도 순서를 올바르게 비교한다")
+    void handlesSequenceWrapAround() {
+        CallLatency latency = tracker.open(1L);
+        latency.frameForwarded(0xFFFFFFFEL, 0, 0);
+        latency.frameForwarded(0xFFFFFFFFL, MS, MS);
+        latency.frameForwarded(0, 2 * MS, 2 * MS);
+
+        latency.chunkDelivered(0, 10 * MS, 10 * MS);
+        assertEquals(2, latency.getEvictedFrames());
+        assertEquals(1, latency.getRoundTrip().getCount());
+        assertEquals(0, latency.getUnmatchedChunks());
+    }
+
+    @Test
+    @DisplayName("종료된 통화는 최근 결과로 남아 조회되고, 전체 집계에도 반영된다")
+    void reportsFinishedCall() {
+        CallLatency latency = tracker.open(7L);
+        latency.frameForwarded(0, 0, MS);
+        latency.chunkDelivered(0, 21 * MS, 22 * MS);
+        latency.chunkDelivered(5, 30 * MS, 30 * MS);
+
+        LatencyReportDto active = tracker.report(7L);
+        assertTrue(active.isActive());
+
+        tracker.close(latency);
+        LatencyReportDto finished = tracker.report(7L);
+        assertFalse(finished.isActive());
+        assertEquals(1, finished.getSamples());
+        assertEquals(1, finished.getUnmatchedChunks());
+        assertEquals(1, tracker.aggregate().getSamples());
+        assertNull(tracker.report(8L));
+
+        // 같은 통화가 다시 매칭되면 새 기록으로 시작
+        tracker.open(7L);
+        assertTrue(tracker.report(7L).isActive());
+        assertEquals(0, tracker.report(7L).getSamples());
+    }
+
+    // 히스토그램 버킷 상한 (상대 오차 12.5% 이내)
+    private static void assertMillis(long expectedMs, long actualMicros) {
+        long expected = expectedMs * 1000;
+        assertTrue(actualMicros >= expected && actualMicros <= expected + expected / 8,
+                "expected ~" + expectedMs + " ms but was " + actualMicros + " us");
+    }
+}
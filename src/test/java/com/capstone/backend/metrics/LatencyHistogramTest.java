@@ -0,0 +1,50 @@
+package com.capstone.backend.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("버킷 상한은 버킷에 들어가는 값 이상이고 상대 오차는 12.5% 이내다")
+    void bucketsBoundValues() {
+        for (long micros = 0; micros < 5_000_000; micros += 1 + micros / 50) {
+            long upper = LatencyHistogram.upperBound(LatencyHistogram.indexOf(micros));
+            assertTrue(upper >= micros, "upper bound below value " + micros);
+            assertTrue(upper - micros <= Math.max(1, micros / 8), "bucket too wide at " + micros);
+        }
+    }
+
+    @Test
+    @DisplayName("균등 분포의 백분위를 오차 범위 안에서 돌려준다")
+    void reportsPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int ms = 1; ms <= 100; ms++) {
+            histogram.recordMicros(ms * 1000L);
+        }
+        assertEquals(100, histogram.getCount());
+        assertWithin(50_000, histogram.percentileMicros(0.50));
+        assertWithin(95_000, histogram.percentileMicros(0.95));
+        assertWithin(99_000, histogram.percentileMicros(0.99));
+    }
+
+    @Test
+    @DisplayName("기록이 없으면 0, 아주 큰 값은 마지막 버킷에 들어간다")
+    void handlesEdges() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentileMicros(0.99));
+
+        histogram.recordMicros(Long.MAX_VALUE);
+        histogram.recordMicros(-5);
+        assertEquals(2, histogram.getCount());
+        assertEquals(0, histogram.percentileMicros(0.5));
+        assertTrue(histogram.percentileMicros(1.0) > 0);
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected + expected / 8,
+                "expected ~" + expected + " but was " + actual);
+    }
+}
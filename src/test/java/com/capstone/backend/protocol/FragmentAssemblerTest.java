@@ -0,0 +1,69 @@
+package com.capstone.backend.protocol;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FragmentAssemblerTest {
+
+    @Test
+    @DisplayName("한 번에 온 메시지는 복사하지 않고 그대로 돌려준다")
+    void passesWholeMessagesThrough() {
+        FragmentAssembler assembler = new FragmentAssembler(1024);
+        ByteBuffer message = bytes(0, 100);
+
+        assertSame(message, assembler.append(message, true));
+        assertFalse(assembler.isAssembling());
+    }
+
+    @Test
+    @DisplayName("조각을 순서대로 모아 원래 메시지를 만들고, 조각의 위치는 바꾸지 않는다")
+    void assemblesFragments() {
+        FragmentAssembler assembler = new FragmentAssembler(1 << 20);
+        ByteBuffer first = bytes(0, 3000);
+        ByteBuffer second = bytes(3000, 3000);
+        ByteBuffer third = bytes(6000, 10);
+
+        assertNull(assembler.append(first, false));
+        assertTrue(assembler.isAssembling());
+        assertNull(assembler.append(second, false));
+        ByteBuffer message = assembler.append(third, true);
+
+        assertNotNull(message);
+        assertEquals(6010, message.remaining());
+        for (int i = 0; i < 6010; i++) {
+            assertEquals((byte) i, message.get(message.position() + i));
+        }
+        assertEquals(0, first.position());
+        assertFalse(assembler.isAssembling());
+
+        // 다음 메시지도 처음부터 다시 모음
+        assertNull(assembler.append(bytes(0, 10), false));
+        assertEquals(20, assembler.append(bytes(10, 10), true).remaining());
+    }
+
+    @Test
+    @DisplayName("최대 크기를 넘는 메시지는 끝까지 받아 버리고, 다음 메시지는 정상 처리한다")
+    void dropsOversizedMessages() {
+        FragmentAssembler assembler = new FragmentAssembler(4000);
+
+        assertNull(assembler.append(bytes(0, 3000), false));
+        assertNull(assembler.append(bytes(0, 3000), false));
+        assertNull(assembler.append(bytes(0, 3000), true));
+        assertEquals(1, assembler.getDroppedMessages());
+
+        assertNull(assembler.append(bytes(0, 2000), false));
+        assertEquals(4000, assembler.append(bytes(0, 2000), true).remaining());
+    }
+
+    private static ByteBuffer bytes(int from, int length) {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        for (int i = 0; i < length; i++) {
+            buffer.put((byte) (from + i));
+        }
+        return buffer.flip();
+    }
+}
@@ -0,0 +1,84 @@
+package com.capstone.backend.protocol;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrameHeaderTest {
+
+    @Test
+    @DisplayName("쓴 헤더를 flyweight로 그대로 읽고, 위치는 payload 시작으로 옮겨진다")
+    void roundTrip() {
+        ByteBuffer payload = ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5});
+        ByteBuffer frame = FrameHeader.writeFrame(null, GpuFrame.AUDIO, 513, 0xFFFFFFF0L, 1_700_000_000_123_456L, payload);
+
+        assertEquals(0, payload.position()); // payload 위치는 그대로
+        assertEquals(FrameHeader.SIZE + 5, frame.remaining());
+
+        FrameHeader header = new FrameHeader();
+        assertTrue(header.wrap(frame));
+        assertEquals(GpuFrame.AUDIO, header.type());
+        assertEquals(0, header.flags());
+        assertEquals(513, header.channel());
+        assertEquals(0xFFFFFFF0L, header.sequence());
+        assertEquals(1_700_000_000_123_456L, header.captureMicros());
+        assertEquals(FrameHeader.SIZE, frame.position());
+        assertEquals(5, frame.remaining());
+    }
+
+    @Test
+    @DisplayName("잘린 헤더나 다른 버전이면 읽지 않고 위치도 바꾸지 않는다")
+    void rejectsInvalidFrames() {
+        FrameHeader header = new FrameHeader();
+
+        ByteBuffer truncated = ByteBuffer.allocate(FrameHeader.SIZE - 1);
+        truncated.put(0, (byte) FrameHeader.V2);
+        assertFalse(header.wrap(truncated));
+        assertEquals(0, truncated.position());
+
+        ByteBuffer v1 = ByteBuffer.allocate(64);
+        v1.put(0, GpuFrame.AUDIO); // v1 프레임은 첫 바이트가 타입
+        assertFalse(header.wrap(v1));
+        assertEquals(0, v1.position());
+    }
+
+    @Test
+    @DisplayName("헤더 길이가 더 긴 이후 버전의 프레임도 payload 위치를 찾는다")
+    void skipsLongerHeaders() {
+        ByteBuffer frame = ByteBuffer.allocate(FrameHeader.SIZE + 4 + 2);
+        FrameHeader.write(frame, GpuFrame.CONTROL, 0, 0, 7, 0);
+        frame.put(3, (byte) (FrameHeader.SIZE + 4));
+        frame.putInt(0).put((byte) 'o').put((byte) 'k').flip();
+
+        FrameHeader header = new FrameHeader();
+        assertTrue(header.wrap(frame));
+        assertEquals(7, header.sequence());
+        assertEquals(2, frame.remaining());
+    }
+
+    @Test
+    @DisplayName("여러 프레임을 같은 인스턴스로 읽을 수 있다")
+    void reusesInstance() {
+        FrameHeader header = new FrameHeader();
+        ByteBuffer target = null;
+        for (int i = 0; i < 3; i++) {
+            target = FrameHeader.writeFrame(target, GpuFrame.AUDIO, i, i, 0, ByteBuffer.allocate(10));
+            assertTrue(header.wrap(target));
+            assertEquals(i, header.channel());
+            assertEquals(i, header.sequence());
+        }
+    }
+
+    @Test
+    @DisplayName("protocol 파라미터가 2일 때만 v2로 합의한다")
+    void negotiatesVersion() {
+        assertEquals(FrameHeader.V2, FrameHeader.negotiate("2"));
+        assertEquals(FrameHeader.V2, FrameHeader.negotiate(" 2 "));
+        assertEquals(FrameHeader.V1, FrameHeader.negotiate(null));
+        assertEquals(FrameHeader.V1, FrameHeader.negotiate("1"));
+        assertEquals(FrameHeader.V1, FrameHeader.negotiate("3"));
+    }
+}
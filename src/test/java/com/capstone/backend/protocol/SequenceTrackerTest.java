@@ -0,0 +1,32 @@
+package com.capstone.backend.protocol;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SequenceTrackerTest {
+
+    @Test
+    @DisplayName("건너뛴 번호는 유실, 늦게 온 번호는 순서 뒤바뀜으로 센다")
+    void countsGapsAndLateFrames() {
+        SequenceTracker tracker = new SequenceTracker();
+        for (long seq : new long[]{10, 11, 14, 12, 15}) {
+            tracker.observe(seq);
+        }
+        assertEquals(2, tracker.getLost());      // 12, 13
+        assertEquals(1, tracker.getReordered()); // 12가 늦게 옴
+    }
+
+    @Test
+    @DisplayName("32비트 sequence가 한 바퀴 돌아도 유실로 세지 않는다")
+    void handlesWrapAround() {
+        SequenceTracker tracker = new SequenceTracker();
+        tracker.observe(0xFFFFFFFEL);
+        tracker.observe(0xFFFFFFFFL);
+        tracker.observe(0);
+        tracker.observe(1);
+        assertEquals(0, tracker.getLost());
+        assertEquals(0, tracker.getReordered());
+    }
+}
@@ -0,0 +1,42 @@
+package com.capstone.backend.protocol;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpeakerEmbeddingFrameTest {
+
+    private static final String HASH = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+
+    @Test
+    @DisplayName("쓴 payload를 그대로 읽는다 (해시는 소문자 hex, 임베딩은 복사본)")
+    void roundTrip() {
+        byte[] embedding = {1, 2, 3, 4, 5, 6, 7, 8};
+        ByteBuffer payload = SpeakerEmbeddingFrame.write(42L, HASH, "xtts-v2.0.3", embedding);
+
+        SpeakerEmbeddingFrame frame = SpeakerEmbeddingFrame.read(payload);
+
+        assertNotNull(frame);
+        assertEquals(42L, frame.voiceProfileId());
+        assertEquals(HASH, frame.voiceDataHash());
+        assertEquals("xtts-v2.0.3", frame.modelVersion());
+        assertArrayEquals(embedding, frame.embedding());
+        assertFalse(payload.hasRemaining());
+    }
+
+    @Test
+    @DisplayName("잘린 payload, 빈 임베딩, 규칙에 맞지 않는 모델 버전은 읽지 않는다")
+    void rejectsMalformedPayloads() {
+        ByteBuffer whole = SpeakerEmbeddingFrame.write(1L, HASH, "model", new byte[]{9});
+        assertNull(SpeakerEmbeddingFrame.read(whole.duplicate().limit(20)));
+        assertNull(SpeakerEmbeddingFrame.read(whole.duplicate().limit(whole.limit() - 1))); // 임베딩 없음
+
+        assertNull(SpeakerEmbeddingFrame.read(SpeakerEmbeddingFrame.write(1L, HASH, "../etc", new byte[]{9})));
+        assertNull(SpeakerEmbeddingFrame.read(SpeakerEmbeddingFrame.write(1L, HASH, "", new byte[]{9})));
+        assertFalse(SpeakerEmbeddingFrame.isValidModelVersion(null));
+        assertTrue(SpeakerEmbeddingFrame.isValidModelVersion("ecapa_tdnn-1.2"));
+    }
+}
@@ -0,0 +1,51 @@
+package com.capstone.backend.service;
+
+import com.capstone.backend.dto.CallRoutingInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CallRoutingCacheTest {
+
+    private final CallRoutingCache cache = new CallRoutingCache(100, 10);
+
+    @Test
+    @DisplayName("목소리 파일이 바뀌면 그 프로필을 쓰는 모든 통화의 해시를 새 값으로 바꾸고 다른 프로필은 그대로 둔다")
+    void updateVoiceDataHashRewritesEveryEntryOfProfile() {
+        cache.put(1L, new CallRoutingInfo(10L, 20L, "old"));
+        cache.put(2L, new CallRoutingInfo(11L, 20L, "old"));
+        CallRoutingInfo other = new CallRoutingInfo(10L, 21L, "other");
+        cache.put(3L, other);
+
+        cache.updateVoiceDataHash(20L, "new");
+
+        for (long callSessionId : new long[]{1L, 2L}) {
+            CallRoutingInfo updated = cache.get(callSessionId, id -> fail("캐시에 있어야 합니다."));
+            assertEquals("new", updated.getVoiceDataHash());
+            assertEquals(20L, updated.getVoiceProfileId());
+        }
+        assertEquals(10L, cache.get(1L, id -> null).getUserId());
+        assertEquals(11L, cache.get(2L, id -> null).getUserId());
+        assertSame(other, cache.get(3L, id -> fail("캐시에 있어야 합니다.")));
+    }
+
+    @Test
+    @DisplayName("캐시에 없던 통화는 해시 갱신으로 새로 생기지 않는다")
+    void updateVoiceDataHashDoesNotAddEntries() {
+        cache.updateVoiceDataHash(20L, "new");
+
+        CallRoutingInfo loaded = new CallRoutingInfo(10L, 20L, "from-db");
+        assertSame(loaded, cache.get(1L, id -> loaded));
+    }
+
+    @Test
+    @DisplayName("evict 후에는 loader로 다시 조회한다")
+    void evictForcesReload() {
+        cache.put(1L, new CallRoutingInfo(10L, 20L, "old"));
+        cache.evict(1L);
+
+        CallRoutingInfo loaded = new CallRoutingInfo(10L, 20L, "from-db");
+        assertSame(loaded, cache.get(1L, id -> loaded));
+    }
+}
@@ -0,0 +1,364 @@
+package com.capstone.backend.service;
+
+import com.capstone.backend.codec.AudioFormat;
+import com.capstone.backend.dto.CallRoutingInfo;
+import com.capstone.backend.metrics.LatencyTracker;
+import com.capstone.backend.metrics.RelayMetrics;
+import com.capstone.backend.protocol.FrameHeader;
+import com.capstone.backend.storage.SpeakerEmbeddingStore;
+import com.capstone.backend.support.StubWebSocketSession;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CallServiceTest {
+
+    private static final long CALL_ID = 1L;
+    private static final long NO_TIMEOUT_MS = 60_000;
+
+    private final CallSessionService callSessionService = mock(CallSessionService.class);
+    private final CallTimelineService callTimelineService = mock(CallTimelineService.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SimpleMeterRegistry registry;
+    private CallService callService;
+
+    @BeforeEach
+    void setUp() {
+        when(callSessionService.getRoutingInfo(any())).thenReturn(new CallRoutingInfo(10L, 20L, "hash-a"));
+        when(callTimelineService.timeline(any())).thenReturn(mock(CallTimeline.class));
+        callService = newCallService(NO_TIMEOUT_MS, NO_TIMEOUT_MS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callService.shutdown();
+    }
+
+    @Test
+    @DisplayName("예약 후 고객이 먼저 붙으면 ready는 GPU 신호 때 한 번 전달되고, 그동안 받은 오디오가 먼저 GPU로 간다")
+    void bindBeforeReady() throws Exception {
+        StubWebSocketSession gpu = connectGpu("gpu-1");
+        assertTrue(callService.prewarm(CALL_ID));
+        CallRoute route = routeOf(gpu);
+        assertNull(route.getClient());
+        assertEquals(List.of("start"), types(gpu));
+
+        StubWebSocketSession client = new StubWebSocketSession("client-1");
+        callService.registerClient(CALL_ID, client);
+        assertSame(route, CallRoute.of(client));
+        assertSame(client, route.getClient());
+        assertEquals(0, readyCount(client));
+
+        callService.forwardAudioToGpu(client, new BinaryMessage(new byte[640])); // GPU 준비 전 - 버퍼에 보관
+        assertTrue(gpu.sentBinary().isEmpty());
+
+        callService.notifyClientGpuIsReady(route);
+        assertEquals(1, readyCount(client));
+        assertTrue(route.isAudioOpen());
+        assertEquals(1, gpu.sentBinary().size());
+        assertEquals(List.of("start"), types(gpu)); // 다시 매칭하지 않음
+    }
+
+    @Test
+    @DisplayName("GPU가 먼저 준비되면 ready는 보관해 두었다가 고객이 붙는 순간 전달한다")
+    void readyBeforeBind() throws Exception {
+        StubWebSocketSession gpu = connectGpu("gpu-1");
+        assertTrue(callService.prewarm(CALL_ID));
+        CallRoute route = routeOf(gpu);
+
+        callService.notifyClientGpuIsReady(route); // 아직 고객 없음
+        assertFalse(route.isAudioOpen());
+
+        StubWebSocketSession client = new StubWebSocketSession("client-1");
+        callService.registerClient(CALL_ID, client);
+        assertSame(route, CallRoute.of(client));
+        assertEquals(1, readyCount(client));
+        assertTrue(route.isAudioOpen());
+    }
+
+    @Test
+    @DisplayName("워커는 맡은 통화의 목소리 프로필과 해시만 맡고 있는 것으로 보고, 통화가 끝나면 더는 아니다")
+    void workerServesOnlyActiveVoiceData() throws Exception {
+        StubWebSocketSession gpu = connectGpu("gpu-1");
+        StubWebSocketSession client = new StubWebSocketSession("client-1");
+        callService.registerClient(CALL_ID, client);
+        GpuWorker worker = routeOf(gpu).getWorker();
+
+        assertTrue(worker.isServing(20L, "hash-a"));
+        assertFalse(worker.isServing(20L, "hash-b"), "바뀌기 전/후의 다른 목소리 파일");
+        assertFalse(worker.isServing(21L, "hash-a"), "다른 프로필");
+
+        callService.clientDisconnected(client);
+        assertNull(routeOf(gpu));
+        assertFalse(worker.isServing(20L, "hash-a"));
+    }
+
+    @Test
+    @DisplayName("예약 TTL이 지나면 슬롯을 반환하고, 늦게 온 고객은 평소처럼 새로 매칭된다")
+    void expiredReservationThenLateConnect() throws Exception {
+        callService.shutdown();
+        callService = newCallService(50, NO_TIMEOUT_MS);
+        StubWebSocketSession gpu = connectGpu("gpu-1");
+        assertTrue(callService.prewarm(CALL_ID));
+        CallRoute reserved = routeOf(gpu);
+
+        await(() -> idleSlots() == 1, "예약이 만료되지 않았습니다."); // 슬롯이 풀로 돌아감
+        assertTrue(reserved.isClosed());
+        assertNull(routeOf(gpu));
+
+        StubWebSocketSession client = new StubWebSocketSession("client-1");
+        callService.registerClient(CALL_ID, client);
+        CallRoute matched = CallRoute.of(client);
+        assertNotNull(matched);
+        assertNotSame(reserved, matched);
+        assertSame(matched, routeOf(gpu));
+        assertNull(reserved.getClient()); // 만료된 예약에는 붙지 않음
+        assertEquals(List.of("start", "start"), types(gpu));
+
+        callService.notifyClientGpuIsReady(matched);
+        assertEquals(1, readyCount(client));
+    }
+
+    @Test
+    @DisplayName("TTL 전에 고객이 붙은 예약은 TTL이 지나도 만료되지 않는다")
+    void boundReservationIsNotExpired() throws Exception {
+        callService.shutdown();
+        callService = newCallService(50, NO_TIMEOUT_MS);
+        StubWebSocketSession gpu = connectGpu("gpu-1");
+        assertTrue(callService.prewarm(CALL_ID));
+        CallRoute route = routeOf(gpu);
+
+        StubWebSocketSession client = new StubWebSocketSession("client-1");
+        callService.registerClient(CALL_ID, client);
+        Thread.sleep(200);
+
+        assertFalse(route.isClosed());
+        assertSame(route, routeOf(gpu));
+        assertTrue(client.isOpen());
+    }
+
+    @Test
+    @DisplayName("ready 신호가 두 번 와도 고객에게는 한 번만 전달한다")
+    void duplicateReadyDeliveredOnce() throws Exception {
+        StubWebSocketSession gpu = connectGpu("gpu-1");
+        StubWebSocketSession client = new StubWebSocketSession("client-1");
+        callService.registerClient(CALL_ID, client);
+        CallRoute route = CallRoute.of(client);
+        assertSame(route, routeOf(gpu));
+
+        callService.notifyClientGpuIsReady(route);
+        callService.notifyClientGpuIsReady(route);
+        assertEquals(1, readyCount(client));
+    }
+
+    @Test
+    @DisplayName("고객 연결과 ready가 동시에 일어나도 ready는 정확히 한 번 전달된다")
+    void concurrentBindAndReadyDeliveredOnce() throws Exception {
+        for (long callId = 1; callId <= 200; callId++) {
+            StubWebSocketSession gpu = connectGpu("gpu-" + callId);
+            assertTrue(callService.prewarm(callId));
+            CallRoute route = routeOf(gpu);
+            StubWebSocketSession client = new StubWebSocketSession("client-" + callId);
+
+            long id = callId;
+            CountDownLatch start = new CountDownLatch(1);
+            Thread bind = new Thread(() -> {
+                awaitQuietly(start);
+                callService.registerClient(id, client);
+            });
+            Thread ready = new Thread(() -> {
+                awaitQuietly(start);
+                callService.notifyClientGpuIsReady(route);
+                callService.notifyClientGpuIsReady(route);
+            });
+            bind.start();
+            ready.start();
+            start.countDown();
+            bind.join();
+            ready.join();
+
+            assertEquals(1, readyCount(client), "CallID=" + callId);
+            assertTrue(route.isAudioOpen());
+        }
+    }
+
+    @Test
+    @DisplayName("GPU가 제한 시간 안에 ready를 보내지 않으면 오디오를 열지 않고 통화를 끝내며 슬롯은 풀로 돌아간다")
+    void readyTimeoutEndsCall() throws Exception {
+        callService.shutdown();
+        callService = newCallService(NO_TIMEOUT_MS, 50);
+        StubWebSocketSession gpu = connectGpu("gpu-1");
+        StubWebSocketSession client = new StubWebSocketSession("client-1");
+        callService.registerClient(CALL_ID, client);
+        CallRoute route = CallRoute.of(client);
+        callService.forwardAudioToGpu(client, new BinaryMessage(new byte[640]));
+
+        await(() -> !client.isOpen(), "통화가 종료되지 않았습니다.");
+        assertTrue(route.isClosed());
+        assertFalse(route.isAudioOpen());
+        assertFalse(client.isOpen());
+        assertEquals(CloseStatus.SERVER_ERROR.getCode(), client.getCloseStatus().getCode());
+        assertEquals(List.of("error"), events(client));
+        assertTrue(gpu.sentBinary().isEmpty()); // 준비되지 않은 GPU로 오디오를 보내지 않음
+        assertNull(routeOf(gpu));
+        assertEquals(1, readyTimeouts());
+
+        callService.notifyClientGpuIsReady(route); // 늦게 온 ready는 무시
+        assertEquals(List.of("error"), events(client));
+
+        // 반환된 슬롯은 다음 고객에게 배정됨
+        StubWebSocketSession next = new StubWebSocketSession("client-2");
+        callService.registerClient(2L, next);
+        assertSame(CallRoute.of(next), routeOf(gpu));
+    }
+
+    @Test
+    @DisplayName("고객이 오기 전에 ready 대기 시간이 지나면 예약만 끝내고, 늦게 온 고객은 평소처럼 매칭된다")
+    void readyTimeoutEndsReservation() throws Exception {
+        callService.shutdown();
+        callService = newCallService(NO_TIMEOUT_MS, 50);
+        StubWebSocketSession gpu = connectGpu("gpu-1");
+        assertTrue(callService.prewarm(CALL_ID));
+        CallRoute reserved = routeOf(gpu);
+
+        await(() -> readyTimeouts() == 1 && idleSlots() == 1, "예약이 종료되지 않았습니다.");
+        assertTrue(reserved.isClosed());
+        assertNull(routeOf(gpu));
+
+        StubWebSocketSession client = new StubWebSocketSession("client-1");
+        callService.registerClient(CALL_ID, client);
+        assertNotSame(reserved, CallRoute.of(client));
+        assertSame(CallRoute.of(client), routeOf(gpu));
+        assertTrue(client.isOpen());
+    }
+
+    @Test
+    @DisplayName("예약 중 GPU가 ready를 보냈다면 고객이 오기 전에 ready 대기 시간이 지나도 예약을 유지한다")
+    void readyReservationSurvivesReadyTimeout() throws Exception {
+        callService.shutdown();
+        callService = newCallService(NO_TIMEOUT_MS, 200);
+        StubWebSocketSession gpu = connectGpu("gpu-1");
+        assertTrue(callService.prewarm(CALL_ID));
+        CallRoute reserved = routeOf(gpu);
+        callService.notifyClientGpuIsReady(reserved); // 아직 고객 없음
+
+        Thread.sleep(400); // ready 대기 시간이 지남
+        assertFalse(reserved.isClosed());
+        assertSame(reserved, routeOf(gpu));
+        assertEquals(0, readyTimeouts());
+        assertEquals(0, idleSlots());
+
+        StubWebSocketSession client = new StubWebSocketSession("client-1");
+        callService.registerClient(CALL_ID, client);
+        assertSame(reserved, CallRoute.of(client));
+        assertEquals(1, readyCount(client));
+        assertTrue(reserved.isAudioOpen());
+        assertTrue(client.isOpen());
+    }
+
+    @Test
+    @DisplayName("목소리 파일이 바뀌면 접속 중인 모든 GPU 워커에 invalidate를 보내고 닫힌 워커는 건너뛴다")
+    void broadcastsInvalidateToConnectedWorkers() throws Exception {
+        StubWebSocketSession first = connectGpu("gpu-1");
+        StubWebSocketSession second = connectGpu("gpu-2");
+        StubWebSocketSession closing = connectGpu("gpu-3");
+        StubWebSocketSession gone = connectGpu("gpu-4");
+        closing.close(); // 종료 콜백이 오기 전
+        gone.close();
+        callService.gpuDisconnected(gone);
+
+        callService.broadcastVoiceProfileChanged(20L, "hash-b");
+
+        for (StubWebSocketSession gpu : List.of(first, second)) {
+            List<String> sent = gpu.sentText();
+            assertEquals(1, sent.size());
+            JsonNode invalidate = objectMapper.readTree(sent.get(0));
+            assertEquals("invalidate", invalidate.path("type").asText());
+            assertEquals(20L, invalidate.path("voiceProfileId").asLong());
+            assertEquals("hash-b", invalidate.path("voiceDataHash").asText());
+        }
+        assertTrue(closing.sentText().isEmpty());
+        assertTrue(gone.sentText().isEmpty());
+    }
+
+    private CallService newCallService(long reservationTtlMs, long readyTimeoutMs) {
+        registry = new SimpleMeterRegistry();
+        return new CallService(callSessionService, mock(MessageService.class), new EarlyAudioBuffers(5000, 32000),
+                new VoiceActivityDetectors(false, 9, -55, 300, 32000), new RelayMetrics(registry, 0),
+                new LatencyTracker(registry, 256, 100, 10), callTimelineService, mock(SpeakerEmbeddingStore.class),
+                objectMapper, "affinity", reservationTtlMs, readyTimeoutMs, 800, 32000, false, 0, 4096);
+    }
+
+    // 단일 슬롯 v1 워커
+    private StubWebSocketSession connectGpu(String workerId) {
+        StubWebSocketSession gpu = new StubWebSocketSession(workerId);
+        callService.registerGpu(gpu, workerId, 1, FrameHeader.V1, AudioFormat.INTERNAL, null);
+        return gpu;
+    }
+
+    private static CallRoute routeOf(StubWebSocketSession gpu) {
+        return GpuWorker.of(gpu).routeAt(0);
+    }
+
+    // GPU가 받은 JSON 메시지의 type (받은 순서)
+    private List<String> types(StubWebSocketSession gpu) throws Exception {
+        List<String> types = new ArrayList<>();
+        for (String json : gpu.sentText()) {
+            types.add(objectMapper.readTree(json).path("type").asText());
+        }
+        return types;
+    }
+
+    private long readyCount(StubWebSocketSession client) throws Exception {
+        return events(client).stream().filter("ready"::equals).count();
+    }
+
+    // 고객이 받은 시스템 신호의 event (받은 순서)
+    private List<String> events(StubWebSocketSession client) throws Exception {
+        List<String> events = new ArrayList<>();
+        for (String json : client.sentText()) {
+            events.add(objectMapper.readTree(json).path("event").asText());
+        }
+        return events;
+    }
+
+    private double idleSlots() {
+        return registry.get("gpu.slots.idle").gauge().value();
+    }
+
+    private double readyTimeouts() {
+        return registry.get("relay.ready.timeout").counter().count();
+    }
+
+    // 타이머 스레드가 끝낸 작업의 마지막 결과를 기다림
+    private static void await(BooleanSupplier condition, String message) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean(), message);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
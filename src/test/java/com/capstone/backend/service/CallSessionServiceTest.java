@@ -0,0 +1,83 @@
+package com.capstone.backend.service;
+
+import com.capstone.backend.dto.CallRoutingInfo;
+import com.capstone.backend.entity.CallSession;
+import com.capstone.backend.entity.User;
+import com.capstone.backend.entity.VoiceProfile;
+import com.capstone.backend.repository.CallSessionRepository;
+import com.capstone.backend.repository.UserRepository;
+import com.capstone.backend.repository.VoiceProfileRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CallSessionServiceTest {
+
+    private final CallSessionRepository callSessionRepository = mock(CallSessionRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final VoiceProfileRepository voiceProfileRepository = mock(VoiceProfileRepository.class);
+    private final CallRoutingCache callRoutingCache = new CallRoutingCache(100, 10);
+    private final CallSessionService callSessionService =
+            new CallSessionService(callSessionRepository, userRepository, voiceProfileRepository, callRoutingCache);
+
+    @Test
+    @DisplayName("통화 생성 시 라우팅 정보를 캐시에 넣어 두므로 매칭 때는 DB를 조회하지 않는다")
+    void createCallSessionFillsRoutingCache() {
+        User user = new User("01012345678", "password", "고객");
+        ReflectionTestUtils.setField(user, "id", 10L);
+        CallRoutingInfo routing = new CallRoutingInfo(10L, 20L, "hash-a");
+        when(userRepository.findByPhoneNumber("01012345678")).thenReturn(Optional.of(user));
+        when(voiceProfileRepository.findRoutingInfoById(20L)).thenReturn(Optional.of(routing));
+        when(voiceProfileRepository.getReferenceById(20L)).thenReturn(mock(VoiceProfile.class));
+        when(callSessionRepository.save(any(CallSession.class))).thenAnswer(invocation -> {
+            CallSession saved = invocation.getArgument(0);
+            ReflectionTestUtils.setField(saved, "id", 1L);
+            return saved;
+        });
+
+        Long callSessionId = callSessionService.createCallSession("01012345678", 20L);
+
+        assertSame(routing, callSessionService.getRoutingInfo(callSessionId));
+        verify(callSessionRepository, never()).findRoutingInfoById(any());
+        verify(callSessionRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("캐시에 있으면 저장소를 거치지 않고 반환한다")
+    void cacheHitSkipsRepository() {
+        CallRoutingInfo routing = new CallRoutingInfo(10L, 20L, "hash-a");
+        callRoutingCache.put(1L, routing);
+
+        assertSame(routing, callSessionService.getRoutingInfo(1L));
+        verifyNoInteractions(callSessionRepository);
+    }
+
+    @Test
+    @DisplayName("캐시에 없으면 프로젝션 쿼리 한 번으로 조회하고 이후에는 캐시에서 반환한다")
+    void cacheMissFallsBackToProjectionOnce() {
+        CallRoutingInfo routing = new CallRoutingInfo(10L, 20L, "hash-a");
+        when(callSessionRepository.findRoutingInfoById(2L)).thenReturn(Optional.of(routing));
+
+        assertSame(routing, callSessionService.getRoutingInfo(2L));
+        assertSame(routing, callSessionService.getRoutingInfo(2L));
+        verify(callSessionRepository, times(1)).findRoutingInfoById(2L);
+        verifyNoMoreInteractions(callSessionRepository); // 엔티티(findById)는 읽지 않음
+    }
+
+    @Test
+    @DisplayName("없는 통화면 EntityNotFoundException이고 실패한 조회는 캐시에 남지 않는다")
+    void unknownCallSessionIsNotCached() {
+        when(callSessionRepository.findRoutingInfoById(3L)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> callSessionService.getRoutingInfo(3L));
+        assertThrows(EntityNotFoundException.class, () -> callSessionService.getRoutingInfo(3L));
+        verify(callSessionRepository, times(2)).findRoutingInfoById(3L);
+    }
+}
@@ -0,0 +1,96 @@
+package com.capstone.backend.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GpuLagGovernorTest {
+
+    private static final long MS = 1_000_000L;
+    private static final int FRAME_BYTES = 640;      // 20ms @ 32000 B/s
+    private static final long FRAME_NANOS = 20 * MS;
+    private static final long MAX_LAG_MS = 800;
+
+    @Test
+    @DisplayName("GPU가 실시간보다 느려도 GPU로 넘어가는 프레임의 지연은 한도 근처에 머문다")
+    void boundsLatencyWhenGpuIsSlow() {
+        Simulation bounded = simulate(new GpuLagGovernor(MAX_LAG_MS, 32000), 40 * MS, 500, false);
+        assertTrue(bounded.maxLatencyNanos <= (MAX_LAG_MS + 40) * MS, "max latency " + bounded.maxLatencyNanos);
+        assertTrue(bounded.dropped > 0);
+
+        // 한도가 없으면 10초 통화 동안 지연이 계속 쌓임
+        Simulation unbounded = simulate(new GpuLagGovernor(0, 32000), 40 * MS, 500, false);
+        assertEquals(0, unbounded.dropped);
+        assertTrue(unbounded.maxLatencyNanos > 4000 * MS, "max latency " + unbounded.maxLatencyNanos);
+    }
+
+    @Test
+    @DisplayName("GPU가 실시간보다 빠르면 아무것도 버리지 않는다")
+    void keepsEverythingWhenGpuKeepsUp() {
+        Simulation v1 = simulate(new GpuLagGovernor(MAX_LAG_MS, 32000), 10 * MS, 500, false);
+        Simulation v2 = simulate(new GpuLagGovernor(MAX_LAG_MS, 32000), 10 * MS, 500, true);
+        assertEquals(0, v1.dropped);
+        assertEquals(0, v2.dropped);
+    }
+
+    @Test
+    @DisplayName("v2 녹음 시각은 서버 시계와 달라도 되고, v2 고객이 쉬었다 다시 보내도 버리지 않는다")
+    void toleratesClockOffsetAndPauses() {
+        GpuLagGovernor governor = new GpuLagGovernor(MAX_LAG_MS, 32000);
+        long epochMicros = 1_700_000_000_000_000L;
+        long now = 5_000 * MS;
+        for (int i = 0; i < 100; i++) {
+            assertTrue(governor.admit(FRAME_BYTES, epochMicros + i * 20_000L, now + i * FRAME_NANOS));
+        }
+        // 3초 쉬고 다시 녹음
+        for (int i = 250; i < 300; i++) {
+            assertTrue(governor.admit(FRAME_BYTES, epochMicros + i * 20_000L, now + i * FRAME_NANOS));
+        }
+        assertEquals(0, governor.getDroppedFrames());
+    }
+
+    @Test
+    @DisplayName("v1 고객이 쉬었다 다시 보내면 그 사이를 밀린 것으로 보지 않는다")
+    void resyncsAfterV1Pause() {
+        GpuLagGovernor governor = new GpuLagGovernor(MAX_LAG_MS, 32000);
+        long now = 0;
+        for (int i = 0; i < 100; i++, now += FRAME_NANOS) {
+            assertTrue(governor.admit(FRAME_BYTES, 0, now));
+        }
+        now += 3000 * MS;
+        for (int i = 0; i < 50; i++, now += FRAME_NANOS) {
+            assertTrue(governor.admit(FRAME_BYTES, 0, now));
+        }
+        assertEquals(0, governor.getDroppedFrames());
+        assertEquals(0, governor.getLastLagNanos());
+    }
+
+    /**
+     * 고객이 20ms마다 녹음한 프레임을 보내고, 서버는 프레임 하나를 GPU로 넘길 때마다 serviceNanos 동안 막힌다고 가정합니다.
+     * 막혀 있는 동안 도착한 프레임은 앞단에 쌓였다가 전송이 끝나는 즉시 차례로 읽힙니다. 버린 프레임은 시간이 들지 않습니다.
+     */
+    private static Simulation simulate(GpuLagGovernor governor, long serviceNanos, int frames, boolean v2) {
+        long clockOffset = 123_456 * MS; // 고객 시계와 서버 시계(nanoTime)는 관계없음
+        long relayFree = 0;
+        Simulation result = new Simulation();
+        for (int i = 0; i < frames; i++) {
+            long captured = i * FRAME_NANOS;
+            long received = Math.max(captured, relayFree);
+            long captureMicros = v2 ? (captured + clockOffset) / 1000 : 0;
+            if (governor.admit(FRAME_BYTES, captureMicros, received)) {
+                relayFree = received + serviceNanos;
+                result.maxLatencyNanos = Math.max(result.maxLatencyNanos, relayFree - captured);
+            } else {
+                relayFree = received;
+            }
+        }
+        result.dropped = governor.getDroppedFrames();
+        return result;
+    }
+
+    private static class Simulation {
+        long maxLatencyNanos;
+        long dropped;
+    }
+}
@@ -0,0 +1,196 @@
+package com.capstone.backend.service;
+
+import com.capstone.backend.codec.AudioFormat;
+import com.capstone.backend.protocol.FrameHeader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * GPU 배정 정책(FIFO / LEAST_LOADED / AFFINITY)을 이산 사건 시뮬레이션으로 비교합니다.
+ * 실제 {@link Matchmaker}와 풀 구현을 그대로 쓰고, 시간만 가상 시계로 진행합니다.
+ * <ul>
+ *     <li>워커마다 최근에 쓴 화자 모델 몇 개만 메모리에 올라가 있고(LRU), 없으면 모델 로딩 시간이 추가됨</li>
+ *     <li>목소리 인기도는 Zipf 분포, 도착은 포아송, 통화 시간은 지수 분포</li>
+ * </ul>
+ * ./gradlew benchmark 로 실행합니다. (일반 test 태스크에서는 제외)
+ */
+@Tag("benchmark")
+class GpuSchedulingSimulationBenchmark {
+
+    private static final int WORKERS = 8;
+    private static final int SLOTS_PER_WORKER = 4;
+    private static final int WARM_MODELS_PER_WORKER = 6;
+    private static final int VOICE_PROFILES = 300;
+    private static final double ZIPF_EXPONENT = 1.0;
+    private static final double MEAN_CALL_SECONDS = 60.0;
+    private static final double MODEL_LOAD_SECONDS = 4.0;
+    private static final double UTILIZATION = 0.85;
+    private static final int CALLS = 200_000;
+    private static final long SEED = 42L;
+
+    @Test
+    @DisplayName("정책별 모델 캐시 적중률, 대기 시간, 첫 음성까지의 시간 비교")
+    void comparePolicies() {
+        Map<GpuSchedulingPolicy, Result> results = new EnumMap<>(GpuSchedulingPolicy.class);
+        for (GpuSchedulingPolicy policy : GpuSchedulingPolicy.values()) {
+            results.put(policy, new Simulation(policy).run());
+        }
+
+        System.out.printf("[gpu-scheduling] workers=%d x %d slots, profiles=%d, utilization=%.2f, calls=%d%n",
+                WORKERS, SLOTS_PER_WORKER, VOICE_PROFILES, UTILIZATION, CALLS);
+        System.out.printf("%-13s %9s %12s %12s %14s %14s%n",
+                "policy", "hit-rate", "wait-avg(s)", "wait-p99(s)", "first-audio(s)", "first-p99(s)");
+        results.forEach((policy, r) -> System.out.printf("%-13s %8.1f%% %12.2f %12.2f %14.2f %14.2f%n",
+                policy, r.hitRate() * 100, r.meanWait(), r.p99Wait(), r.meanFirstAudio(), r.p99FirstAudio()));
+
+        Result fifo = results.get(GpuSchedulingPolicy.FIFO);
+        Result affinity = results.get(GpuSchedulingPolicy.AFFINITY);
+        assertTrue(affinity.hitRate() > fifo.hitRate(), "AFFINITY는 FIFO보다 모델 캐시 적중률이 높아야 합니다.");
+        assertTrue(affinity.meanFirstAudio() < fifo.meanFirstAudio(), "AFFINITY는 FIFO보다 첫 음성까지의 시간이 짧아야 합니다.");
+    }
+
+    private record Result(double hitRate, double meanWait, double p99Wait, double meanFirstAudio, double p99FirstAudio) {
+    }
+
+    private record Event(double time, WaitingClient arrival, CallRoute ending) implements Comparable<Event> {
+        @Override
+        public int compareTo(Event other) {
+            return Double.compare(time, other.time);
+        }
+    }
+
+    private static final class Simulation {
+
+        private final Random random = new Random(SEED);
+        private final double[] profileCdf = zipfCdf();
+        private final Matchmaker<WaitingClient, GpuSlot> matchmaker;
+        private final PriorityQueue<Event> events = new PriorityQueue<>();
+        private final Map<GpuWorker, LinkedHashMap<Long, Boolean>> warmModels = new HashMap<>();
+        private final Map<Long, Double> arrivedAt = new HashMap<>();
+
+        private final double[] waits = new double[CALLS];
+        private final double[] firstAudio = new double[CALLS];
+        private int started;
+        private int hits;
+        private double now;
+
+        Simulation(GpuSchedulingPolicy policy) {
+            this.matchmaker = new Matchmaker<>(policy.newPool());
+        }
+
+        Result run() {
+            List<GpuSlot> slots = new ArrayList<>();
+            for (int w = 0; w < WORKERS; w++) {
+                GpuWorker worker = new GpuWorker("gpu-" + w, null, SLOTS_PER_WORKER, FrameHeader.V1, AudioFormat.INTERNAL, null);
+                warmModels.put(worker, new LinkedHashMap<>(16, 0.75f, true));
+                for (int channel = 0; channel < SLOTS_PER_WORKER; channel++) {
+                    slots.add(new GpuSlot(worker, channel));
+                }
+            }
+            for (GpuSlot slot : slots) {
+                matchmaker.offerGpu(new Matchmaker.Ticket<>(slot));
+            }
+
+            double arrivalRate = UTILIZATION * WORKERS * SLOTS_PER_WORKER / MEAN_CALL_SECONDS;
+            double t = 0;
+            for (long callId = 0; callId < CALLS; callId++) {
+                t += exponential(1 / arrivalRate);
+                events.add(new Event(t, new WaitingClient(callId, null, null, sampleProfile(), null), null));
+            }
+
+            while (!events.isEmpty()) {
+                Event event = events.poll();
+                now = event.time();
+                if (event.arrival() != null) {
+                    arrive(event.arrival());
+                } else {
+                    end(event.ending());
+                }
+            }
+
+            Arrays.sort(waits, 0, started);
+            Arrays.sort(firstAudio, 0, started);
+            return new Result((double) hits / started,
+                    Arrays.stream(waits, 0, started).average().orElse(0), waits[(int) (started * 0.99)],
+                    Arrays.stream(firstAudio, 0, started).average().orElse(0), firstAudio[(int) (started * 0.99)]);
+        }
+
+        private void arrive(WaitingClient client) {
+            arrivedAt.put(client.callSessionId(), now);
+            Matchmaker.Match<WaitingClient, GpuSlot> match = matchmaker.offerClient(new Matchmaker.Ticket<>(client));
+            if (match != null) {
+                start(match.client(), match.gpu());
+            }
+        }
+
+        private void end(CallRoute route) {
+            route.getWorker().detach(route);
+            Matchmaker.Match<WaitingClient, GpuSlot> match =
+                    matchmaker.offerGpu(new Matchmaker.Ticket<>(new GpuSlot(route.getWorker(), route.getChannel())));
+            if (match != null) {
+                start(match.client(), match.gpu());
+            }
+        }
+
+        private void start(WaitingClient client, GpuSlot slot) {
+            GpuWorker worker = slot.worker();
+            CallRoute route = new CallRoute(client.callSessionId(), null, worker, slot.channel(),
+                    client.voiceProfileId(), client.voiceDataHash(), null, null, null, null);
+            worker.attach(route);
+
+            LinkedHashMap<Long, Boolean> models = warmModels.get(worker);
+            boolean warm = models.get(client.voiceProfileId()) != null;
+            if (warm) {
+                hits++;
+            } else {
+                models.put(client.voiceProfileId(), Boolean.TRUE);
+                if (models.size() > WARM_MODELS_PER_WORKER) {
+                    models.remove(models.keySet().iterator().next()); // 가장 오래 안 쓴 모델을 내림
+                }
+            }
+
+            double wait = now - arrivedAt.remove(client.callSessionId());
+            double load = warm ? 0 : MODEL_LOAD_SECONDS;
+            waits[started] = wait;
+            firstAudio[started] = wait + load;
+            started++;
+
+            events.add(new Event(now + load + exponential(MEAN_CALL_SECONDS), null, route));
+        }
+
+        private long sampleProfile() {
+            int index = Arrays.binarySearch(profileCdf, random.nextDouble());
+            return index >= 0 ? index : Math.min(-index - 1, VOICE_PROFILES - 1);
+        }
+
+        private double exponential(double mean) {
+            return -mean * Math.log(1 - random.nextDouble());
+        }
+
+        private static double[] zipfCdf() {
+            double[] cdf = new double[VOICE_PROFILES];
+            double sum = 0;
+            for (int k = 0; k < VOICE_PROFILES; k++) {
+                sum += 1 / Math.pow(k + 1, ZIPF_EXPONENT);
+                cdf[k] = sum;
+            }
+            for (int k = 0; k < VOICE_PROFILES; k++) {
+                cdf[k] /= sum;
+            }
+            return cdf;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.capstone.backend.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchmakerTest {
+
+    @Test
+    @DisplayName("대기 중인 고객은 도착 순서(FIFO)대로 GPU와 매칭된다")
+    void matchesWaitingClientsInArrivalOrder() {
+        Matchmaker<Integer, String> matchmaker = new Matchmaker<>();
+        for (int i = 0; i < 5; i++) {
+            assertNull(matchmaker.offerClient(new Matchmaker.Ticket<>(i)));
+        }
+        assertEquals(5, matchmaker.waitingClientCount());
+
+        for (int i = 0; i < 5; i++) {
+            Matchmaker.Match<Integer, String> match = matchmaker.offerGpu(new Matchmaker.Ticket<>("gpu-" + i));
+            assertNotNull(match);
+            assertEquals(i, match.client());
+        }
+        assertEquals(0, matchmaker.waitingClientCount());
+        assertEquals(0, matchmaker.idleGpuCount());
+    }
+
+    @Test
+    @DisplayName("취소된 티켓은 건너뛰고 다음 대기자와 매칭된다")
+    void skipsCancelledTickets() {
+        Matchmaker<Integer, String> matchmaker = new Matchmaker<>();
+        Matchmaker.Ticket<String> leftGpu = new Matchmaker.Ticket<>("left");
+        assertNull(matchmaker.offerGpu(leftGpu));
+        assertNull(matchmaker.offerGpu(new Matchmaker.Ticket<>("alive")));
+        assertTrue(leftGpu.cancel());
+
+        Matchmaker.Match<Integer, String> match = matchmaker.offerClient(new Matchmaker.Ticket<>(1));
+        assertNotNull(match);
+        assertEquals("alive", match.gpu());
+
+        // 남은 GPU가 없으므로 다음 고객은 대기
+        assertNull(matchmaker.offerClient(new Matchmaker.Ticket<>(2)));
+        assertEquals(1, matchmaker.waitingClientCount());
+    }
+
+    @Test
+    @DisplayName("동시에 도착한 고객/GPU가 유실이나 중복 없이 정확히 한 번씩 매칭된다")
+    void concurrentOffersNeverLoseOrDuplicateMatches() throws Exception {
+        int producers = 8;
+        int perProducer = 20_000;
+        int total = producers * perProducer;
+
+        Matchmaker<Integer, Integer> matchmaker = new Matchmaker<>();
+        Queue<Matchmaker.Match<Integer, Integer>> matches = new ConcurrentLinkedQueue<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers * 2);
+        CountDownLatch start = new CountDownLatch(1);
+        List<java.util.concurrent.Future<?>> futures = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perProducer; i++) {
+                    Matchmaker.Match<Integer, Integer> match = matchmaker.offerClient(new Matchmaker.Ticket<>(base + i));
+                    if (match != null) {
+                        matches.add(match);
+                    }
+                }
+                return null;
+            }));
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perProducer; i++) {
+                    Matchmaker.Match<Integer, Integer> match = matchmaker.offerGpu(new Matchmaker.Ticket<>(base + i));
+                    if (match != null) {
+                        matches.add(match);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (java.util.concurrent.Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // 고객 수와 GPU 수가 같으므로 모두 매칭되고 아무도 남지 않아야 한다
+        assertEquals(total, matches.size());
+        assertEquals(0, matchmaker.waitingClientCount());
+        assertEquals(0, matchmaker.idleGpuCount());
+
+        AtomicIntegerArray clientSeen = new AtomicIntegerArray(total);
+        AtomicIntegerArray gpuSeen = new AtomicIntegerArray(total);
+        for (Matchmaker.Match<Integer, Integer> match : matches) {
+            assertEquals(1, clientSeen.incrementAndGet(match.client()), "client matched twice: " + match.client());
+            assertEquals(1, gpuSeen.incrementAndGet(match.gpu()), "gpu matched twice: " + match.gpu());
+        }
+    }
+
+    @Test
+    @DisplayName("동시 취소가 섞여도 매칭/취소는 정확히 한 번이고, 살아있는 고객과 GPU가 동시에 대기하지 않는다")
+    void concurrentCancellationsKeepExactlyOnceSemantics() throws Exception {
+        int perSide = 50_000;
+        Matchmaker<Integer, Integer> matchmaker = new Matchmaker<>();
+        Queue<Matchmaker.Match<Integer, Integer>> matches = new ConcurrentLinkedQueue<>();
+        List<Matchmaker.Ticket<Integer>> clientTickets = new ArrayList<>();
+        List<Matchmaker.Ticket<Integer>> gpuTickets = new ArrayList<>();
+        for (int i = 0; i < perSide; i++) {
+            clientTickets.add(new Matchmaker.Ticket<>(i));
+            gpuTickets.add(new Matchmaker.Ticket<>(i));
+        }
+
+        AtomicIntegerArray clientCancelled = new AtomicIntegerArray(perSide);
+        AtomicIntegerArray gpuCancelled = new AtomicIntegerArray(perSide);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        List<java.util.concurrent.Future<?>> futures = new ArrayList<>();
+        futures.add(executor.submit(() -> {
+            start.await();
+            for (Matchmaker.Ticket<Integer> ticket : clientTickets) {
+                Matchmaker.Match<Integer, Integer> match = matchmaker.offerClient(ticket);
+                if (match != null) {
+                    matches.add(match);
+                }
+            }
+            return null;
+        }));
+        futures.add(executor.submit(() -> {
+            start.await();
+            for (Matchmaker.Ticket<Integer> ticket : gpuTickets) {
+                Matchmaker.Match<Integer, Integer> match = matchmaker.offerGpu(ticket);
+                if (match != null) {
+                    matches.add(match);
+                }
+            }
+            return null;
+        }));
+        // 대기열에 있을 수도, 이미 매칭되었을 수도 있는 티켓을 무작위로 취소
+        futures.add(executor.submit(() -> {
+            start.await();
+            for (int i = 0; i < perSide; i += 3) {
+                if (clientTickets.get(i).cancel()) {
+                    clientCancelled.set(i, 1);
+                }
+            }
+            return null;
+        }));
+        futures.add(executor.submit(() -> {
+            start.await();
+            for (int i = 1; i < perSide; i += 5) {
+                if (gpuTickets.get(i).cancel()) {
+                    gpuCancelled.set(i, 1);
+                }
+            }
+            return null;
+        }));
+        start.countDown();
+        for (java.util.concurrent.Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        AtomicIntegerArray clientMatched = new AtomicIntegerArray(perSide);
+        AtomicIntegerArray gpuMatched = new AtomicIntegerArray(perSide);
+        for (Matchmaker.Match<Integer, Integer> match : matches) {
+            assertEquals(1, clientMatched.incrementAndGet(match.client()));
+            assertEquals(1, gpuMatched.incrementAndGet(match.gpu()));
+            assertEquals(0, clientCancelled.get(match.client()), "cancelled client was matched");
+            assertEquals(0, gpuCancelled.get(match.gpu()), "cancelled gpu was matched");
+        }
+
+        long liveWaitingClients = clientTickets.stream().filter(Matchmaker.Ticket::isWaiting).count();
+        long liveIdleGpus = gpuTickets.stream().filter(Matchmaker.Ticket::isWaiting).count();
+        assertFalse(liveWaitingClients > 0 && liveIdleGpus > 0,
+                "clients=" + liveWaitingClients + ", gpus=" + liveIdleGpus + " are idle at the same time");
+    }
+}
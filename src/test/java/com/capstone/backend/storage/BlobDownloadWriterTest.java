@@ -0,0 +1,127 @@
+package com.capstone.backend.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlobDownloadWriterTest {
+
+    private static final String CACHE_CONTROL = "no-cache, private";
+
+    @TempDir
+    Path root;
+
+    private LocalBlobStore store;
+    private BlobDownloadWriter writer;
+    private byte[] content;
+    private StoredBlob blob;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = new LocalBlobStore(root.toString());
+        writer = new BlobDownloadWriter(store);
+        content = new byte[100_000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i * 7);
+        }
+        blob = store.put(new ByteArrayInputStream(content));
+    }
+
+    @Test
+    @DisplayName("검증자 없이 요청하면 전체 파일과 ETag(내용 해시), Cache-Control을 보낸다")
+    void sendsWholeBlobWithValidators() throws IOException {
+        MockHttpServletResponse response = download(new MockHttpServletRequest("GET", "/download"));
+
+        assertEquals(200, response.getStatus());
+        assertEquals("\"" + blob.hash() + "\"", response.getHeader(HttpHeaders.ETAG));
+        assertEquals(CACHE_CONTROL, response.getHeader(HttpHeaders.CACHE_CONTROL));
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertEquals(content.length, response.getContentLengthLong());
+        assertArrayEquals(content, response.getContentAsByteArray());
+    }
+
+    @Test
+    @DisplayName("If-None-Match가 ETag와 같으면 본문 없이 304")
+    void notModifiedWhenETagMatches() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/download");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", W/\"" + blob.hash() + "\"");
+
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals("\"" + blob.hash() + "\"", response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    @DisplayName("범위 하나를 요청하면 206과 그 부분만, 파일 밖이면 416")
+    void servesSingleRange() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/download");
+        request.addHeader(HttpHeaders.RANGE, "bytes=1000-1999");
+        MockHttpServletResponse partial = download(request);
+
+        assertEquals(206, partial.getStatus());
+        assertEquals("bytes 1000-1999/" + content.length, partial.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(1000, partial.getContentLengthLong());
+        assertArrayEquals(Arrays.copyOfRange(content, 1000, 2000), partial.getContentAsByteArray());
+
+        MockHttpServletRequest suffix = new MockHttpServletRequest("GET", "/download");
+        suffix.addHeader(HttpHeaders.RANGE, "bytes=-10");
+        assertArrayEquals(Arrays.copyOfRange(content, content.length - 10, content.length),
+                download(suffix).getContentAsByteArray());
+
+        MockHttpServletRequest outside = new MockHttpServletRequest("GET", "/download");
+        outside.addHeader(HttpHeaders.RANGE, "bytes=" + content.length + "-");
+        MockHttpServletResponse unsatisfiable = download(outside);
+        assertEquals(416, unsatisfiable.getStatus());
+        assertEquals("bytes */" + content.length, unsatisfiable.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    @DisplayName("If-Range가 현재 ETag와 다르면 범위를 무시하고 전체를 보낸다")
+    void ignoresRangeForStaleIfRange() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/download");
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-9");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"stale\"");
+
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(content, response.getContentAsByteArray());
+    }
+
+    @Test
+    @DisplayName("컨테이너가 sendfile을 지원하면 본문을 쓰지 않고 파일 경로와 범위만 넘긴다")
+    void handsFileToSendfile() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/download");
+        request.setAttribute(BlobDownloadWriter.SENDFILE_SUPPORT, Boolean.TRUE);
+        request.addHeader(HttpHeaders.RANGE, "bytes=10-");
+
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(store.localFile(blob.hash()).orElseThrow().toString(),
+                request.getAttribute(BlobDownloadWriter.SENDFILE_FILENAME));
+        assertEquals(10L, request.getAttribute(BlobDownloadWriter.SENDFILE_START));
+        assertEquals((long) content.length, request.getAttribute(BlobDownloadWriter.SENDFILE_END));
+        assertEquals(content.length - 10, response.getContentLengthLong());
+    }
+
+    private MockHttpServletResponse download(MockHttpServletRequest request) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        writer.write(blob, CACHE_CONTROL, request, response);
+        return response;
+    }
+}
@@ -0,0 +1,87 @@
+package com.capstone.backend.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalBlobStoreTest {
+
+    @TempDir
+    Path root;
+
+    private LocalBlobStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = new LocalBlobStore(root.toString());
+    }
+
+    @Test
+    @DisplayName("조각 크기보다 큰 내용을 저장하면 SHA-256 이름으로 저장되고 그대로 다시 읽힌다")
+    void storesUnderContentHash() throws Exception {
+        byte[] content = bytes(200_000, 1);
+
+        StoredBlob blob = store.put(new ByteArrayInputStream(content));
+
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content)), blob.hash());
+        assertEquals(content.length, blob.size());
+        assertTrue(store.exists(blob.hash()));
+        try (InputStream in = store.open(blob.hash())) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+        assertEquals(0, count(root.resolve("tmp")), "임시 파일이 남으면 안 됩니다.");
+    }
+
+    @Test
+    @DisplayName("같은 내용은 한 번만 저장되고, 다른 내용은 따로 저장된다")
+    void deduplicatesIdenticalContent() throws Exception {
+        StoredBlob first = store.put(new ByteArrayInputStream(bytes(10_000, 7)));
+        StoredBlob second = store.put(new ByteArrayInputStream(bytes(10_000, 7)));
+        StoredBlob other = store.put(new ByteArrayInputStream(bytes(10_000, 8)));
+
+        assertEquals(first, second);
+        assertFalse(first.hash().equals(other.hash()));
+        assertEquals(2, countFiles(root) - count(root.resolve("tmp")));
+        assertEquals(0, count(root.resolve("tmp")));
+    }
+
+    @Test
+    @DisplayName("해시 형식이 아닌 이름으로는 저장소 밖의 파일을 열 수 없다")
+    void rejectsInvalidHashes() {
+        assertThrows(IllegalArgumentException.class, () -> store.exists("../../etc/passwd"));
+        assertThrows(IllegalArgumentException.class, () -> store.exists("ABC"));
+        assertFalse(store.exists("0".repeat(64)));
+    }
+
+    private static byte[] bytes(int length, int seed) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) (i * 31 + seed);
+        }
+        return bytes;
+    }
+
+    private static long count(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    private static long countFiles(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.capstone.backend.storage;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpeakerEmbeddingStoreTest {
+
+    private static final String HASH = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+    private static final String OTHER_HASH = "2c26b46b68ffc68ff99b453c1d30413413422d706483bfa0f98a5e886266e7ae";
+
+    @TempDir
+    Path root;
+
+    @Test
+    @DisplayName("(파일 해시, 모델 버전)별로 보관하고, 재시작한 뒤에도 디스크에서 다시 읽는다")
+    void storesPerHashAndModel() throws Exception {
+        byte[] embedding = {1, 2, 3, 4};
+        SpeakerEmbeddingStore store = new SpeakerEmbeddingStore(root.toString(), 1 << 20, 1024);
+
+        assertTrue(store.put(HASH, "model-a", embedding));
+        assertTrue(store.contains(HASH, "model-a"));
+        assertArrayEquals(embedding, store.get(HASH, "model-a").orElseThrow());
+        assertTrue(store.get(HASH, "model-b").isEmpty(), "다른 모델의 임베딩은 쓰지 않아야 합니다.");
+        assertTrue(store.get(OTHER_HASH, "model-a").isEmpty(), "바뀐 목소리 파일에는 이전 임베딩을 쓰지 않아야 합니다.");
+        store.shutdown(); // 디스크 쓰기를 마침
+
+        Path file = store.path(new SpeakerEmbeddingStore.Key(HASH, "model-a"));
+        assertArrayEquals(embedding, Files.readAllBytes(file));
+
+        SpeakerEmbeddingStore restarted = new SpeakerEmbeddingStore(root.toString(), 1 << 20, 1024);
+        restarted.indexed().get(5, TimeUnit.SECONDS); // 시작 시 디스크 색인
+        assertTrue(restarted.contains(HASH, "model-a"));
+        assertFalse(restarted.contains(HASH, "model-b"));
+        assertArrayEquals(embedding, restarted.get(HASH, "model-a").orElseThrow());
+        restarted.shutdown();
+    }
+
+    @Test
+    @DisplayName("색인에 없는 키는 디스크를 찾아보지 않고, 밖에서 지워진 파일은 색인에서도 빠진다")
+    void lookupsUseIndexOnly() throws Exception {
+        SpeakerEmbeddingStore store = new SpeakerEmbeddingStore(root.toString(), 1 << 20, 1024);
+        store.indexed().get(5, TimeUnit.SECONDS);
+
+        // 색인 이후 다른 경로로 생긴 파일은 보지 않음 (없는 키 조회마다 디스크를 읽지 않음)
+        Path unindexed = store.path(new SpeakerEmbeddingStore.Key(OTHER_HASH, "model"));
+        Files.createDirectories(unindexed.getParent());
+        Files.write(unindexed, new byte[]{9});
+        assertFalse(store.contains(OTHER_HASH, "model"));
+        assertTrue(store.get(OTHER_HASH, "model").isEmpty());
+        store.shutdown();
+
+        // 재시작 후 색인에 들어갔지만 읽기 전에 지워진 파일
+        SpeakerEmbeddingStore restarted = new SpeakerEmbeddingStore(root.toString(), 1 << 20, 1024);
+        restarted.indexed().get(5, TimeUnit.SECONDS);
+        assertTrue(restarted.contains(OTHER_HASH, "model"));
+        Files.delete(unindexed);
+        assertTrue(restarted.get(OTHER_HASH, "model").isEmpty());
+        assertFalse(restarted.contains(OTHER_HASH, "model"));
+        restarted.shutdown();
+    }
+
+    @Test
+    @DisplayName("크기 제한을 넘거나 키가 잘못된 임베딩은 저장하지 않는다")
+    void rejectsOversizedOrInvalid() throws Exception {
+        SpeakerEmbeddingStore store = new SpeakerEmbeddingStore(root.toString(), 1 << 20, 16);
+
+        assertFalse(store.put(HASH, "model", new byte[17]));
+        assertFalse(store.put(HASH, "model", new byte[0]));
+        assertFalse(store.put("not-a-hash", "model", new byte[4]));
+        assertFalse(store.put(HASH, "..", new byte[4]));
+        assertFalse(store.put(HASH, "tmp", new byte[4]));
+        assertTrue(store.get(HASH, "model").isEmpty());
+        store.shutdown();
+    }
+}
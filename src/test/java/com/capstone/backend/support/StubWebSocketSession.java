@@ -0,0 +1,196 @@
+package com.capstone.backend.support;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 테스트용 WebSocketSession입니다. (실제 소켓 없음)
+ * <ul>
+ *     <li>보낸 메시지는 보내는 순간의 내용을 복사해 순서대로 남김 (바이너리는 byte[], 텍스트는 String)</li>
+ *     <li>{@link #holdSends()} 후에는 {@link #releaseSends()} 전까지 전송이 멈춤 (느린 상대 흉내)</li>
+ *     <li>두 스레드가 동시에 sendMessage 안에 있었던 횟수를 셈 (컨테이너에서는 프레임이 섞이는 상황)</li>
+ * </ul>
+ */
+public class StubWebSocketSession implements WebSocketSession {
+
+    private final String id;
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+    private final List<Object> sent = new CopyOnWriteArrayList<>();
+    private final AtomicInteger sending = new AtomicInteger();
+    private final AtomicInteger overlappingSends = new AtomicInteger();
+
+    private volatile boolean open = true;
+    private volatile CloseStatus closeStatus;
+    private volatile CountDownLatch gate;
+    private volatile CountDownLatch held;
+
+    public StubWebSocketSession(String id) {
+        this.id = id;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        if (!open) {
+            throw new IllegalStateException("Session " + id + " is closed");
+        }
+        if (sending.incrementAndGet() > 1) {
+            overlappingSends.incrementAndGet();
+        }
+        try {
+            if (message instanceof BinaryMessage binary) {
+                ByteBuffer payload = binary.getPayload().duplicate();
+                byte[] bytes = new byte[payload.remaining()];
+                payload.get(bytes);
+                sent.add(bytes);
+            } else if (message instanceof TextMessage text) {
+                sent.add(text.getPayload());
+            }
+            CountDownLatch gate = this.gate;
+            if (gate != null) {
+                held.countDown();
+                gate.await(10, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } finally {
+            sending.decrementAndGet();
+        }
+    }
+
+    // 이후의 전송은 releaseSends()까지 멈춤
+    public void holdSends() {
+        held = new CountDownLatch(1);
+        gate = new CountDownLatch(1);
+    }
+
+    // holdSends() 이후 전송 하나가 멈춰 있는 상태가 될 때까지 기다림
+    public boolean awaitHeldSend() throws InterruptedException {
+        return held.await(5, TimeUnit.SECONDS);
+    }
+
+    public void releaseSends() {
+        CountDownLatch gate = this.gate;
+        this.gate = null;
+        if (gate != null) {
+            gate.countDown();
+        }
+    }
+
+    // 보낸 바이너리 메시지 (보낸 순서)
+    public List<byte[]> sentBinary() {
+        return sent.stream().filter(byte[].class::isInstance).map(byte[].class::cast).toList();
+    }
+
+    // 보낸 텍스트 메시지 (보낸 순서)
+    public List<String> sentText() {
+        return sent.stream().filter(String.class::isInstance).map(String.class::cast).toList();
+    }
+
+    public int getOverlappingSends() {
+        return overlappingSends.get();
+    }
+
+    public CloseStatus getCloseStatus() {
+        return closeStatus;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() {
+        close(CloseStatus.NORMAL);
+    }
+
+    @Override
+    public void close(CloseStatus status) {
+        if (open) {
+            open = false;
+            closeStatus = status;
+        }
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
+    @Override
+    public URI getUri() {
+        return null;
+    }
+
+    @Override
+    public HttpHeaders getHandshakeHeaders() {
+        return new HttpHeaders();
+    }
+
+    @Override
+    public Principal getPrincipal() {
+        return null;
+    }
+
+    @Override
+    public InetSocketAddress getLocalAddress() {
+        return null;
+    }
+
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+        return null;
+    }
+
+    @Override
+    public String getAcceptedProtocol() {
+        return null;
+    }
+
+    @Override
+    public void setTextMessageSizeLimit(int messageSizeLimit) {
+    }
+
+    @Override
+    public int getTextMessageSizeLimit() {
+        return 0;
+    }
+
+    @Override
+    public void setBinaryMessageSizeLimit(int messageSizeLimit) {
+    }
+
+    @Override
+    public int getBinaryMessageSizeLimit() {
+        return 0;
+    }
+
+    @Override
+    public List<WebSocketExtension> getExtensions() {
+        return List.of();
+    }
+}
@@ -0,0 +1,96 @@
+package com.capstone.backend.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AudioRingBufferTest {
+
+    @Test
+    @DisplayName("넣은 순서대로 같은 내용의 프레임을 꺼낸다")
+    void pollsFramesInOrder() {
+        AudioRingBuffer ring = new AudioRingBuffer(1024);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(ring.offer(frame(i, 100)));
+        }
+        assertEquals(5, ring.getFrameCount());
+
+        for (int i = 0; i < 5; i++) {
+            assertFrame(i, 100, ring.poll());
+        }
+        assertNull(ring.poll());
+        assertEquals(0, ring.getBufferedBytes());
+    }
+
+    @Test
+    @DisplayName("가득 차면 가장 오래된 프레임부터 버리고 최근 프레임을 유지한다")
+    void dropsOldestWhenFull() {
+        AudioRingBuffer ring = new AudioRingBuffer(4 * (4 + 100));
+        for (int i = 0; i < 10; i++) {
+            ring.offer(frame(i, 100));
+        }
+        assertEquals(4, ring.getFrameCount());
+        assertEquals(6, ring.getDroppedFrames());
+        for (int i = 6; i < 10; i++) {
+            assertFrame(i, 100, ring.poll());
+        }
+    }
+
+    @Test
+    @DisplayName("크기가 제각각인 프레임이 끝을 넘어 돌아가도 순서와 내용이 유지된다")
+    void wrapsAroundWithVariableSizes() {
+        AudioRingBuffer ring = new AudioRingBuffer(1000);
+        Deque<int[]> expected = new ArrayDeque<>(); // {seq, size}
+        Random random = new Random(7);
+
+        for (int seq = 0; seq < 10_000; seq++) {
+            int size = 1 + random.nextInt(300);
+            ring.offer(frame(seq, size));
+            expected.addLast(new int[]{seq, size});
+            while (expected.size() > ring.getFrameCount()) {
+                expected.removeFirst(); // 버려진 오래된 프레임
+            }
+            if (random.nextInt(3) == 0) {
+                int[] next = expected.removeFirst();
+                assertFrame(next[0], next[1], ring.poll());
+            }
+            assertTrue(ring.getBufferedBytes() <= 1000);
+        }
+        while (!expected.isEmpty()) {
+            int[] next = expected.removeFirst();
+            assertFrame(next[0], next[1], ring.poll());
+        }
+        assertNull(ring.poll());
+    }
+
+    @Test
+    @DisplayName("버퍼보다 큰 프레임은 넣지 않는다")
+    void rejectsFrameLargerThanCapacity() {
+        AudioRingBuffer ring = new AudioRingBuffer(64);
+        assertFalse(ring.offer(frame(0, 64)));
+        assertEquals(0, ring.getFrameCount());
+        assertEquals(1, ring.getDroppedFrames());
+    }
+
+    private static ByteBuffer frame(int seq, int size) {
+        ByteBuffer frame = ByteBuffer.allocate(size);
+        for (int i = 0; i < size; i++) {
+            frame.put((byte) (seq + i));
+        }
+        return frame.flip();
+    }
+
+    private static void assertFrame(int seq, int size, ByteBuffer actual) {
+        assertNotNull(actual);
+        assertEquals(size, actual.remaining());
+        for (int i = 0; i < size; i++) {
+            assertEquals((byte) (seq + i), actual.get(actual.position() + i));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.capstone.backend.util;
+
+import com.capstone.backend.codec.AudioConverter;
+import com.capstone.backend.codec.AudioEncoding;
+import com.capstone.backend.codec.AudioFormat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 샤드 중계({@link ShardedExecutor})의 샤드 수에 따른 처리량(frames/s)과 샤드당 처리량을 측정합니다.
+ * <ul>
+ *     <li>프레임 작업은 실제 중계와 같은 묵음 판단 + 코덱 변환 (통화마다 상태를 가진 객체를 잠금 없이 사용)</li>
+ *     <li>수신 스레드 두 개가 여러 통화의 프레임을 번갈아 넣고, 통화별 순서가 지켜지는지 함께 확인</li>
+ * </ul>
+ * ./gradlew benchmark 로 실행합니다. (일반 test 태스크에서는 제외)
+ */
+@Tag("benchmark")
+class ShardedRelayBenchmark {
+
+    private static final int CALLS = 256;
+    private static final int FRAMES_PER_CALL = 2_000;
+    private static final int PRODUCERS = 2;
+    private static final int FRAME_SAMPLES = 320; // 20ms @ 16kHz
+
+    @Test
+    @DisplayName("샤드 수(1 ~ 코어 수)별 frames/s와 샤드당 frames/s")
+    void framesPerSecondPerShard() throws InterruptedException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        ByteBuffer pcm = speechFrame();
+
+        run(1, pcm); // 워밍업
+        System.out.printf("[relay-shards] calls=%d, frames=%d, producers=%d, cores=%d%n",
+                CALLS, CALLS * FRAMES_PER_CALL, PRODUCERS, cores);
+        System.out.printf("%-7s %14s %18s%n", "shards", "frames/s", "frames/s/shard");
+
+        double single = 0;
+        double widest = 0;
+        for (int shards = 1; shards <= cores; shards *= 2) {
+            double rate = run(shards, pcm);
+            System.out.printf("%-7d %14.0f %18.0f%n", shards, rate, rate / shards);
+            if (shards == 1) {
+                single = rate;
+            }
+            widest = rate;
+        }
+        assertTrue(single > 0);
+        if (cores >= 4) {
+            assertTrue(widest > single * 1.5, "샤드를 늘리면 처리량이 늘어야 합니다.");
+        }
+    }
+
+    private double run(int shardCount, ByteBuffer pcm) throws InterruptedException {
+        CallState[] calls = new CallState[CALLS];
+        for (int i = 0; i < CALLS; i++) {
+            calls[i] = new CallState();
+        }
+        long total = (long) CALLS * FRAMES_PER_CALL;
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicLong processed = new AtomicLong();
+
+        try (ShardedExecutor executor = new ShardedExecutor("bench-shard", shardCount, 4096)) {
+            long start = System.nanoTime();
+            List<Thread> producers = new ArrayList<>();
+            for (int p = 0; p < PRODUCERS; p++) {
+                int first = p;
+                Thread producer = new Thread(() -> {
+                    // 통화를 나눠 맡아 (Tomcat처럼 한 세션의 프레임은 한 수신 스레드에서) 통화 사이를 번갈아 넣음
+                    for (int frame = 0; frame < FRAMES_PER_CALL; frame++) {
+                        for (int call = first; call < CALLS; call += PRODUCERS) {
+                            CallState state = calls[call];
+                            int sequence = frame;
+                            Runnable task = () -> {
+                                state.process(sequence, pcm);
+                                if (processed.incrementAndGet() == total) {
+                                    done.countDown();
+                                }
+                            };
+                            while (!executor.execute(call, task)) {
+                                Thread.onSpinWait(); // 처리량 측정이므로 버리지 않고 다시 시도
+                            }
+                        }
+                    }
+                });
+                producer.start();
+                producers.add(producer);
+            }
+            for (Thread producer : producers) {
+                producer.join();
+            }
+            done.await();
+            long elapsed = System.nanoTime() - start;
+
+            for (CallState state : calls) {
+                assertEquals(0, state.outOfOrder, "같은 통화의 프레임 순서가 바뀌면 안 됩니다.");
+                assertEquals(FRAMES_PER_CALL - 1, state.lastSequence);
+            }
+            return total * 1_000_000_000.0 / elapsed;
+        }
+    }
+
+    // 통화 하나의 중계 상태 - 샤드 스레드 하나에서만 쓰므로 잠금 없음
+    private static final class CallState {
+        private final VoiceActivityDetector vad = new VoiceActivityDetector(9, -55, 300, 32000);
+        private final AudioConverter gpuLeg = new AudioConverter(new AudioFormat(AudioEncoding.IMA_ADPCM, 16000));
+        private int lastSequence = -1;
+        private int outOfOrder;
+        private long sink;
+
+        void process(int sequence, ByteBuffer pcm) {
+            if (sequence != lastSequence + 1) {
+                outOfOrder++;
+            }
+            lastSequence = sequence;
+            if (vad.isVoice(pcm)) {
+                sink += gpuLeg.encode(pcm).remaining();
+            }
+        }
+    }
+
+    private static ByteBuffer speechFrame() {
+        ByteBuffer pcm = ByteBuffer.allocate(FRAME_SAMPLES * 2);
+        for (int i = 0; i < FRAME_SAMPLES; i++) {
+            int sample = (int) (Math.sin(2 * Math.PI * 220 * i / 16000) * 6000);
+            pcm.put((byte) sample).put((byte) (sample >> 8));
+        }
+        return pcm.flip();
+    }
+}
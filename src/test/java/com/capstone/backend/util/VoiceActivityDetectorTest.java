@@ -0,0 +1,109 @@
+package com.capstone.backend.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VoiceActivityDetectorTest {
+
+    private static final int SAMPLES = 320; // 20ms @ 16kHz
+    private static final int SAMPLE_RATE = 16000;
+
+    private final Random random = new Random(42);
+    private final ByteBuffer frame = ByteBuffer.allocate(SAMPLES * 2);
+
+    @Test
+    @DisplayName("배경 소음만 있는 구간은 묵음, 말소리는 그대로 보낸다")
+    void separatesSpeechFromBackgroundNoise() {
+        VoiceActivityDetector vad = newDetector(300);
+        for (int i = 0; i < 50; i++) {
+            assertFalse(vad.isVoice(noise(100)), "noise frame " + i);
+        }
+        for (int i = 0; i < 25; i++) {
+            assertTrue(vad.isVoice(tone(200, 6000)), "speech frame " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("말이 끝난 뒤 hangover 동안은 계속 보내고, 그 뒤부터 묵음으로 본다")
+    void keepsSendingDuringHangover() {
+        VoiceActivityDetector vad = newDetector(200);
+        for (int i = 0; i < 50; i++) {
+            vad.isVoice(noise(100));
+        }
+        vad.isVoice(tone(200, 6000));
+        for (int i = 0; i < 10; i++) { // 200ms = 20ms x 10
+            assertTrue(vad.isVoice(noise(100)), "hangover frame " + i);
+        }
+        assertFalse(vad.isVoice(noise(100)));
+    }
+
+    @Test
+    @DisplayName("에너지가 작아도 영교차율이 높은 무성 자음은 말소리로 본다")
+    void detectsUnvoicedConsonants() {
+        VoiceActivityDetector vad = newDetector(0);
+        for (int i = 0; i < 50; i++) {
+            vad.isVoice(tone(100, 60)); // 낮은 웅웅거림
+        }
+        assertTrue(vad.isVoice(tone(6000, 120)));
+        assertFalse(vad.isVoice(tone(100, 120))); // 같은 크기의 낮은 소리는 기준 미달
+    }
+
+    @Test
+    @DisplayName("판단해도 버퍼의 position은 바뀌지 않는다")
+    void leavesBufferPositionUntouched() {
+        VoiceActivityDetector vad = newDetector(0);
+        ByteBuffer audio = tone(200, 6000);
+        audio.position(2);
+        vad.isVoice(audio);
+        assertEquals(2, audio.position());
+        assertEquals(SAMPLES * 2, audio.limit());
+    }
+
+    @Test
+    @DisplayName("말하는 시간이 30%인 통화에서는 프레임의 절반 이상을 보내지 않는다")
+    void suppressesMostOfAMostlySilentCall() {
+        VoiceActivityDetector vad = newDetector(300);
+        int sent = 0;
+        int total = 0;
+        for (int turn = 0; turn < 20; turn++) {
+            for (int i = 0; i < 30; i++, total++) { // 0.6초 발화
+                sent += vad.isVoice(tone(150 + turn * 10, 5000)) ? 1 : 0;
+            }
+            for (int i = 0; i < 70; i++, total++) { // 1.4초 침묵
+                sent += vad.isVoice(noise(150)) ? 1 : 0;
+            }
+        }
+        assertEquals(total - sent, vad.getSuppressedFrames());
+        assertTrue(vad.getSuppressedFrames() > total / 2, "suppressed " + vad.getSuppressedFrames() + "/" + total);
+        assertTrue(sent >= 20 * 30, "sent " + sent);
+    }
+
+    private static VoiceActivityDetector newDetector(long hangoverMs) {
+        return new VoiceActivityDetector(9, -55, hangoverMs, 32000);
+    }
+
+    private ByteBuffer noise(int amplitude) {
+        frame.clear();
+        for (int i = 0; i < SAMPLES; i++) {
+            putSample((int) (random.nextGaussian() * amplitude));
+        }
+        return frame.flip();
+    }
+
+    private ByteBuffer tone(double hz, int amplitude) {
+        frame.clear();
+        for (int i = 0; i < SAMPLES; i++) {
+            putSample((int) (Math.sin(2 * Math.PI * hz * i / SAMPLE_RATE) * amplitude));
+        }
+        return frame.flip();
+    }
+
+    private void putSample(int sample) {
+        frame.put((byte) sample).put((byte) (sample >> 8));
+    }
+}
@@ -0,0 +1,118 @@
+package com.capstone.backend.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteBehindBufferTest {
+
+    @Test
+    @DisplayName("flush()는 그 전에 넣은 항목을 순서대로 batchSize 단위로 모두 쓴 뒤 반환한다")
+    void flushWritesEverythingOfferedBefore() {
+        List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+        try (WriteBehindBuffer<Integer> buffer =
+                     new WriteBehindBuffer<>("test", 1000, 10, 60_000, batch -> batches.add(List.copyOf(batch)))) {
+            for (int i = 0; i < 25; i++) {
+                assertTrue(buffer.offer(i));
+            }
+            buffer.flush();
+
+            List<Integer> written = new ArrayList<>();
+            batches.forEach(written::addAll);
+            assertEquals(25, written.size());
+            for (int i = 0; i < 25; i++) {
+                assertEquals(i, written.get(i));
+            }
+            assertTrue(batches.stream().allMatch(batch -> batch.size() <= 10));
+        }
+    }
+
+    @Test
+    @DisplayName("flushAsync()는 진행 중인 배치를 기다리지 않고 반환하고, future는 그 전에 넣은 항목이 모두 쓰인 뒤 완료된다")
+    void flushAsyncDoesNotWaitForWriter() throws Exception {
+        List<Integer> written = new CopyOnWriteArrayList<>();
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (WriteBehindBuffer<Integer> buffer = new WriteBehindBuffer<>("test", 100, 10, 60_000, batch -> {
+            written.addAll(batch);
+            writing.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS); // 느린 DB
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        })) {
+            buffer.offer(1);
+            buffer.offer(2);
+            CompletableFuture<Void> first = buffer.flushAsync();
+            assertTrue(writing.await(5, TimeUnit.SECONDS)); // 백그라운드 스레드가 첫 배치를 쓰는 중
+
+            buffer.offer(3);
+            CompletableFuture<Void> second = buffer.flushAsync(); // 쓰는 중이어도 바로 반환
+            assertFalse(second.isDone());
+
+            release.countDown();
+            second.get(5, TimeUnit.SECONDS);
+            assertTrue(first.isDone());
+            assertEquals(List.of(1, 2, 3), written);
+        }
+    }
+
+    @Test
+    @DisplayName("maxDelay가 지나면 flush() 호출 없이도 백그라운드에서 저장된다")
+    void backgroundFlusherWritesAfterMaxDelay() throws Exception {
+        List<Integer> written = new CopyOnWriteArrayList<>();
+        try (WriteBehindBuffer<Integer> buffer = new WriteBehindBuffer<>("test", 100, 50, 20, written::addAll)) {
+            buffer.offer(1);
+            buffer.offer(2);
+
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (written.size() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(List.of(1, 2), written);
+        }
+    }
+
+    @Test
+    @DisplayName("큐가 가득 차면 호출 스레드를 막지 않고 버린 뒤 개수를 센다")
+    void dropsWhenFullWithoutBlocking() {
+        List<Integer> written = new CopyOnWriteArrayList<>();
+        WriteBehindBuffer<Integer> buffer = new WriteBehindBuffer<>("test", 3, 100, 60_000, written::addAll);
+        assertTrue(buffer.offer(1));
+        assertTrue(buffer.offer(2));
+        assertTrue(buffer.offer(3));
+        assertFalse(buffer.offer(4));
+        assertEquals(1, buffer.getDroppedCount());
+
+        // 닫을 때 남은 항목을 모두 쓰고, 이후에는 받지 않음
+        buffer.close();
+        assertEquals(List.of(1, 2, 3), written);
+        assertFalse(buffer.offer(5));
+    }
+
+    @Test
+    @DisplayName("writer가 실패해도 다음 배치는 계속 처리된다")
+    void writerFailureDoesNotStopBuffer() {
+        List<Integer> written = new CopyOnWriteArrayList<>();
+        try (WriteBehindBuffer<Integer> buffer = new WriteBehindBuffer<>("test", 100, 1, 60_000, batch -> {
+            if (batch.contains(1)) {
+                throw new IllegalStateException("boom");
+            }
+            written.addAll(batch);
+        })) {
+            buffer.offer(1);
+            buffer.offer(2);
+            buffer.flush();
+            assertEquals(List.of(2), written);
+        }
+    }
+}